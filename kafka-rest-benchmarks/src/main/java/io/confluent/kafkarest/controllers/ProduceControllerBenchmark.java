@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import com.google.protobuf.ByteString;
+import io.confluent.kafkarest.common.ByteStrings;
+import io.confluent.kafkarest.entities.ProduceResult;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.RoundRobinPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link ProduceControllerImpl#produce}, from the serialized key and value to the
+ * completed future, against a {@link MockProducer} that completes every send straight away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProduceControllerBenchmark {
+
+  private static final String CLUSTER_ID = "cluster-1";
+  private static final String TOPIC_NAME = "topic-1";
+  private static final int BATCH_SIZE = 1000;
+
+  @Param({"0", "100"})
+  public int maxBurstRecords;
+
+  @Param({"100", "10000"})
+  public int valueSize;
+
+  private MockProducer<byte[], byte[]> producer;
+  private ProduceControllerImpl controller;
+  private Multimap<String, Optional<ByteString>> headers;
+  private Optional<ByteString> key;
+  private Optional<ByteString> value;
+
+  @Setup
+  public void setUp() {
+    Node node = new Node(1, "localhost", 1234);
+    Cluster cluster =
+        new Cluster(
+            CLUSTER_ID,
+            singletonList(node),
+            Arrays.asList(
+                new PartitionInfo(TOPIC_NAME, 0, node, new Node[] {node}, new Node[] {node}),
+                new PartitionInfo(TOPIC_NAME, 1, node, new Node[] {node}, new Node[] {node}),
+                new PartitionInfo(TOPIC_NAME, 2, node, new Node[] {node}, new Node[] {node})),
+            emptySet(),
+            emptySet());
+    producer =
+        new MockProducer<>(
+            cluster,
+            /* autoComplete= */ true,
+            new RoundRobinPartitioner(),
+            new ByteArraySerializer(),
+            new ByteArraySerializer());
+    controller =
+        new ProduceControllerImpl(
+            new PartitionBatchingProducer(producer, maxBurstRecords),
+            /* producerProfile= */ Optional.empty());
+    headers = ImmutableMultimap.of("header-1", Optional.of(ByteStrings.wrap(new byte[16])));
+    key = Optional.of(ByteStrings.wrap(new byte[16]));
+    value = Optional.of(ByteStrings.wrap(new byte[valueSize]));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void produce(Blackhole blackhole) {
+    Instant timestamp = Instant.now();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      CompletableFuture<ProduceResult> result =
+          controller.produce(
+              CLUSTER_ID, TOPIC_NAME, Optional.empty(), headers, key, value, timestamp);
+      blackhole.consume(result.join());
+    }
+    // MockProducer keeps every record sent, which would otherwise end up measuring the GC.
+    producer.clear();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS;
+import static io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG;
+import static io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig.USE_LATEST_VERSION;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import io.confluent.kafka.serializers.subject.TopicNameStrategy;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.RegisteredSchema;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SchemaRecordSerializerImpl#serialize} for each schema format, against an
+ * in-memory schema registry where the schemas are already registered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaRecordSerializerBenchmark {
+
+  private static final String TOPIC_NAME = "topic-1";
+  private static final String SCHEMA_REGISTRY_SCOPE = "benchmark";
+  private static final Map<String, Object> SERIALIZER_CONFIGS =
+      ImmutableMap.of(
+          SCHEMA_REGISTRY_URL_CONFIG, "mock://" + SCHEMA_REGISTRY_SCOPE,
+          AUTO_REGISTER_SCHEMAS, false,
+          USE_LATEST_VERSION, false);
+
+  @Param({"AVRO", "JSONSCHEMA", "PROTOBUF"})
+  public EmbeddedFormat format;
+
+  private SchemaRecordSerializerImpl serializer;
+  private Optional<RegisteredSchema> schema;
+  private JsonNode data;
+
+  @Setup
+  public void setUp() throws Exception {
+    SchemaRegistryClient schemaRegistryClient =
+        MockSchemaRegistry.getClientForScope(
+            SCHEMA_REGISTRY_SCOPE,
+            Arrays.asList(
+                new AvroSchemaProvider(), new JsonSchemaProvider(), new ProtobufSchemaProvider()));
+    serializer =
+        new SchemaRecordSerializerImpl(
+            schemaRegistryClient,
+            SERIALIZER_CONFIGS,
+            SERIALIZER_CONFIGS,
+            SERIALIZER_CONFIGS,
+            /* nullRequestBodyAlwaysPublishEmptyRecord= */ false);
+
+    ParsedSchema parsedSchema = parseSchema(format);
+    String subject =
+        new TopicNameStrategy().subjectName(TOPIC_NAME, /* isKey= */ false, parsedSchema);
+    int schemaId = schemaRegistryClient.register(subject, parsedSchema);
+    schema =
+        Optional.of(
+            RegisteredSchema.create(subject, schemaId, /* schemaVersion= */ 1, parsedSchema));
+    data =
+        new ObjectMapper()
+            .readTree(
+                "{\"id\":12345,\"name\":\"some-name\",\"score\":1.5,\"active\":true,"
+                    + "\"tags\":[\"tag-1\",\"tag-2\",\"tag-3\"]}");
+  }
+
+  @TearDown
+  public void tearDown() {
+    MockSchemaRegistry.dropScope(SCHEMA_REGISTRY_SCOPE);
+  }
+
+  @Benchmark
+  public Optional<ByteString> serialize() {
+    return serializer.serialize(format, TOPIC_NAME, schema, data, /* isKey= */ false);
+  }
+
+  private static ParsedSchema parseSchema(EmbeddedFormat format) {
+    switch (format) {
+      case AVRO:
+        return new AvroSchema(
+            "{\"type\":\"record\",\"name\":\"Value\",\"fields\":["
+                + "{\"name\":\"id\",\"type\":\"long\"},"
+                + "{\"name\":\"name\",\"type\":\"string\"},"
+                + "{\"name\":\"score\",\"type\":\"double\"},"
+                + "{\"name\":\"active\",\"type\":\"boolean\"},"
+                + "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}}]}");
+      case JSONSCHEMA:
+        return new JsonSchema(
+            "{\"type\":\"object\",\"properties\":{"
+                + "\"id\":{\"type\":\"integer\"},"
+                + "\"name\":{\"type\":\"string\"},"
+                + "\"score\":{\"type\":\"number\"},"
+                + "\"active\":{\"type\":\"boolean\"},"
+                + "\"tags\":{\"type\":\"array\",\"items\":{\"type\":\"string\"}}}}");
+      case PROTOBUF:
+        return new ProtobufSchema(
+            "syntax = \"proto3\"; message Value { int64 id = 1; string name = 2; "
+                + "double score = 3; bool active = 4; repeated string tags = 5; }");
+      default:
+        throw new IllegalArgumentException(format.name());
+    }
+  }
+}
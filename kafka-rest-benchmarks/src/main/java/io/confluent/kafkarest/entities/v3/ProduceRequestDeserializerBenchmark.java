@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.entities.v3;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link ProduceRequest} deserialization, both for a single request (as done by the
+ * batch endpoint) and for a stream of concatenated requests (as done by the streaming endpoint).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProduceRequestDeserializerBenchmark {
+
+  private static final int STREAM_SIZE = 100;
+
+  @Param({"BINARY", "JSON"})
+  public String valueType;
+
+  @Param({"100", "10000"})
+  public int valueSize;
+
+  private ObjectReader reader;
+  private byte[] request;
+  private byte[] stream;
+
+  @Setup
+  public void setUp() {
+    reader =
+        new ObjectMapper()
+            .registerModule(new GuavaModule())
+            .registerModule(new Jdk8Module())
+            .registerModule(new JavaTimeModule())
+            .readerFor(ProduceRequest.class);
+
+    String value;
+    if (valueType.equals("BINARY")) {
+      byte[] bytes = new byte[valueSize * 3 / 4];
+      value = '"' + Base64.getEncoder().encodeToString(bytes) + '"';
+    } else {
+      value = "{\"field\":\"" + "x".repeat(valueSize) + "\",\"count\":123,\"flag\":true}";
+    }
+    String json =
+        "{\"partition_id\":0,"
+            + "\"headers\":[{\"name\":\"header-1\",\"value\":\"dmFsdWUtMQ==\"}],"
+            + "\"key\":{\"type\":\"BINARY\",\"data\":\"a2V5LTE=\"},"
+            + "\"value\":{\"type\":\""
+            + valueType
+            + "\",\"data\":"
+            + value
+            + "}}";
+    request = json.getBytes(StandardCharsets.UTF_8);
+    stream = (json + "\n").repeat(STREAM_SIZE).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public ProduceRequest single() throws IOException {
+    return reader.readValue(request);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STREAM_SIZE)
+  public void stream(Blackhole blackhole) throws IOException {
+    try (MappingIterator<ProduceRequest> iterator = reader.readValues(stream)) {
+      while (iterator.hasNext()) {
+        blackhole.consume(iterator.next());
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import io.confluent.kafkarest.resources.v3.ProduceRateLimiters;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of {@link ProduceRateLimiters} on the produce path, for each rate-limiter
+ * backend, with rates high enough that no request is ever denied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProduceRateLimitersBenchmark {
+
+  private static final String CLUSTER_ID = "cluster-1";
+  private static final long REQUEST_SIZE = 10;
+  private static final int BATCH_SIZE = 100;
+
+  public enum Backend {
+    GUAVA,
+    RESILIENCE4J,
+    TOKEN_BUCKET
+  }
+
+  @Param({"GUAVA", "RESILIENCE4J", "TOKEN_BUCKET"})
+  public Backend backend;
+
+  private ProduceRateLimiters rateLimiters;
+  private long[] batchSizes;
+
+  @Setup
+  public void setUp() {
+    RequestRateLimiter countGlobal = create(backend);
+    RequestRateLimiter bytesGlobal = create(backend);
+    rateLimiters =
+        new ProduceRateLimiters(
+            () -> create(backend),
+            () -> create(backend),
+            () -> countGlobal,
+            () -> bytesGlobal,
+            /* produceRateLimitEnabledConfig= */ true,
+            /* produceRateLimitCacheExpiryConfig= */ Duration.ofHours(1));
+    batchSizes = new long[BATCH_SIZE];
+    Arrays.fill(batchSizes, REQUEST_SIZE);
+  }
+
+  @Benchmark
+  public void single() {
+    // Nothing is ever denied, so there is no request to report the error code on.
+    rateLimiters.rateLimit(CLUSTER_ID, REQUEST_SIZE, /* httpServletRequest= */ null);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void singleContended() {
+    rateLimiters.rateLimit(CLUSTER_ID, REQUEST_SIZE, /* httpServletRequest= */ null);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public int batch() {
+    return rateLimiters.rateLimit(CLUSTER_ID, batchSizes, /* httpServletRequest= */ null);
+  }
+
+  private static RequestRateLimiter create(Backend backend) {
+    switch (backend) {
+      case GUAVA:
+        return GuavaRateLimiter.create(Integer.MAX_VALUE, Duration.ZERO);
+      case RESILIENCE4J:
+        return Resilience4JRateLimiter.create(Integer.MAX_VALUE, Duration.ZERO);
+      case TOKEN_BUCKET:
+        return TokenBucketRateLimiter.create(Integer.MAX_VALUE, Duration.ZERO);
+      default:
+        throw new IllegalArgumentException(backend.name());
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.confluent.kafkarest.requestlog.CustomLog.ProduceRecordErrorCounter;
+import io.confluent.kafkarest.response.StreamingResponse.ResultOrError;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a {@link StreamingResponse} from reading the requests to writing their responses, with
+ * the responses completing in a different order than the requests arrived in, so that the
+ * response queue has to hold them back to write them in order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingResponseBenchmark {
+
+  private static final int STREAM_SIZE = 1000;
+  private static final Duration MAX_DURATION = Duration.ofHours(1);
+
+  public enum CompletionOrder {
+    IN_ORDER,
+    REVERSED,
+    SHUFFLED
+  }
+
+  @Param({"IN_ORDER", "REVERSED", "SHUFFLED"})
+  public CompletionOrder completionOrder;
+
+  @Param({"0", "100"})
+  public int responseBatchMaxRecords;
+
+  private ObjectReader reader;
+  private byte[] requests;
+  private int[] completions;
+  private CountingChunkedOutputFactory chunkedOutputFactory;
+  private StreamingResponseFactory streamingResponseFactory;
+
+  @Setup
+  public void setUp() {
+    reader = new ObjectMapper().readerFor(Integer.class);
+    requests =
+        IntStream.range(0, STREAM_SIZE)
+            .mapToObj(Integer::toString)
+            .collect(Collectors.joining("\n"))
+            .getBytes(StandardCharsets.UTF_8);
+
+    List<Integer> order =
+        IntStream.range(0, STREAM_SIZE).boxed().collect(Collectors.toCollection(ArrayList::new));
+    if (completionOrder == CompletionOrder.REVERSED) {
+      Collections.reverse(order);
+    } else if (completionOrder == CompletionOrder.SHUFFLED) {
+      Collections.shuffle(order, new Random(0));
+    }
+    completions = order.stream().mapToInt(Integer::intValue).toArray();
+
+    chunkedOutputFactory = new CountingChunkedOutputFactory();
+    streamingResponseFactory =
+        new StreamingResponseFactory(
+            chunkedOutputFactory,
+            MAX_DURATION,
+            MAX_DURATION,
+            /* maxInFlightRecords= */ 0,
+            responseBatchMaxRecords,
+            /* responseLinger= */ Duration.ZERO,
+            MoreExecutors.newDirectExecutorService());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STREAM_SIZE)
+  public int stream() {
+    List<CompletableFuture<Integer>> responses = new ArrayList<>(STREAM_SIZE);
+    for (int i = 0; i < STREAM_SIZE; i++) {
+      responses.add(new CompletableFuture<>());
+    }
+    streamingResponseFactory
+        .from(
+            new JsonStream<Integer>(
+                () -> {
+                  try {
+                    return reader.readValues(requests);
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                }))
+        .compose(responses::get)
+        .resume(new FakeAsyncResponse(), new ProduceRecordErrorCounter());
+    for (int i : completions) {
+      responses.get(i).complete(i);
+    }
+    return chunkedOutputFactory.output.written;
+  }
+
+  private static final class CountingChunkedOutputFactory extends ChunkedOutputFactory {
+
+    private CountingChunkedOutput output;
+
+    @Override
+    public ChunkedOutput<ResultOrError> getChunkedOutput() {
+      output = new CountingChunkedOutput();
+      return output;
+    }
+  }
+
+  /** Drops every chunk written to it, only counting them. */
+  private static final class CountingChunkedOutput extends ChunkedOutput<ResultOrError> {
+
+    private int written = 0;
+    private boolean closed = false;
+
+    private CountingChunkedOutput() {
+      super(ResultOrError.class, ChunkedOutputFactory.CHUNK_SEPARATOR);
+    }
+
+    @Override
+    public void write(ResultOrError chunk) {
+      written++;
+    }
+
+    @Override
+    public boolean isClosed() {
+      return closed;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
+import com.google.protobuf.ByteString;
+import io.confluent.kafkarest.ConsumerInstanceId;
+import io.confluent.kafkarest.ConsumerReadCallback;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.entities.ConsumerInstanceConfig;
+import io.confluent.kafkarest.entities.ConsumerRecord;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how {@link KafkaConsumerReadTask} assembles the response of a v2 consumer read, from
+ * the records returned by the consumer to the records handed to the callback, against a {@link
+ * MockConsumer} that always has {@code RECORDS_PER_READ} records ready.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KafkaConsumerReadTaskBenchmark {
+
+  private static final String TOPIC_NAME = "topic-1";
+  private static final TopicPartition PARTITION = new TopicPartition(TOPIC_NAME, 0);
+  private static final int RECORDS_PER_READ = 500;
+
+  @Param({"100", "10000"})
+  public int valueSize;
+
+  private KafkaRestConfig config;
+  private MockConsumer<byte[], byte[]> consumer;
+  private BinaryKafkaConsumerState consumerState;
+  private byte[] key;
+  private byte[] value;
+  private long nextOffset = 0;
+
+  @Setup
+  public void setUp() {
+    config = new KafkaRestConfig(new Properties());
+    consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    consumer.assign(singletonList(PARTITION));
+    consumer.updateBeginningOffsets(singletonMap(PARTITION, 0L));
+    consumerState =
+        new BinaryKafkaConsumerState(
+            config,
+            ConsumerInstanceConfig.create(EmbeddedFormat.BINARY),
+            new ConsumerInstanceId("group-1", "instance-1"),
+            consumer);
+    key = new byte[16];
+    value = new byte[valueSize];
+  }
+
+  @Setup(Level.Invocation)
+  public void addRecords() {
+    for (int i = 0; i < RECORDS_PER_READ; i++) {
+      consumer.addRecord(
+          new org.apache.kafka.clients.consumer.ConsumerRecord<>(
+              TOPIC_NAME, PARTITION.partition(), nextOffset++, key, value));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS_PER_READ)
+  public List<ConsumerRecord<ByteString, ByteString>> read() {
+    RecordingCallback callback = new RecordingCallback();
+    KafkaConsumerReadTask<byte[], byte[], ByteString, ByteString> task =
+        new KafkaConsumerReadTask<>(
+            consumerState, Duration.ZERO, Long.MAX_VALUE, callback, config);
+    task.doPartialRead();
+    // Finishes on the records polled so far, instead of waiting for the request timeout.
+    if (!task.isDone()) {
+      task.finish();
+    }
+    if (callback.records.size() != RECORDS_PER_READ) {
+      throw new IllegalStateException("Read " + callback.records.size() + " records.");
+    }
+    return callback.records;
+  }
+
+  private static final class RecordingCallback
+      implements ConsumerReadCallback<ByteString, ByteString> {
+
+    private List<ConsumerRecord<ByteString, ByteString>> records;
+
+    @Override
+    public void onCompletion(List<ConsumerRecord<ByteString, ByteString>> records, Exception e) {
+      if (e != null) {
+        throw new IllegalStateException(e);
+      }
+      this.records = records;
+    }
+  }
+}
@@ -40,6 +40,7 @@ import io.confluent.kafkarest.requestlog.PerConnectionDosFilterListener;
 import io.confluent.kafkarest.resources.ResourcesFeature;
 import io.confluent.kafkarest.response.JsonStreamMessageBodyReader;
 import io.confluent.kafkarest.response.ResponseModule;
+import io.confluent.kafkarest.response.ResultOrErrorBatchMessageBodyWriter;
 import io.confluent.rest.Application;
 import io.confluent.rest.RestConfig;
 import io.confluent.rest.exceptions.ConstraintViolationExceptionMapper;
@@ -160,6 +161,7 @@ public class KafkaRestApplication extends Application<KafkaRestConfig> {
 
     config.property(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, 0);
     config.register(new JsonStreamMessageBodyReader(getJsonMapper(), appConfig));
+    config.register(new ResultOrErrorBatchMessageBodyWriter(getJsonMapper()));
     config.register(new BackendsModule());
     config.register(new ConfigModule(appConfig));
     config.register(new ControllersModule());
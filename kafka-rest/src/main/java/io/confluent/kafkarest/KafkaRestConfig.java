@@ -37,6 +37,7 @@ import io.confluent.kafka.serializers.KafkaAvroSerializerConfig;
 import io.confluent.kafka.serializers.KafkaJsonSerializerConfig;
 import io.confluent.kafka.serializers.json.KafkaJsonSchemaSerializerConfig;
 import io.confluent.kafka.serializers.protobuf.KafkaProtobufSerializerConfig;
+import io.confluent.kafkarest.ratelimit.InMemoryRateLimitStateStore;
 import io.confluent.kafkarest.ratelimit.RateLimitBackend;
 import io.confluent.rest.RestConfig;
 import io.confluent.rest.RestConfigException;
@@ -51,16 +52,21 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigDef.Importance;
 import org.apache.kafka.common.config.ConfigDef.Range;
 import org.apache.kafka.common.config.ConfigDef.Type;
+import org.apache.kafka.common.config.ConfigException;
 import org.apache.kafka.common.config.SaslConfigs;
 import org.apache.kafka.common.config.types.Password;
 import org.apache.kafka.common.metrics.Metrics;
@@ -109,6 +115,15 @@ public class KafkaRestConfig extends RestConfig {
           + " The value of -1 denotes unbounded thread creation";
   public static final String CONSUMER_MAX_THREADS_DEFAULT = "50";
 
+  public static final String CONSUMER_VIRTUAL_THREADS_ENABLE_CONFIG =
+      "consumer.virtual.threads.enable";
+  private static final String CONSUMER_VIRTUAL_THREADS_ENABLE_DOC =
+      "Whether to run consumer requests on virtual threads instead of a thread pool. "
+          + "consumer.threads then caps how many consumer requests run at once, and the ones past "
+          + "the cap wait for their turn, instead of being delayed or run on the calling thread. "
+          + "Requires Java 21 or later. Default is false.";
+  public static final String CONSUMER_VIRTUAL_THREADS_ENABLE_DEFAULT = "false";
+
   public static final String ZOOKEEPER_CONNECT_CONFIG = "zookeeper.connect";
   private static final String ZOOKEEPER_CONNECT_DOC =
       "NOTE: Only required when using v1 Consumer API's. Specifies the ZooKeeper connection string"
@@ -234,6 +249,103 @@ public class KafkaRestConfig extends RestConfig {
   public static final ConfigDef.Range PRODUCE_BATCH_MAXIMUM_ENTRIES_VALIDATOR =
       ConfigDef.Range.between(1, 50);
 
+  public static final String PRODUCE_SCHEMA_CACHE_MAX_SIZE =
+      "api.v3.produce.schema.cache.max.size";
+  private static final String PRODUCE_SCHEMA_CACHE_MAX_SIZE_DOC =
+      "The maximum number of resolved schemas kept in the cache in front of Schema Registry used "
+          + "by produce requests. Entries are keyed by the schema selectors of the request "
+          + "(topic, key or value, format, subject, subject name strategy, schema ID, schema "
+          + "version and raw schema). A value of 0 disables the cache.";
+  public static final String PRODUCE_SCHEMA_CACHE_MAX_SIZE_DEFAULT = "1000";
+  public static final ConfigDef.Range PRODUCE_SCHEMA_CACHE_MAX_SIZE_VALIDATOR =
+      ConfigDef.Range.atLeast(0);
+
+  public static final String PRODUCE_SCHEMA_CACHE_EXPIRY_MS =
+      "api.v3.produce.schema.cache.expiry.ms";
+  private static final String PRODUCE_SCHEMA_CACHE_EXPIRY_MS_DOC =
+      "How long after being resolved a schema remains in the produce schema cache. This bounds "
+          + "how long it takes for produce requests that do not pin a schema ID or version to "
+          + "pick up a new latest version of a subject. Default is 1 minute.";
+  public static final String PRODUCE_SCHEMA_CACHE_EXPIRY_MS_DEFAULT = "60000";
+
+  public static final String PRODUCE_PARTITION_BATCH_MAX_RECORDS =
+      "api.v3.produce.partition.batch.max.records";
+  private static final String PRODUCE_PARTITION_BATCH_MAX_RECORDS_DOC =
+      "When greater than 0, records produced concurrently by different requests are queued per "
+          + "topic partition, and handed to the producer in bursts by whichever request thread "
+          + "finds the queue idle, instead of each request thread calling the producer. This is "
+          + "the maximum number of records a thread sends in one burst before handing the rest "
+          + "of the queue over to a background thread. A value of 0 disables batching.";
+  public static final String PRODUCE_PARTITION_BATCH_MAX_RECORDS_DEFAULT = "0";
+  public static final ConfigDef.Range PRODUCE_PARTITION_BATCH_MAX_RECORDS_VALIDATOR =
+      ConfigDef.Range.atLeast(0);
+
+  public static final String PRODUCE_PRODUCER_POOL_SIZE = "api.v3.produce.producer.pool.size";
+  private static final String PRODUCE_PRODUCER_POOL_SIZE_DOC =
+      "The number of Kafka producers produce requests are spread over. Each producer has its own "
+          + "record accumulator and sender thread. Records are routed by topic and partition, "
+          + "the partition of records with a key being the one the default partitioner picks, so "
+          + "that the order of records sent to the same partition is kept. Records with neither "
+          + "a partition nor a key are spread round-robin. If client.id is set, each producer "
+          + "gets the client ID suffixed with its index, e.g. client-1. A value of 0 uses one "
+          + "producer per available processor.";
+  public static final String PRODUCE_PRODUCER_POOL_SIZE_DEFAULT = "1";
+  public static final ConfigDef.Range PRODUCE_PRODUCER_POOL_SIZE_VALIDATOR =
+      ConfigDef.Range.atLeast(0);
+
+  public static final String PRODUCE_PRODUCER_PROFILES = "api.v3.produce.producer.profiles";
+  private static final String PRODUCE_PRODUCER_PROFILES_DOC =
+      "A list of named producer profiles. Each profile gets producers of its own, built from the "
+          + "producer configs overridden by the configs prefixed with "
+          + "api.v3.produce.producer.profile.<name>.producer. (e.g. "
+          + "api.v3.produce.producer.profile.bulk.producer.linger.ms=100). A profile is used for "
+          + "produce requests naming it in the header set by "
+          + "api.v3.produce.producer.profile.header.name, or else for topics matching the regular "
+          + "expression set by api.v3.produce.producer.profile.<name>.topic.pattern, checked in "
+          + "the order of this list. Other produce requests use the default producers. Each "
+          + "profile has api.v3.produce.producer.profile.<name>.pool.size producers, one by "
+          + "default, with 0 using one producer per available processor.";
+  public static final String PRODUCE_PRODUCER_PROFILES_DEFAULT = "";
+
+  public static final String PRODUCE_PRODUCER_PROFILE_PREFIX = "api.v3.produce.producer.profile.";
+  public static final String PRODUCE_PRODUCER_PROFILE_TOPIC_PATTERN_SUFFIX = ".topic.pattern";
+  public static final String PRODUCE_PRODUCER_PROFILE_PRODUCER_CONFIGS_SUFFIX = ".producer.";
+  public static final String PRODUCE_PRODUCER_PROFILE_POOL_SIZE_SUFFIX = ".pool.size";
+  public static final int PRODUCE_PRODUCER_PROFILE_POOL_SIZE_DEFAULT = 1;
+
+  public static final String PRODUCE_PRODUCER_PROFILE_HEADER_NAME =
+      "api.v3.produce.producer.profile.header.name";
+  private static final String PRODUCE_PRODUCER_PROFILE_HEADER_NAME_DOC =
+      "The name of the HTTP header produce requests can use to select a producer profile, "
+          + "regardless of the topic. Produce requests naming an unknown profile are rejected. "
+          + "An empty name disables selecting profiles by header.";
+  public static final String PRODUCE_PRODUCER_PROFILE_HEADER_NAME_DEFAULT = "";
+
+  public static final String PRODUCE_CONCURRENCY_LIMIT_ENABLED =
+      "api.v3.produce.concurrency.limit.enabled";
+  private static final String PRODUCE_CONCURRENCY_LIMIT_ENABLED_DOC =
+      "Whether to limit how many produce requests can wait on the Kafka cluster at once. The "
+          + "limit adapts to the latency of the cluster: it shrinks when the latency goes up, or "
+          + "when records time out in the producer, and grows back otherwise. Requests past the "
+          + "limit fail straight away with HTTP 429, instead of queueing up in the producer. "
+          + "Default is false.";
+  public static final String PRODUCE_CONCURRENCY_LIMIT_ENABLED_DEFAULT = "false";
+
+  public static final String PRODUCE_CONCURRENCY_LIMIT_MIN = "api.v3.produce.concurrency.limit.min";
+  private static final String PRODUCE_CONCURRENCY_LIMIT_MIN_DOC =
+      "The lowest the produce concurrency limit can go. Default is 10.";
+  public static final int PRODUCE_CONCURRENCY_LIMIT_MIN_DEFAULT = 10;
+  public static final ConfigDef.Range PRODUCE_CONCURRENCY_LIMIT_MIN_VALIDATOR =
+      ConfigDef.Range.atLeast(1);
+
+  public static final String PRODUCE_CONCURRENCY_LIMIT_MAX = "api.v3.produce.concurrency.limit.max";
+  private static final String PRODUCE_CONCURRENCY_LIMIT_MAX_DOC =
+      "The highest the produce concurrency limit can go, and where it starts from. Default is "
+          + "10000.";
+  public static final int PRODUCE_CONCURRENCY_LIMIT_MAX_DEFAULT = 10000;
+  public static final ConfigDef.Range PRODUCE_CONCURRENCY_LIMIT_MAX_VALIDATOR =
+      ConfigDef.Range.atLeast(1);
+
   public static final String PRODUCE_REQUEST_SIZE_LIMIT_MAX_BYTES_CONFIG =
       "api.v3.produce.request.size.limit.max.bytes";
   private static final String PRODUCE_REQUEST_SIZE_LIMIT_MAX_BYTES_DOC =
@@ -286,6 +398,25 @@ public class KafkaRestConfig extends RestConfig {
       "Amount of idle time before a consumer instance " + "is automatically destroyed.";
   public static final String CONSUMER_INSTANCE_TIMEOUT_MS_DEFAULT = "300000";
 
+  public static final String CONSUMER_PREFETCH_ENABLE_CONFIG = "consumer.prefetch.enable";
+  private static final String CONSUMER_PREFETCH_ENABLE_DOC =
+      "Whether V2 consumer instances should keep polling Kafka in the background, every "
+          + "consumer.iterator.backoff.ms, so that read requests are served from records already "
+          + "buffered in memory. Up to consumer.prefetch.max.bytes are buffered per consumer "
+          + "instance. Note that, with enable.auto.commit, buffered records that are never read "
+          + "(e.g. because the consumer instance expires) may be committed. Default is false.";
+  public static final String CONSUMER_PREFETCH_ENABLE_DEFAULT = "false";
+
+  public static final String CONSUMER_PREFETCH_MAX_BYTES_CONFIG = "consumer.prefetch.max.bytes";
+  private static final String CONSUMER_PREFETCH_MAX_BYTES_DOC =
+      "Maximum number of bytes in message keys and values buffered by a single V2 consumer "
+          + "instance when consumer.prefetch.enable is true. Once reached, the consumer instance "
+          + "pauses fetching until read requests drain its buffer. A single poll can go over the "
+          + "limit by up to max.poll.records records.";
+  public static final long CONSUMER_PREFETCH_MAX_BYTES_DEFAULT = 4 * 1024 * 1024;
+  public static final ConfigDef.Range CONSUMER_PREFETCH_MAX_BYTES_VALIDATOR =
+      ConfigDef.Range.atLeast(1);
+
   public static final String SIMPLE_CONSUMER_MAX_POOL_SIZE_CONFIG = "simpleconsumer.pool.size.max";
   private static final String SIMPLE_CONSUMER_MAX_POOL_SIZE_DOC =
       "Maximum number of SimpleConsumers that can be instantiated per broker."
@@ -452,10 +583,33 @@ public class KafkaRestConfig extends RestConfig {
 
   public static final String RATE_LIMIT_BACKEND_CONFIG = "rate.limit.backend";
   private static final String RATE_LIMIT_BACKEND_DOC =
-      "The rate-limiting backend to use. The options are 'guava' and 'resilience4j'. Default is "
-          + "'guava'.";
+      "The rate-limiting backend to use. The options are 'guava', 'resilience4j' and "
+          + "'token_bucket', a lock-free token bucket that also lets the produce APIs acquire all "
+          + "of their rate-limits in one go, and 'distributed', which shares the rate-limits "
+          + "between all the REST proxy replicas, see rate.limit.distributed.store.class. Default "
+          + "is 'guava'.";
   private static final String RATE_LIMIT_BACKEND_DEFAULT = "guava";
 
+  public static final String RATE_LIMIT_DISTRIBUTED_STORE_CLASS_CONFIG =
+      "rate.limit.distributed.store.class";
+  private static final String RATE_LIMIT_DISTRIBUTED_STORE_CLASS_DOC =
+      "The io.confluent.kafkarest.ratelimit.RateLimitStateStore the replicas share their "
+          + "rate-limit usage through, when rate.limit.backend is 'distributed'. Each replica "
+          + "enforces its fair share of the rate-limits locally, and only talks to the store in "
+          + "the background, every rate.limit.distributed.sync.interval.ms. The default store "
+          + "keeps the state in memory, so that each replica gets the whole of the rate-limits.";
+  private static final Class<?> RATE_LIMIT_DISTRIBUTED_STORE_CLASS_DEFAULT =
+      InMemoryRateLimitStateStore.class;
+
+  public static final String RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_CONFIG =
+      "rate.limit.distributed.sync.interval.ms";
+  private static final String RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_DOC =
+      "How often the replicas share their rate-limit usage, and work out their fair share of the "
+          + "rate-limits, when rate.limit.backend is 'distributed'. Default is 1000ms.";
+  private static final long RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_DEFAULT = 1000;
+  private static final ConfigDef.Range RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_VALIDATOR =
+      ConfigDef.Range.atLeast(1);
+
   public static final String RATE_LIMIT_PERMITS_PER_SEC_CONFIG = "rate.limit.permits.per.sec";
   private static final String RATE_LIMIT_PERMITS_PER_SEC_DOC =
       "The maximum number of permits to emit per second. A permit is an unit of cost for a "
@@ -514,6 +668,32 @@ public class KafkaRestConfig extends RestConfig {
           + "requests will be processed for before the connection is closed.";
   private static final String STREAMING_CONNECTION_MAX_DURATION_GRACE_PERIOD_MS_DEFAULT = "500";
 
+  public static final String STREAMING_CONNECTION_MAX_IN_FLIGHT_RECORDS =
+      "streaming.connection.max.in.flight.records";
+  private static final String STREAMING_CONNECTION_MAX_IN_FLIGHT_RECORDS_DOC =
+      "The maximum number of records of a streaming connection that can be waiting for a response "
+          + "at any given time. Once this limit is reached, the connection stops reading new "
+          + "requests until an outstanding request completes. A value of 0 disables the limit.";
+  private static final String STREAMING_CONNECTION_MAX_IN_FLIGHT_RECORDS_DEFAULT = "1000";
+
+  public static final String STREAMING_CONNECTION_RESPONSE_BATCH_MAX_RECORDS =
+      "streaming.connection.response.batch.max.records";
+  private static final String STREAMING_CONNECTION_RESPONSE_BATCH_MAX_RECORDS_DOC =
+      "The maximum number of responses of a streaming connection that are coalesced into a single "
+          + "chunk write. Responses that are ready to be written at the same time are written and "
+          + "flushed together, instead of one chunk per response. Produce responses are small and "
+          + "of bounded size, so this also bounds the size of a chunk. A value of 0 or 1 disables "
+          + "coalescing.";
+  private static final String STREAMING_CONNECTION_RESPONSE_BATCH_MAX_RECORDS_DEFAULT = "0";
+
+  public static final String STREAMING_CONNECTION_RESPONSE_LINGER_MS =
+      "streaming.connection.response.linger.ms";
+  private static final String STREAMING_CONNECTION_RESPONSE_LINGER_MS_DOC =
+      "How long a streaming connection waits for more responses to complete before writing a "
+          + "partial batch of responses, when response coalescing is enabled. A value of 0 writes "
+          + "whatever responses are ready without waiting.";
+  private static final String STREAMING_CONNECTION_RESPONSE_LINGER_MS_DEFAULT = "0";
+
   public static final String USE_CUSTOM_REQUEST_LOGGING_CONFIG = "use.custom.request.logging";
   private static final String USE_CUSTOM_REQUEST_LOGGING_DOC =
       "Whether to use custom-request-logging i.e. CustomLog.java. Instead of using"
@@ -558,6 +738,12 @@ public class KafkaRestConfig extends RestConfig {
             CONSUMER_MAX_THREADS_DEFAULT,
             Importance.MEDIUM,
             CONSUMER_MAX_THREADS_DOC)
+        .define(
+            CONSUMER_VIRTUAL_THREADS_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            CONSUMER_VIRTUAL_THREADS_ENABLE_DEFAULT,
+            Importance.LOW,
+            CONSUMER_VIRTUAL_THREADS_ENABLE_DOC)
         .define(
             ZOOKEEPER_CONNECT_CONFIG,
             Type.STRING,
@@ -643,6 +829,65 @@ public class KafkaRestConfig extends RestConfig {
             PRODUCE_BATCH_MAXIMUM_ENTRIES_VALIDATOR,
             Importance.LOW,
             PRODUCE_BATCH_MAXIMUM_ENTRIES_DOC)
+        .define(
+            PRODUCE_SCHEMA_CACHE_MAX_SIZE,
+            Type.INT,
+            PRODUCE_SCHEMA_CACHE_MAX_SIZE_DEFAULT,
+            PRODUCE_SCHEMA_CACHE_MAX_SIZE_VALIDATOR,
+            Importance.LOW,
+            PRODUCE_SCHEMA_CACHE_MAX_SIZE_DOC)
+        .define(
+            PRODUCE_SCHEMA_CACHE_EXPIRY_MS,
+            Type.LONG,
+            PRODUCE_SCHEMA_CACHE_EXPIRY_MS_DEFAULT,
+            Importance.LOW,
+            PRODUCE_SCHEMA_CACHE_EXPIRY_MS_DOC)
+        .define(
+            PRODUCE_PARTITION_BATCH_MAX_RECORDS,
+            Type.INT,
+            PRODUCE_PARTITION_BATCH_MAX_RECORDS_DEFAULT,
+            PRODUCE_PARTITION_BATCH_MAX_RECORDS_VALIDATOR,
+            Importance.LOW,
+            PRODUCE_PARTITION_BATCH_MAX_RECORDS_DOC)
+        .define(
+            PRODUCE_PRODUCER_POOL_SIZE,
+            Type.INT,
+            PRODUCE_PRODUCER_POOL_SIZE_DEFAULT,
+            PRODUCE_PRODUCER_POOL_SIZE_VALIDATOR,
+            Importance.LOW,
+            PRODUCE_PRODUCER_POOL_SIZE_DOC)
+        .define(
+            PRODUCE_PRODUCER_PROFILES,
+            Type.LIST,
+            PRODUCE_PRODUCER_PROFILES_DEFAULT,
+            Importance.LOW,
+            PRODUCE_PRODUCER_PROFILES_DOC)
+        .define(
+            PRODUCE_PRODUCER_PROFILE_HEADER_NAME,
+            Type.STRING,
+            PRODUCE_PRODUCER_PROFILE_HEADER_NAME_DEFAULT,
+            Importance.LOW,
+            PRODUCE_PRODUCER_PROFILE_HEADER_NAME_DOC)
+        .define(
+            PRODUCE_CONCURRENCY_LIMIT_ENABLED,
+            Type.BOOLEAN,
+            PRODUCE_CONCURRENCY_LIMIT_ENABLED_DEFAULT,
+            Importance.LOW,
+            PRODUCE_CONCURRENCY_LIMIT_ENABLED_DOC)
+        .define(
+            PRODUCE_CONCURRENCY_LIMIT_MIN,
+            Type.INT,
+            PRODUCE_CONCURRENCY_LIMIT_MIN_DEFAULT,
+            PRODUCE_CONCURRENCY_LIMIT_MIN_VALIDATOR,
+            Importance.LOW,
+            PRODUCE_CONCURRENCY_LIMIT_MIN_DOC)
+        .define(
+            PRODUCE_CONCURRENCY_LIMIT_MAX,
+            Type.INT,
+            PRODUCE_CONCURRENCY_LIMIT_MAX_DEFAULT,
+            PRODUCE_CONCURRENCY_LIMIT_MAX_VALIDATOR,
+            Importance.LOW,
+            PRODUCE_CONCURRENCY_LIMIT_MAX_DOC)
         .define(
             PRODUCE_REQUEST_SIZE_LIMIT_MAX_BYTES_CONFIG,
             Type.LONG,
@@ -680,6 +925,19 @@ public class KafkaRestConfig extends RestConfig {
             CONSUMER_INSTANCE_TIMEOUT_MS_DEFAULT,
             Importance.LOW,
             CONSUMER_INSTANCE_TIMEOUT_MS_DOC)
+        .define(
+            CONSUMER_PREFETCH_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            CONSUMER_PREFETCH_ENABLE_DEFAULT,
+            Importance.LOW,
+            CONSUMER_PREFETCH_ENABLE_DOC)
+        .define(
+            CONSUMER_PREFETCH_MAX_BYTES_CONFIG,
+            Type.LONG,
+            CONSUMER_PREFETCH_MAX_BYTES_DEFAULT,
+            CONSUMER_PREFETCH_MAX_BYTES_VALIDATOR,
+            Importance.LOW,
+            CONSUMER_PREFETCH_MAX_BYTES_DOC)
         .define(
             SIMPLE_CONSUMER_MAX_POOL_SIZE_CONFIG,
             Type.INT,
@@ -887,6 +1145,19 @@ public class KafkaRestConfig extends RestConfig {
             RATE_LIMIT_BACKEND_DEFAULT,
             Importance.LOW,
             RATE_LIMIT_BACKEND_DOC)
+        .define(
+            RATE_LIMIT_DISTRIBUTED_STORE_CLASS_CONFIG,
+            Type.CLASS,
+            RATE_LIMIT_DISTRIBUTED_STORE_CLASS_DEFAULT,
+            Importance.LOW,
+            RATE_LIMIT_DISTRIBUTED_STORE_CLASS_DOC)
+        .define(
+            RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_CONFIG,
+            Type.LONG,
+            RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_DEFAULT,
+            RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_VALIDATOR,
+            Importance.LOW,
+            RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_DOC)
         .define(
             RATE_LIMIT_PERMITS_PER_SEC_CONFIG,
             Type.INT,
@@ -935,6 +1206,24 @@ public class KafkaRestConfig extends RestConfig {
             STREAMING_CONNECTION_MAX_DURATION_GRACE_PERIOD_MS_DEFAULT,
             Importance.LOW,
             STREAMING_CONNECTION_MAX_DURATION_GRACE_PERIOD_MS_DOC)
+        .define(
+            STREAMING_CONNECTION_MAX_IN_FLIGHT_RECORDS,
+            Type.INT,
+            STREAMING_CONNECTION_MAX_IN_FLIGHT_RECORDS_DEFAULT,
+            Importance.LOW,
+            STREAMING_CONNECTION_MAX_IN_FLIGHT_RECORDS_DOC)
+        .define(
+            STREAMING_CONNECTION_RESPONSE_BATCH_MAX_RECORDS,
+            Type.INT,
+            STREAMING_CONNECTION_RESPONSE_BATCH_MAX_RECORDS_DEFAULT,
+            Importance.LOW,
+            STREAMING_CONNECTION_RESPONSE_BATCH_MAX_RECORDS_DOC)
+        .define(
+            STREAMING_CONNECTION_RESPONSE_LINGER_MS,
+            Type.LONG,
+            STREAMING_CONNECTION_RESPONSE_LINGER_MS_DEFAULT,
+            Importance.LOW,
+            STREAMING_CONNECTION_RESPONSE_LINGER_MS_DOC)
         .define(
             USE_CUSTOM_REQUEST_LOGGING_CONFIG,
             Type.BOOLEAN,
@@ -1234,6 +1523,10 @@ public class KafkaRestConfig extends RestConfig {
     return getInt(RATE_LIMIT_PERMITS_PER_SEC_CONFIG);
   }
 
+  public final Duration getRateLimitDistributedSyncInterval() {
+    return Duration.ofMillis(getLong(RATE_LIMIT_DISTRIBUTED_SYNC_INTERVAL_MS_CONFIG));
+  }
+
   public final Duration getRateLimitTimeout() {
     return Duration.ofMillis(getLong(RATE_LIMIT_TIMEOUT_MS_CONFIG));
   }
@@ -1246,6 +1539,58 @@ public class KafkaRestConfig extends RestConfig {
     return Duration.ofMillis(getLong(STREAMING_CONNECTION_MAX_DURATION_GRACE_PERIOD_MS));
   }
 
+  public final int getStreamingConnectionMaxInFlightRecords() {
+    return getInt(STREAMING_CONNECTION_MAX_IN_FLIGHT_RECORDS);
+  }
+
+  public final int getStreamingConnectionResponseBatchMaxRecords() {
+    return getInt(STREAMING_CONNECTION_RESPONSE_BATCH_MAX_RECORDS);
+  }
+
+  public final Duration getStreamingConnectionResponseLinger() {
+    return Duration.ofMillis(getLong(STREAMING_CONNECTION_RESPONSE_LINGER_MS));
+  }
+
+  public final List<String> getProducerProfiles() {
+    return getList(PRODUCE_PRODUCER_PROFILES);
+  }
+
+  public final Optional<Pattern> getProducerProfileTopicPattern(String profile) {
+    String name =
+        PRODUCE_PRODUCER_PROFILE_PREFIX + profile + PRODUCE_PRODUCER_PROFILE_TOPIC_PATTERN_SUFFIX;
+    Object pattern = originals().get(name);
+    if (pattern == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Pattern.compile(pattern.toString()));
+    } catch (PatternSyntaxException e) {
+      throw new ConfigException(name, pattern, e.getMessage());
+    }
+  }
+
+  /** The number of producers of {@code profile}, 0 meaning one per available processor. */
+  public final int getProducerProfilePoolSize(String profile) {
+    String name =
+        PRODUCE_PRODUCER_PROFILE_PREFIX + profile + PRODUCE_PRODUCER_PROFILE_POOL_SIZE_SUFFIX;
+    Object size = originals().get(name);
+    if (size == null) {
+      return PRODUCE_PRODUCER_PROFILE_POOL_SIZE_DEFAULT;
+    }
+    int value = (Integer) ConfigDef.parseType(name, size, ConfigDef.Type.INT);
+    PRODUCE_PRODUCER_POOL_SIZE_VALIDATOR.ensureValid(name, value);
+    return value;
+  }
+
+  /** The overrides of the producer configs for {@code profile}. */
+  public final Map<String, Object> getProducerProfileConfigs(String profile) {
+    String prefix =
+        PRODUCE_PRODUCER_PROFILE_PREFIX
+            + profile
+            + PRODUCE_PRODUCER_PROFILE_PRODUCER_CONFIGS_SUFFIX;
+    return new ConfigsWithSafeToString(originalsWithPrefix(prefix, /* strip= */ true), this);
+  }
+
   public final int getRateLimitDefaultCost() {
     return getInt(RATE_LIMIT_DEFAULT_COST_CONFIG);
   }
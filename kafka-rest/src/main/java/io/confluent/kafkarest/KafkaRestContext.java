@@ -17,10 +17,14 @@ package io.confluent.kafkarest;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafkarest.v2.KafkaConsumerManager;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 
 public interface KafkaRestContext {
 
@@ -32,6 +36,22 @@ public interface KafkaRestContext {
 
   Producer<byte[], byte[]> getProducer();
 
+  /**
+   * Returns a new producer, with {@code configOverrides} on top of the producer configs.
+   *
+   * <p>This is used instead of {@link #getProducer()} for producer pools of more than one producer
+   * and for producer profiles, so contexts that supply producers of their own should override both.
+   */
+  default Producer<byte[], byte[]> getProducer(Map<String, Object> configOverrides) {
+    KafkaRestConfig config = getConfig();
+    Map<String, Object> producerConfigs = new HashMap<>(config.getProducerConfigs());
+    producerConfigs.putAll(configOverrides);
+    return new KafkaProducer<>(
+        new KafkaRestConfig.ConfigsWithSafeToString(producerConfigs, config),
+        new ByteArraySerializer(),
+        new ByteArraySerializer());
+  }
+
   default SchemaRegistryClient getSchemaRegistryClient() {
     return null;
   }
@@ -17,13 +17,21 @@ package io.confluent.kafkarest.backends.kafka;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.kafkarest.DefaultKafkaRestContext;
 import io.confluent.kafkarest.KafkaRestConfig;
 import io.confluent.kafkarest.KafkaRestContext;
 import jakarta.inject.Inject;
+import jakarta.inject.Provider;
 import jakarta.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.glassfish.hk2.api.Factory;
 import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
@@ -46,6 +54,10 @@ public final class KafkaModule extends AbstractBinder {
     bindFactory(ProducerFactory.class)
         .to(new TypeLiteral<Producer<byte[], byte[]>>() {})
         .in(Singleton.class);
+
+    bindFactory(ProducerPoolFactory.class).to(ProducerPool.class).in(Singleton.class);
+
+    bindFactory(ProducerProfilesFactory.class).to(ProducerProfiles.class).in(Singleton.class);
   }
 
   private static final class KafkaRestContextFactory implements Factory<KafkaRestContext> {
@@ -104,4 +116,101 @@ public final class KafkaModule extends AbstractBinder {
       producer.close();
     }
   }
+
+  private static final class ProducerPoolFactory implements Factory<ProducerPool> {
+    private final KafkaRestContext context;
+    private final Provider<Producer<byte[], byte[]>> producer;
+
+    @Inject
+    private ProducerPoolFactory(
+        KafkaRestContext context, Provider<Producer<byte[], byte[]>> producer) {
+      this.context = requireNonNull(context);
+      this.producer = requireNonNull(producer);
+    }
+
+    @Override
+    public ProducerPool provide() {
+      int size =
+          getPoolSize(context.getConfig().getInt(KafkaRestConfig.PRODUCE_PRODUCER_POOL_SIZE));
+      // A pool of one is the plain producer, so that overriding it keeps working as before.
+      if (size == 1) {
+        return new ProducerPool(ImmutableList.of(producer.get()));
+      }
+      return createPool(
+          context,
+          ImmutableMap.of(),
+          context.getConfig().getProducerConfigs().get(ProducerConfig.CLIENT_ID_CONFIG),
+          size);
+    }
+
+    @Override
+    public void dispose(ProducerPool pool) {
+      // The plain producer is closed when disposing of it.
+      if (pool.getProducers().size() > 1) {
+        pool.getProducers().forEach(Producer::close);
+      }
+    }
+  }
+
+  private static final class ProducerProfilesFactory implements Factory<ProducerProfiles> {
+    private final KafkaRestContext context;
+    private final ProducerPool defaultPool;
+
+    @Inject
+    private ProducerProfilesFactory(KafkaRestContext context, ProducerPool defaultPool) {
+      this.context = requireNonNull(context);
+      this.defaultPool = requireNonNull(defaultPool);
+    }
+
+    @Override
+    public ProducerProfiles provide() {
+      KafkaRestConfig config = context.getConfig();
+      List<ProducerProfiles.Profile> profiles = new ArrayList<>();
+      for (String name : config.getProducerProfiles()) {
+        Map<String, Object> configOverrides = config.getProducerProfileConfigs(name);
+        Object clientId = configOverrides.get(ProducerConfig.CLIENT_ID_CONFIG);
+        if (clientId == null) {
+          Object defaultClientId = config.getProducerConfigs().get(ProducerConfig.CLIENT_ID_CONFIG);
+          clientId = defaultClientId != null ? defaultClientId + "-" + name : null;
+        }
+        profiles.add(
+            ProducerProfiles.Profile.create(
+                name,
+                config.getProducerProfileTopicPattern(name),
+                createPool(
+                    context,
+                    configOverrides,
+                    clientId,
+                    getPoolSize(config.getProducerProfilePoolSize(name)))));
+      }
+      return new ProducerProfiles(defaultPool, profiles);
+    }
+
+    @Override
+    public void dispose(ProducerProfiles producerProfiles) {
+      // The default pool is closed when disposing of it.
+      for (ProducerProfiles.Profile profile : producerProfiles.getProfiles()) {
+        profile.getProducerPool().getProducers().forEach(Producer::close);
+      }
+    }
+  }
+
+  private static int getPoolSize(int size) {
+    return size > 0 ? size : Runtime.getRuntime().availableProcessors();
+  }
+
+  private static ProducerPool createPool(
+      KafkaRestContext context, Map<String, Object> configOverrides, Object clientId, int size) {
+    List<Producer<byte[], byte[]>> producers = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Map<String, Object> producerConfigOverrides = new HashMap<>(configOverrides);
+      // Without a client ID, each producer generates a unique one of its own.
+      if (clientId != null) {
+        producerConfigOverrides.put(
+            ProducerConfig.CLIENT_ID_CONFIG, size > 1 ? clientId + "-" + i : clientId);
+      }
+      producers.add(context.getProducer(producerConfigOverrides));
+    }
+    return new ProducerPool(producers);
+  }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.backends.kafka;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+/**
+ * A fixed set of producers that records are spread over, so that produce throughput is not
+ * bounded by the record accumulator and sender thread of a single producer.
+ *
+ * <p>Records are routed by topic and partition, so that all the records of a partition go through
+ * the same producer, keeping their order. For records with a key but no explicit partition, the
+ * partition is worked out the way the default partitioner does, see {@link RecordPartitions}.
+ * Until the partition count of the topic is known, they are routed by topic alone. Records with
+ * neither are spread over the partitions by the producer itself, so they have no order to keep,
+ * and are spread round-robin over the producers.
+ */
+public final class ProducerPool {
+
+  private static final int MAX_LOOKUP_THREADS = 4;
+  private static final long LOOKUP_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+  private final ImmutableList<Producer<byte[], byte[]>> producers;
+  private final RecordPartitions recordPartitions;
+  private final AtomicInteger nextUnkeyed = new AtomicInteger();
+
+  public ProducerPool(List<Producer<byte[], byte[]>> producers) {
+    this(producers, newLookupExecutor());
+  }
+
+  /** {@code lookupExecutor} looks up the partition counts of the topics. */
+  @VisibleForTesting
+  public ProducerPool(List<Producer<byte[], byte[]>> producers, Executor lookupExecutor) {
+    checkArgument(!producers.isEmpty(), "A producer pool needs at least one producer.");
+    this.producers = ImmutableList.copyOf(producers);
+    this.recordPartitions = new RecordPartitions(producers.get(0), lookupExecutor);
+  }
+
+  // Its threads are only started once needed.
+  private static Executor newLookupExecutor() {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            MAX_LOOKUP_THREADS,
+            MAX_LOOKUP_THREADS,
+            LOOKUP_THREAD_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("Partition-lookup-thread-%d")
+                .setDaemon(true)
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  public Producer<byte[], byte[]> get(ProducerRecord<byte[], byte[]> record) {
+    if (producers.size() == 1) {
+      return producers.get(0);
+    }
+    if (record.partition() == null && record.key() == null) {
+      return producers.get(Math.floorMod(nextUnkeyed.getAndIncrement(), producers.size()));
+    }
+    OptionalInt partition = recordPartitions.partitionOf(record);
+    int hash = record.topic().hashCode();
+    if (partition.isPresent()) {
+      hash = 31 * hash + partition.getAsInt();
+    }
+    // Spread the bits, as topic names and partitions often only differ in their last characters.
+    hash ^= hash >>> 16;
+    return producers.get(Math.floorMod(hash, producers.size()));
+  }
+
+  /** See {@link RecordPartitions#partitionOf}. */
+  public OptionalInt partitionOf(ProducerRecord<byte[], byte[]> record) {
+    return recordPartitions.partitionOf(record);
+  }
+
+  public List<Producer<byte[], byte[]>> getProducers() {
+    return producers;
+  }
+}
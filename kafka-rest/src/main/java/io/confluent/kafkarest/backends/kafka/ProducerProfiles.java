@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.backends.kafka;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import io.confluent.kafkarest.exceptions.BadRequestException;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * The producers used by produce requests: a default {@link ProducerPool}, plus one per named
+ * producer profile.
+ *
+ * <p>A profile is selected explicitly by name, or else by the first profile whose topic pattern
+ * matches the whole topic name. Produce requests selecting no profile use the default pool, and
+ * produce requests naming an unknown profile are rejected.
+ */
+public final class ProducerProfiles {
+
+  private final ProducerPool defaultPool;
+  private final ImmutableList<Profile> profiles;
+
+  public ProducerProfiles(ProducerPool defaultPool, List<Profile> profiles) {
+    this.defaultPool = requireNonNull(defaultPool);
+    this.profiles = ImmutableList.copyOf(profiles);
+  }
+
+  /**
+   * Returns the producers to use for {@code topicName}.
+   *
+   * @throws BadRequestException if {@code profileName} names no profile
+   */
+  public ProducerPool select(String topicName, Optional<String> profileName) {
+    if (profileName.isPresent()) {
+      for (Profile profile : profiles) {
+        if (profile.getName().equals(profileName.get())) {
+          return profile.getProducerPool();
+        }
+      }
+      throw new BadRequestException(
+          String.format("Unknown producer profile: %s", profileName.get()));
+    }
+    for (Profile profile : profiles) {
+      if (profile.getTopicPattern().isPresent()
+          && profile.getTopicPattern().get().matcher(topicName).matches()) {
+        return profile.getProducerPool();
+      }
+    }
+    return defaultPool;
+  }
+
+  public ProducerPool getDefaultPool() {
+    return defaultPool;
+  }
+
+  public List<Profile> getProfiles() {
+    return profiles;
+  }
+
+  @AutoValue
+  public abstract static class Profile {
+
+    Profile() {}
+
+    public abstract String getName();
+
+    public abstract Optional<Pattern> getTopicPattern();
+
+    public abstract ProducerPool getProducerPool();
+
+    public static Profile create(
+        String name, Optional<Pattern> topicPattern, ProducerPool producerPool) {
+      return new AutoValue_ProducerProfiles_Profile(name, topicPattern, producerPool);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.backends.kafka;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Works out which partition a record is produced to, before handing it to the producer.
+ *
+ * <p>{@link Producer#partitionsFor} blocks until the metadata of the topic is available, for up to
+ * {@code max.block.ms}, so the partition counts of the topics are cached, and only ever looked up
+ * in the background. Until the partition count of a topic is known, its keyed records have no
+ * known partition. Known counts are looked up again every {@link #REFRESH_INTERVAL_NANOS}, to pick
+ * up partitions added to the topic.
+ */
+public final class RecordPartitions {
+
+  /** Same as the default {@code metadata.max.age.ms} of the producer. */
+  private static final long REFRESH_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+  private final Producer<?, ?> producer;
+  private final Executor lookupExecutor;
+  private final ConcurrentMap<String, PartitionCount> partitionCounts = new ConcurrentHashMap<>();
+  // The topics whose partition count is being looked up.
+  private final Set<String> lookups = ConcurrentHashMap.newKeySet();
+
+  RecordPartitions(Producer<?, ?> producer, Executor lookupExecutor) {
+    this.producer = requireNonNull(producer);
+    this.lookupExecutor = requireNonNull(lookupExecutor);
+  }
+
+  /**
+   * Returns the partition {@code record} is produced to: its explicit partition if it has one, or
+   * else the partition the default partitioner picks for its key (the murmur2 hash of the key,
+   * modulo the number of partitions of the topic).
+   *
+   * <p>Returns empty for records with neither a partition nor a key, which the producer spreads
+   * over the partitions, and for records whose topic partition count is not known yet. Never
+   * blocks.
+   */
+  public OptionalInt partitionOf(ProducerRecord<byte[], byte[]> record) {
+    if (record.partition() != null) {
+      return OptionalInt.of(record.partition());
+    }
+    if (record.key() == null) {
+      return OptionalInt.empty();
+    }
+    PartitionCount partitionCount = partitionCounts.get(record.topic());
+    if (partitionCount == null
+        || System.nanoTime() - partitionCount.lookedUpAt > REFRESH_INTERVAL_NANOS) {
+      lookUp(record.topic());
+      if (partitionCount == null) {
+        // Only there already if the executor ran the lookup inline.
+        partitionCount = partitionCounts.get(record.topic());
+      }
+    }
+    if (partitionCount == null) {
+      return OptionalInt.empty();
+    }
+    return OptionalInt.of(Utils.toPositive(Utils.murmur2(record.key())) % partitionCount.count);
+  }
+
+  private void lookUp(String topic) {
+    if (!lookups.add(topic)) {
+      return;
+    }
+    try {
+      lookupExecutor.execute(
+          () -> {
+            try {
+              List<PartitionInfo> partitions = producer.partitionsFor(topic);
+              if (partitions != null && !partitions.isEmpty()) {
+                partitionCounts.put(
+                    topic, new PartitionCount(partitions.size(), System.nanoTime()));
+              }
+            } catch (KafkaException e) {
+              // The topic does not exist, or its metadata did not come in time. The next keyed
+              // record of the topic looks it up again, and the producer fails it if need be.
+            } finally {
+              lookups.remove(topic);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      lookups.remove(topic);
+    }
+  }
+
+  private static final class PartitionCount {
+
+    private final int count;
+    private final long lookedUpAt;
+
+    private PartitionCount(int count, long lookedUpAt) {
+      this.count = count;
+      this.lookedUpAt = lookedUpAt;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.common;
+
+import com.google.protobuf.ByteOutput;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Helpers to move bytes in and out of {@link ByteString} without copying them, for the cases where
+ * the caller owns the underlying array.
+ */
+public final class ByteStrings {
+
+  private ByteStrings() {}
+
+  /**
+   * Returns a {@link ByteString} backed by {@code bytes}, without copying.
+   *
+   * <p>The caller must hand over ownership of {@code bytes}: it must not be modified afterwards.
+   */
+  public static ByteString wrap(byte[] bytes) {
+    return UnsafeByteOperations.unsafeWrap(bytes);
+  }
+
+  /**
+   * Returns the contents of {@code byteString} as a {@code byte[]}.
+   *
+   * <p>If {@code byteString} is backed by a single array in its entirety (e.g. it was created by
+   * {@link #wrap(byte[])}), that array is returned as is. Otherwise the contents are copied. The
+   * returned array must not be modified.
+   */
+  public static byte[] toByteArray(ByteString byteString) {
+    if (byteString.isEmpty()) {
+      return byteString.toByteArray();
+    }
+    BackingArrayOutput output = new BackingArrayOutput(byteString.size());
+    try {
+      UnsafeByteOperations.unsafeWriteTo(byteString, output);
+    } catch (IOException e) {
+      // BackingArrayOutput never throws.
+      throw new UncheckedIOException(e);
+    }
+    return output.backingArray != null ? output.backingArray : byteString.toByteArray();
+  }
+
+  /**
+   * A {@link ByteOutput} that captures the array passed to {@link #writeLazy(byte[], int, int)}
+   * if, and only if, that single array holds the whole {@link ByteString}.
+   */
+  private static final class BackingArrayOutput extends ByteOutput {
+
+    private final int expectedSize;
+    private byte[] backingArray;
+    private boolean written = false;
+
+    private BackingArrayOutput(int expectedSize) {
+      this.expectedSize = expectedSize;
+    }
+
+    @Override
+    public void write(byte value) {
+      written = true;
+      backingArray = null;
+    }
+
+    @Override
+    public void write(byte[] value, int offset, int length) {
+      written = true;
+      backingArray = null;
+    }
+
+    @Override
+    public void writeLazy(byte[] value, int offset, int length) {
+      if (!written && offset == 0 && length == expectedSize && value.length == expectedSize) {
+        backingArray = value;
+      } else {
+        backingArray = null;
+      }
+      written = true;
+    }
+
+    @Override
+    public void write(ByteBuffer value) {
+      written = true;
+      backingArray = null;
+    }
+
+    @Override
+    public void writeLazy(ByteBuffer value) {
+      written = true;
+      backingArray = null;
+    }
+  }
+}
@@ -135,6 +135,34 @@ public final class ConfigModule extends AbstractBinder {
         .qualifiedBy(new ProduceBatchMaximumEntriesImpl())
         .to(Integer.class);
 
+    bind(config.getInt(KafkaRestConfig.PRODUCE_SCHEMA_CACHE_MAX_SIZE))
+        .qualifiedBy(new ProduceSchemaCacheMaxSizeConfigImpl())
+        .to(Integer.class);
+
+    bind(Duration.ofMillis(config.getLong(KafkaRestConfig.PRODUCE_SCHEMA_CACHE_EXPIRY_MS)))
+        .qualifiedBy(new ProduceSchemaCacheExpiryConfigImpl())
+        .to(Duration.class);
+
+    bind(config.getInt(KafkaRestConfig.PRODUCE_PARTITION_BATCH_MAX_RECORDS))
+        .qualifiedBy(new ProducePartitionBatchMaxRecordsConfigImpl())
+        .to(Integer.class);
+
+    bind(config.getString(KafkaRestConfig.PRODUCE_PRODUCER_PROFILE_HEADER_NAME))
+        .qualifiedBy(new ProduceProducerProfileHeaderConfigImpl())
+        .to(String.class);
+
+    bind(config.getBoolean(KafkaRestConfig.PRODUCE_CONCURRENCY_LIMIT_ENABLED))
+        .qualifiedBy(new ProduceConcurrencyLimitEnabledConfigImpl())
+        .to(Boolean.class);
+
+    bind(config.getInt(KafkaRestConfig.PRODUCE_CONCURRENCY_LIMIT_MIN))
+        .qualifiedBy(new ProduceConcurrencyLimitMinConfigImpl())
+        .to(Integer.class);
+
+    bind(config.getInt(KafkaRestConfig.PRODUCE_CONCURRENCY_LIMIT_MAX))
+        .qualifiedBy(new ProduceConcurrencyLimitMaxConfigImpl())
+        .to(Integer.class);
+
     bind(config.getProducerConfigs())
         .qualifiedBy(new ProducerConfigsImpl())
         .to(new TypeLiteral<Map<String, Object>>() {});
@@ -181,6 +209,18 @@ public final class ConfigModule extends AbstractBinder {
         .qualifiedBy(new StreamingConnectionMaxDurationGracePeriodImpl())
         .to(Duration.class);
 
+    bind(config.getStreamingConnectionMaxInFlightRecords())
+        .qualifiedBy(new StreamingMaxInFlightRecordsConfigImpl())
+        .to(Integer.class);
+
+    bind(config.getStreamingConnectionResponseBatchMaxRecords())
+        .qualifiedBy(new StreamingResponseBatchMaxRecordsConfigImpl())
+        .to(Integer.class);
+
+    bind(config.getStreamingConnectionResponseLinger())
+        .qualifiedBy(new StreamingResponseLingerConfigImpl())
+        .to(Duration.class);
+
     bind(config.getSchemaRegistryConfigs())
         .qualifiedBy(new SchemaRegistryConfigsImpl())
         .to(new TypeLiteral<Map<String, Object>>() {});
@@ -367,6 +407,69 @@ public final class ConfigModule extends AbstractBinder {
       extends AnnotationLiteral<ProduceBatchMaximumEntriesConfig>
       implements ProduceBatchMaximumEntriesConfig {}
 
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface ProduceSchemaCacheMaxSizeConfig {}
+
+  private static final class ProduceSchemaCacheMaxSizeConfigImpl
+      extends AnnotationLiteral<ProduceSchemaCacheMaxSizeConfig>
+      implements ProduceSchemaCacheMaxSizeConfig {}
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface ProduceSchemaCacheExpiryConfig {}
+
+  private static final class ProduceSchemaCacheExpiryConfigImpl
+      extends AnnotationLiteral<ProduceSchemaCacheExpiryConfig>
+      implements ProduceSchemaCacheExpiryConfig {}
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface ProducePartitionBatchMaxRecordsConfig {}
+
+  private static final class ProducePartitionBatchMaxRecordsConfigImpl
+      extends AnnotationLiteral<ProducePartitionBatchMaxRecordsConfig>
+      implements ProducePartitionBatchMaxRecordsConfig {}
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface ProduceProducerProfileHeaderConfig {}
+
+  private static final class ProduceProducerProfileHeaderConfigImpl
+      extends AnnotationLiteral<ProduceProducerProfileHeaderConfig>
+      implements ProduceProducerProfileHeaderConfig {}
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface ProduceConcurrencyLimitEnabledConfig {}
+
+  private static final class ProduceConcurrencyLimitEnabledConfigImpl
+      extends AnnotationLiteral<ProduceConcurrencyLimitEnabledConfig>
+      implements ProduceConcurrencyLimitEnabledConfig {}
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface ProduceConcurrencyLimitMinConfig {}
+
+  private static final class ProduceConcurrencyLimitMinConfigImpl
+      extends AnnotationLiteral<ProduceConcurrencyLimitMinConfig>
+      implements ProduceConcurrencyLimitMinConfig {}
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface ProduceConcurrencyLimitMaxConfig {}
+
+  private static final class ProduceConcurrencyLimitMaxConfigImpl
+      extends AnnotationLiteral<ProduceConcurrencyLimitMaxConfig>
+      implements ProduceConcurrencyLimitMaxConfig {}
+
   @Qualifier
   @Retention(RetentionPolicy.RUNTIME)
   @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
@@ -485,6 +588,33 @@ public final class ConfigModule extends AbstractBinder {
       extends AnnotationLiteral<StreamingMaxConnectionGracePeriod>
       implements StreamingMaxConnectionGracePeriod {}
 
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface StreamingMaxInFlightRecordsConfig {}
+
+  private static final class StreamingMaxInFlightRecordsConfigImpl
+      extends AnnotationLiteral<StreamingMaxInFlightRecordsConfig>
+      implements StreamingMaxInFlightRecordsConfig {}
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface StreamingResponseBatchMaxRecordsConfig {}
+
+  private static final class StreamingResponseBatchMaxRecordsConfigImpl
+      extends AnnotationLiteral<StreamingResponseBatchMaxRecordsConfig>
+      implements StreamingResponseBatchMaxRecordsConfig {}
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface StreamingResponseLingerConfig {}
+
+  private static final class StreamingResponseLingerConfigImpl
+      extends AnnotationLiteral<StreamingResponseLingerConfig>
+      implements StreamingResponseLingerConfig {}
+
   @Qualifier
   @Retention(RetentionPolicy.RUNTIME)
   @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
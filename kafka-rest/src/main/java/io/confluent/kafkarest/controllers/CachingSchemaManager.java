@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.confluent.kafka.serializers.subject.strategy.SubjectNameStrategy;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.RegisteredSchema;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * A {@link SchemaManager} that caches the {@link RegisteredSchema schemas} resolved by another
+ * {@code SchemaManager}, keyed by the full set of {@link SchemaManager#getSchema schema selectors}.
+ *
+ * <p>The cache is bounded both in size and in time: an entry is dropped at most {@code expiry}
+ * after it was resolved, so requests that select the latest version of a subject pick up newly
+ * registered versions within that time. Failed resolutions are never cached.
+ */
+final class CachingSchemaManager implements SchemaManager {
+
+  static final String GROUP_NAME = "produce-schema-cache-metrics";
+  static final String HIT_TOTAL_METRIC_NAME = "schema-cache-hit-total";
+  static final String MISS_TOTAL_METRIC_NAME = "schema-cache-miss-total";
+  static final String EVICTION_TOTAL_METRIC_NAME = "schema-cache-eviction-total";
+  static final String SIZE_METRIC_NAME = "schema-cache-size";
+
+  private final SchemaManager delegate;
+  private final Cache<SchemaKey, RegisteredSchema> cache;
+
+  CachingSchemaManager(SchemaManager delegate, int maxSize, Duration expiry, Metrics metrics) {
+    this.delegate = requireNonNull(delegate);
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(expiry)
+            .recordStats()
+            .build();
+    registerMetrics(requireNonNull(metrics));
+  }
+
+  private void registerMetrics(Metrics metrics) {
+    addMetric(
+        metrics,
+        HIT_TOTAL_METRIC_NAME,
+        "The total number of schema resolutions served from the cache.",
+        CacheStats::hitCount);
+    addMetric(
+        metrics,
+        MISS_TOTAL_METRIC_NAME,
+        "The total number of schema resolutions that had to go to Schema Registry.",
+        CacheStats::missCount);
+    addMetric(
+        metrics,
+        EVICTION_TOTAL_METRIC_NAME,
+        "The total number of schemas evicted from the cache, because of either size or expiry.",
+        CacheStats::evictionCount);
+    metrics.addMetric(
+        metrics.metricName(SIZE_METRIC_NAME, GROUP_NAME, "The number of schemas in the cache."),
+        (config, now) -> cache.size());
+  }
+
+  private void addMetric(
+      Metrics metrics, String name, String doc, ToDoubleFunction<CacheStats> stat) {
+    metrics.addMetric(
+        metrics.metricName(name, GROUP_NAME, doc),
+        (config, now) -> stat.applyAsDouble(cache.stats()));
+  }
+
+  @Override
+  public RegisteredSchema getSchema(
+      String topicName,
+      Optional<EmbeddedFormat> format,
+      Optional<String> subject,
+      Optional<SubjectNameStrategy> subjectNameStrategy,
+      Optional<Integer> schemaId,
+      Optional<Integer> schemaVersion,
+      Optional<String> rawSchema,
+      boolean isKey) {
+    SchemaKey key =
+        SchemaKey.create(
+            topicName,
+            format,
+            subject,
+            subjectNameStrategy,
+            schemaId,
+            schemaVersion,
+            rawSchema,
+            isKey);
+    RegisteredSchema schema = cache.getIfPresent(key);
+    if (schema != null) {
+      return schema;
+    }
+    // Concurrent misses on the same key may all go to the delegate. That is fine: resolution is
+    // idempotent, and not holding a lock means a slow Schema Registry call for one key does not
+    // block requests for any other.
+    schema =
+        delegate.getSchema(
+            topicName,
+            format,
+            subject,
+            subjectNameStrategy,
+            schemaId,
+            schemaVersion,
+            rawSchema,
+            isKey);
+    cache.put(key, schema);
+    return schema;
+  }
+
+  @AutoValue
+  abstract static class SchemaKey {
+
+    SchemaKey() {}
+
+    abstract String getTopicName();
+
+    abstract Optional<EmbeddedFormat> getFormat();
+
+    abstract Optional<String> getSubject();
+
+    abstract Optional<SubjectNameStrategy> getSubjectNameStrategy();
+
+    abstract Optional<Integer> getSchemaId();
+
+    abstract Optional<Integer> getSchemaVersion();
+
+    // The raw schema itself rather than a hash of it, so that colliding schemas never resolve to
+    // each other. Hashing and comparing the text is still far cheaper than parsing it.
+    abstract Optional<String> getRawSchema();
+
+    abstract boolean isKey();
+
+    static SchemaKey create(
+        String topicName,
+        Optional<EmbeddedFormat> format,
+        Optional<String> subject,
+        Optional<SubjectNameStrategy> subjectNameStrategy,
+        Optional<Integer> schemaId,
+        Optional<Integer> schemaVersion,
+        Optional<String> rawSchema,
+        boolean isKey) {
+      return new AutoValue_CachingSchemaManager_SchemaKey(
+          topicName,
+          format,
+          subject,
+          subjectNameStrategy,
+          schemaId,
+          schemaVersion,
+          rawSchema,
+          isKey);
+    }
+  }
+}
@@ -19,12 +19,19 @@ import static java.util.Objects.requireNonNull;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.serializers.subject.strategy.SubjectNameStrategy;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.backends.kafka.ProducerProfiles;
 import io.confluent.kafkarest.config.ConfigModule.AvroSerializerConfigs;
 import io.confluent.kafkarest.config.ConfigModule.JsonschemaSerializerConfigs;
 import io.confluent.kafkarest.config.ConfigModule.NullRequestBodyAlwaysPublishEmptyRecordEnabledConfig;
+import io.confluent.kafkarest.config.ConfigModule.ProducePartitionBatchMaxRecordsConfig;
+import io.confluent.kafkarest.config.ConfigModule.ProduceSchemaCacheExpiryConfig;
+import io.confluent.kafkarest.config.ConfigModule.ProduceSchemaCacheMaxSizeConfig;
 import io.confluent.kafkarest.config.ConfigModule.ProtobufSerializerConfigs;
 import jakarta.inject.Inject;
+import jakarta.inject.Provider;
 import jakarta.inject.Singleton;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import org.glassfish.hk2.api.Factory;
@@ -46,11 +53,16 @@ public final class ControllersModule extends AbstractBinder {
     bind(ConsumerManagerImpl.class).to(ConsumerManager.class);
     bindAsContract(NoSchemaRecordSerializer.class).in(Singleton.class);
     bind(PartitionManagerImpl.class).to(PartitionManager.class);
+    // Singleton so that records from all requests are batched together.
+    bindFactory(PartitionBatchingProducerFactory.class)
+        .to(PartitionBatchingProducer.class)
+        .in(Singleton.class);
     bind(ProduceControllerImpl.class).to(ProduceController.class);
     bind(ReassignmentManagerImpl.class).to(ReassignmentManager.class);
     bind(RecordSerializerFacade.class).to(RecordSerializer.class);
     bind(ReplicaManagerImpl.class).to(ReplicaManager.class);
-    bindFactory(SchemaManagerFactory.class).to(SchemaManager.class);
+    // Singleton so that all requests share the same schema cache.
+    bindFactory(SchemaManagerFactory.class).to(SchemaManager.class).in(Singleton.class);
     bind(TopicConfigManagerImpl.class).to(TopicConfigManager.class);
     bind(TopicManagerImpl.class).to(TopicManager.class);
     // Singleton declaration makes sense with the assumption that SchemaRegistry is initiated at
@@ -103,23 +115,65 @@ public final class ControllersModule extends AbstractBinder {
     public void dispose(SchemaRecordSerializer schemaRecordSerializer) {}
   }
 
+  private static final class PartitionBatchingProducerFactory
+      implements Factory<PartitionBatchingProducer> {
+
+    private final ProducerProfiles producerProfiles;
+    private final int maxBurstRecords;
+
+    @Inject
+    private PartitionBatchingProducerFactory(
+        ProducerProfiles producerProfiles,
+        @ProducePartitionBatchMaxRecordsConfig Integer maxBurstRecords) {
+      this.producerProfiles = requireNonNull(producerProfiles);
+      this.maxBurstRecords = requireNonNull(maxBurstRecords);
+    }
+
+    @Override
+    @Singleton
+    public PartitionBatchingProducer provide() {
+      return new PartitionBatchingProducer(producerProfiles, maxBurstRecords);
+    }
+
+    @Override
+    public void dispose(PartitionBatchingProducer partitionBatchingProducer) {
+      partitionBatchingProducer.close();
+    }
+  }
+
   private static final class SchemaManagerFactory implements Factory<SchemaManager> {
 
     private final Optional<SchemaRegistryClient> schemaRegistryClient;
     private final SubjectNameStrategy defaultSubjectNameStrategy;
+    private final int schemaCacheMaxSize;
+    private final Duration schemaCacheExpiry;
+    private final Provider<KafkaRestConfig> config;
 
     @Inject
     private SchemaManagerFactory(
         Optional<SchemaRegistryClient> schemaRegistryClient,
-        SubjectNameStrategy defaultSubjectNameStrategy) {
+        SubjectNameStrategy defaultSubjectNameStrategy,
+        @ProduceSchemaCacheMaxSizeConfig Integer schemaCacheMaxSize,
+        @ProduceSchemaCacheExpiryConfig Duration schemaCacheExpiry,
+        Provider<KafkaRestConfig> config) {
       this.schemaRegistryClient = requireNonNull(schemaRegistryClient);
       this.defaultSubjectNameStrategy = requireNonNull(defaultSubjectNameStrategy);
+      this.schemaCacheMaxSize = requireNonNull(schemaCacheMaxSize);
+      this.schemaCacheExpiry = requireNonNull(schemaCacheExpiry);
+      this.config = requireNonNull(config);
     }
 
     @Override
+    @Singleton
     public SchemaManager provide() {
       if (schemaRegistryClient.isPresent()) {
-        return new SchemaManagerImpl(schemaRegistryClient.get(), defaultSubjectNameStrategy);
+        SchemaManager schemaManager =
+            new SchemaManagerImpl(schemaRegistryClient.get(), defaultSubjectNameStrategy);
+        if (schemaCacheMaxSize > 0) {
+          return new CachingSchemaManager(
+              schemaManager, schemaCacheMaxSize, schemaCacheExpiry, config.get().getMetrics());
+        }
+        return schemaManager;
       } else {
         return new SchemaManagerThrowing();
       }
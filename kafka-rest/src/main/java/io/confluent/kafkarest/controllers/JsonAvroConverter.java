@@ -0,0 +1,326 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Converts JSON produce data into Avro objects ready to be serialized.
+ *
+ * <p>{@link AvroSchemaUtils#toObject(JsonNode, AvroSchema)} writes the {@link JsonNode} back out as
+ * text, builds a new JSON decoder grammar for the schema and reads the text again through a new
+ * datum reader, for every record. Instead, this class compiles a converter per schema once, which
+ * walks the {@code JsonNode} alongside the schema and builds the Avro object directly.
+ *
+ * <p>The compiled converters only handle input that is valid in the Avro JSON encoding, and
+ * schemas without logical types. Anything else (including all invalid input) is handed over to
+ * {@code AvroSchemaUtils}, so that behaviour and error messages are exactly the same as before.
+ */
+final class JsonAvroConverter {
+
+  private static final int MAX_CACHED_SCHEMAS = 1000;
+
+  // Keyed by identity: parsed schemas are themselves cached, so the same instances come back for
+  // as long as a schema is in use.
+  private final Cache<Schema, Optional<Converter>> converters =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(MAX_CACHED_SCHEMAS).build();
+
+  Object toObject(JsonNode data, AvroSchema schema) throws IOException {
+    Optional<Converter> converter = getConverter(schema.rawSchema());
+    if (converter.isPresent()) {
+      try {
+        return converter.get().convert(data);
+      } catch (UnsupportedInputException e) {
+        // Fall through to the generic path.
+      }
+    }
+    return AvroSchemaUtils.toObject(data, schema);
+  }
+
+  private Optional<Converter> getConverter(Schema schema) {
+    Optional<Converter> converter = converters.getIfPresent(schema);
+    if (converter == null) {
+      converter = Optional.ofNullable(new Compiler().compile(schema));
+      converters.put(schema, converter);
+    }
+    return converter;
+  }
+
+  private interface Converter {
+
+    Object convert(JsonNode node);
+  }
+
+  /** Thrown when a converter meets input it does not handle. Never escapes this class. */
+  private static final class UnsupportedInputException extends RuntimeException {
+
+    private static final UnsupportedInputException INSTANCE = new UnsupportedInputException();
+
+    private UnsupportedInputException() {
+      super(null, null, /* enableSuppression= */ false, /* writableStackTrace= */ false);
+    }
+  }
+
+  private static UnsupportedInputException unsupported() {
+    return UnsupportedInputException.INSTANCE;
+  }
+
+  private static final class Compiler {
+
+    // Records compiled so far, so that recursive schemas compile to a finite converter graph.
+    private final Map<Schema, RecordConverter> records = new IdentityHashMap<>();
+
+    /** Returns null if {@code schema} is not supported. */
+    private Converter compile(Schema schema) {
+      if (schema.getLogicalType() != null) {
+        return null;
+      }
+      switch (schema.getType()) {
+        case NULL:
+          return node -> {
+            if (!node.isNull()) {
+              throw unsupported();
+            }
+            return null;
+          };
+        case BOOLEAN:
+          return node -> {
+            if (!node.isBoolean()) {
+              throw unsupported();
+            }
+            return node.booleanValue();
+          };
+        case INT:
+          return node -> {
+            if (!node.isIntegralNumber() || !node.canConvertToInt()) {
+              throw unsupported();
+            }
+            return node.intValue();
+          };
+        case LONG:
+          return node -> {
+            if (!node.isIntegralNumber() || !node.canConvertToLong()) {
+              throw unsupported();
+            }
+            return node.longValue();
+          };
+        case FLOAT:
+          return node -> {
+            if (!node.isNumber()) {
+              throw unsupported();
+            }
+            return (float) node.doubleValue();
+          };
+        case DOUBLE:
+          return node -> {
+            // A float node would read back differently once written out as text.
+            if (!node.isNumber() || node.isFloat()) {
+              throw unsupported();
+            }
+            return node.doubleValue();
+          };
+        case STRING:
+          return node -> {
+            if (!node.isTextual()) {
+              throw unsupported();
+            }
+            return new Utf8(node.textValue());
+          };
+        case BYTES:
+          return node -> {
+            if (!node.isTextual()) {
+              throw unsupported();
+            }
+            return ByteBuffer.wrap(node.textValue().getBytes(StandardCharsets.ISO_8859_1));
+          };
+        case FIXED:
+          return node -> {
+            if (!node.isTextual()) {
+              throw unsupported();
+            }
+            byte[] bytes = node.textValue().getBytes(StandardCharsets.ISO_8859_1);
+            if (bytes.length != schema.getFixedSize()) {
+              throw unsupported();
+            }
+            return new GenericData.Fixed(schema, bytes);
+          };
+        case ENUM:
+          return node -> {
+            if (!node.isTextual() || !schema.hasEnumSymbol(node.textValue())) {
+              throw unsupported();
+            }
+            return new GenericData.EnumSymbol(schema, node.textValue());
+          };
+        case ARRAY:
+          return compileArray(schema);
+        case MAP:
+          return compileMap(schema);
+        case UNION:
+          return compileUnion(schema);
+        case RECORD:
+          return compileRecord(schema);
+        default:
+          return null;
+      }
+    }
+
+    private Converter compileArray(Schema schema) {
+      Converter elementConverter = compile(schema.getElementType());
+      if (elementConverter == null) {
+        return null;
+      }
+      return node -> {
+        if (!node.isArray()) {
+          throw unsupported();
+        }
+        GenericData.Array<Object> array = new GenericData.Array<>(node.size(), schema);
+        for (JsonNode element : node) {
+          array.add(elementConverter.convert(element));
+        }
+        return array;
+      };
+    }
+
+    private Converter compileMap(Schema schema) {
+      Converter valueConverter = compile(schema.getValueType());
+      if (valueConverter == null) {
+        return null;
+      }
+      return node -> {
+        if (!node.isObject()) {
+          throw unsupported();
+        }
+        Map<Utf8, Object> map = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+        while (entries.hasNext()) {
+          Map.Entry<String, JsonNode> entry = entries.next();
+          map.put(new Utf8(entry.getKey()), valueConverter.convert(entry.getValue()));
+        }
+        return map;
+      };
+    }
+
+    private Converter compileUnion(Schema schema) {
+      List<Schema> branches = schema.getTypes();
+      Map<String, Converter> branchConverters = new LinkedHashMap<>();
+      for (Schema branch : branches) {
+        Converter branchConverter = compile(branch);
+        if (branchConverter == null) {
+          return null;
+        }
+        // Branches are labelled as in the Avro JSON encoding: full name for named types, type name
+        // for everything else.
+        String label = isNamed(branch) ? branch.getFullName() : branch.getType().getName();
+        branchConverters.put(label, branchConverter);
+      }
+      boolean nullable = branchConverters.containsKey(Schema.Type.NULL.getName());
+      return node -> {
+        if (node.isNull() && nullable) {
+          return null;
+        }
+        if (!node.isObject() || node.size() != 1) {
+          throw unsupported();
+        }
+        Map.Entry<String, JsonNode> entry = node.fields().next();
+        Converter branchConverter = branchConverters.get(entry.getKey());
+        if (branchConverter == null) {
+          throw unsupported();
+        }
+        return branchConverter.convert(entry.getValue());
+      };
+    }
+
+    private Converter compileRecord(Schema schema) {
+      RecordConverter existing = records.get(schema);
+      if (existing != null) {
+        return existing;
+      }
+      RecordConverter converter = new RecordConverter(schema);
+      records.put(schema, converter);
+      List<Schema.Field> fields = schema.getFields();
+      for (int i = 0; i < fields.size(); i++) {
+        Converter fieldConverter = compile(fields.get(i).schema());
+        if (fieldConverter == null) {
+          return null;
+        }
+        converter.fieldConverters[i] = fieldConverter;
+      }
+      return converter;
+    }
+
+    private static boolean isNamed(Schema schema) {
+      switch (schema.getType()) {
+        case RECORD:
+        case ENUM:
+        case FIXED:
+          return true;
+        default:
+          return false;
+      }
+    }
+  }
+
+  private static final class RecordConverter implements Converter {
+
+    private final Schema schema;
+    private final String[] fieldNames;
+    private final Converter[] fieldConverters;
+
+    private RecordConverter(Schema schema) {
+      this.schema = schema;
+      List<Schema.Field> fields = schema.getFields();
+      this.fieldNames = new String[fields.size()];
+      for (int i = 0; i < fields.size(); i++) {
+        fieldNames[i] = fields.get(i).name();
+      }
+      this.fieldConverters = new Converter[fields.size()];
+    }
+
+    @Override
+    public Object convert(JsonNode node) {
+      // Missing fields (whether or not they have a default) and unknown fields are left for the
+      // generic path to decide on.
+      if (!node.isObject() || node.size() != fieldNames.length) {
+        throw unsupported();
+      }
+      GenericData.Record record = new GenericData.Record(schema);
+      for (int i = 0; i < fieldNames.length; i++) {
+        JsonNode field = node.get(fieldNames[i]);
+        if (field == null) {
+          throw unsupported();
+        }
+        record.put(i, fieldConverters[i].convert(field));
+      }
+      return record;
+    }
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.OneofDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaUtils;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Converts JSON produce data into Protobuf messages ready to be serialized.
+ *
+ * <p>{@link ProtobufSchemaUtils#toObject(JsonNode, ProtobufSchema)} writes the {@link JsonNode}
+ * back out as text and parses it again with the generic Protobuf JSON parser, which looks up every
+ * field by name in the descriptor. Instead, this class compiles a converter per message descriptor
+ * once, which walks the {@code JsonNode} and sets the fields of a {@link DynamicMessage} directly.
+ *
+ * <p>The compiled converters only handle the canonical JSON mapping of plain messages: numbers as
+ * JSON numbers, enums by name, maps with string keys, and no well-known types. Anything else
+ * (including all invalid input) is handed over to {@code ProtobufSchemaUtils}, so that behaviour
+ * and error messages are exactly the same as before.
+ */
+final class JsonProtobufConverter {
+
+  private static final int MAX_CACHED_SCHEMAS = 1000;
+  // Same as the default recursion limit of the Protobuf JSON parser.
+  private static final int MAX_DEPTH = 100;
+  private static final long MAX_UINT32 = 0xFFFFFFFFL;
+
+  // Keyed by identity: parsed schemas are themselves cached, and so are their descriptors, so the
+  // same instances come back for as long as a schema is in use.
+  private final Cache<Descriptor, MessageConverter> converters =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(MAX_CACHED_SCHEMAS).build();
+
+  Message toObject(JsonNode data, ProtobufSchema schema) throws IOException {
+    try {
+      return getConverter(schema.toDescriptor()).convert(data, /* depth= */ 0);
+    } catch (UnsupportedInputException e) {
+      return (Message) ProtobufSchemaUtils.toObject(data, schema);
+    }
+  }
+
+  private MessageConverter getConverter(Descriptor descriptor) {
+    MessageConverter converter = converters.getIfPresent(descriptor);
+    if (converter == null) {
+      converter = new Compiler().compileMessage(descriptor);
+      converters.put(descriptor, converter);
+    }
+    return converter;
+  }
+
+  private interface ValueConverter {
+
+    Object convert(JsonNode node, int depth);
+  }
+
+  /** Thrown when a converter meets input it does not handle. Never escapes this class. */
+  private static final class UnsupportedInputException extends RuntimeException {
+
+    private static final UnsupportedInputException INSTANCE = new UnsupportedInputException();
+
+    private UnsupportedInputException() {
+      super(null, null, /* enableSuppression= */ false, /* writableStackTrace= */ false);
+    }
+  }
+
+  private static UnsupportedInputException unsupported() {
+    return UnsupportedInputException.INSTANCE;
+  }
+
+  private static final ValueConverter UNSUPPORTED =
+      (node, depth) -> {
+        throw unsupported();
+      };
+
+  private static final class Compiler {
+
+    // Messages compiled so far, so that recursive messages compile to a finite converter graph.
+    private final Map<Descriptor, MessageConverter> messages = new IdentityHashMap<>();
+
+    private MessageConverter compileMessage(Descriptor descriptor) {
+      MessageConverter existing = messages.get(descriptor);
+      if (existing != null) {
+        return existing;
+      }
+      MessageConverter converter = new MessageConverter(descriptor);
+      messages.put(descriptor, converter);
+      for (FieldDescriptor field : descriptor.getFields()) {
+        FieldConverter fieldConverter = compileField(field);
+        // The JSON parser accepts both the JSON name and the original name of a field.
+        converter.fields.put(field.getJsonName(), fieldConverter);
+        converter.fields.put(field.getName(), fieldConverter);
+      }
+      return converter;
+    }
+
+    private FieldConverter compileField(FieldDescriptor field) {
+      if (field.isMapField()) {
+        Descriptor entry = field.getMessageType();
+        FieldDescriptor key = entry.findFieldByNumber(1);
+        FieldDescriptor value = entry.findFieldByNumber(2);
+        ValueConverter valueConverter =
+            key.getJavaType() == FieldDescriptor.JavaType.STRING
+                ? compileValue(value)
+                : UNSUPPORTED;
+        return new FieldConverter(field, valueConverter, key, value);
+      }
+      return new FieldConverter(field, compileValue(field), null, null);
+    }
+
+    private ValueConverter compileValue(FieldDescriptor field) {
+      switch (field.getType()) {
+        case INT32:
+        case SINT32:
+        case SFIXED32:
+          return (node, depth) -> {
+            if (!node.isIntegralNumber() || !node.canConvertToInt()) {
+              throw unsupported();
+            }
+            return node.intValue();
+          };
+        case UINT32:
+        case FIXED32:
+          return (node, depth) -> {
+            if (!node.isIntegralNumber() || !node.canConvertToLong()) {
+              throw unsupported();
+            }
+            long value = node.longValue();
+            if (value < 0 || value > MAX_UINT32) {
+              throw unsupported();
+            }
+            return (int) value;
+          };
+        case INT64:
+        case SINT64:
+        case SFIXED64:
+          return (node, depth) -> {
+            if (!node.isIntegralNumber() || !node.canConvertToLong()) {
+              throw unsupported();
+            }
+            return node.longValue();
+          };
+        case UINT64:
+        case FIXED64:
+          return (node, depth) -> {
+            if (!node.isIntegralNumber() || !node.canConvertToLong() || node.longValue() < 0) {
+              throw unsupported();
+            }
+            return node.longValue();
+          };
+        case FLOAT:
+          return (node, depth) -> {
+            // A float node would read back differently once written out as text.
+            if (!node.isNumber() || node.isFloat()) {
+              throw unsupported();
+            }
+            double value = node.doubleValue();
+            if (Math.abs(value) > Float.MAX_VALUE) {
+              throw unsupported();
+            }
+            return (float) value;
+          };
+        case DOUBLE:
+          return (node, depth) -> {
+            if (!node.isNumber() || node.isFloat() || Double.isInfinite(node.doubleValue())) {
+              throw unsupported();
+            }
+            return node.doubleValue();
+          };
+        case BOOL:
+          return (node, depth) -> {
+            if (!node.isBoolean()) {
+              throw unsupported();
+            }
+            return node.booleanValue();
+          };
+        case STRING:
+          return (node, depth) -> {
+            if (!node.isTextual()) {
+              throw unsupported();
+            }
+            return node.textValue();
+          };
+        case BYTES:
+          return (node, depth) -> {
+            if (!node.isTextual()) {
+              throw unsupported();
+            }
+            try {
+              return ByteString.copyFrom(BaseEncoding.base64().decode(node.textValue()));
+            } catch (IllegalArgumentException e) {
+              throw unsupported();
+            }
+          };
+        case ENUM:
+          EnumDescriptor enumType = field.getEnumType();
+          return (node, depth) -> {
+            if (!node.isTextual()) {
+              throw unsupported();
+            }
+            EnumValueDescriptor value = enumType.findValueByName(node.textValue());
+            if (value == null) {
+              throw unsupported();
+            }
+            return value;
+          };
+        case MESSAGE:
+          Descriptor messageType = field.getMessageType();
+          // Well-known types have their own JSON representations.
+          if (messageType.getFile().getPackage().equals("google.protobuf")) {
+            return UNSUPPORTED;
+          }
+          return compileMessage(messageType);
+        default:
+          // Groups.
+          return UNSUPPORTED;
+      }
+    }
+  }
+
+  private static final class FieldConverter {
+
+    private final FieldDescriptor field;
+    private final ValueConverter valueConverter;
+    // Only set for map fields.
+    private final FieldDescriptor mapKey;
+    private final FieldDescriptor mapValue;
+
+    private FieldConverter(
+        FieldDescriptor field,
+        ValueConverter valueConverter,
+        FieldDescriptor mapKey,
+        FieldDescriptor mapValue) {
+      this.field = field;
+      this.valueConverter = valueConverter;
+      this.mapKey = mapKey;
+      this.mapValue = mapValue;
+    }
+
+    private void merge(JsonNode node, DynamicMessage.Builder builder, int depth) {
+      if (node.isNull()) {
+        throw unsupported();
+      }
+      if (field.isMapField()) {
+        if (!node.isObject()) {
+          throw unsupported();
+        }
+        Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+        while (entries.hasNext()) {
+          Map.Entry<String, JsonNode> entry = entries.next();
+          if (entry.getValue().isNull()) {
+            throw unsupported();
+          }
+          builder.addRepeatedField(
+              field,
+              DynamicMessage.newBuilder(field.getMessageType())
+                  .setField(mapKey, entry.getKey())
+                  .setField(mapValue, valueConverter.convert(entry.getValue(), depth))
+                  .build());
+        }
+      } else if (field.isRepeated()) {
+        if (!node.isArray()) {
+          throw unsupported();
+        }
+        for (JsonNode element : node) {
+          if (element.isNull()) {
+            throw unsupported();
+          }
+          builder.addRepeatedField(field, valueConverter.convert(element, depth));
+        }
+      } else {
+        builder.setField(field, valueConverter.convert(node, depth));
+      }
+    }
+  }
+
+  private static final class MessageConverter implements ValueConverter {
+
+    private final Descriptor descriptor;
+    private final Map<String, FieldConverter> fields = new HashMap<>();
+
+    private MessageConverter(Descriptor descriptor) {
+      this.descriptor = descriptor;
+    }
+
+    @Override
+    public DynamicMessage convert(JsonNode node, int depth) {
+      if (!node.isObject() || depth >= MAX_DEPTH) {
+        throw unsupported();
+      }
+      DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+      // Setting the same field twice (by both of its names), or two fields of the same oneof, is
+      // an error.
+      boolean[] seenFields = new boolean[descriptor.getFields().size()];
+      boolean[] seenOneofs = new boolean[descriptor.getOneofs().size()];
+      Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+      while (entries.hasNext()) {
+        Map.Entry<String, JsonNode> entry = entries.next();
+        FieldConverter fieldConverter = fields.get(entry.getKey());
+        if (fieldConverter == null || seenFields[fieldConverter.field.getIndex()]) {
+          throw unsupported();
+        }
+        seenFields[fieldConverter.field.getIndex()] = true;
+        OneofDescriptor oneof = fieldConverter.field.getContainingOneof();
+        if (oneof != null) {
+          if (seenOneofs[oneof.getIndex()]) {
+            throw unsupported();
+          }
+          seenOneofs[oneof.getIndex()] = true;
+        }
+        fieldConverter.merge(entry.getValue(), builder, depth + 1);
+      }
+      return builder.build();
+    }
+  }
+}
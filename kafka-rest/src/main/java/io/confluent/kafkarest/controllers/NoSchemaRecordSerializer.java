@@ -22,6 +22,7 @@ import com.google.common.io.BaseEncoding;
 import com.google.protobuf.ByteString;
 import io.confluent.kafka.serializers.KafkaJsonSerializer;
 import io.confluent.kafka.serializers.KafkaJsonSerializerConfig;
+import io.confluent.kafkarest.common.ByteStrings;
 import io.confluent.kafkarest.config.ConfigModule.JsonSerializerConfigs;
 import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.kafkarest.exceptions.BadRequestException;
@@ -71,11 +72,11 @@ final class NoSchemaRecordSerializer {
       throw new BadRequestException(
           String.format("data=%s is not a valid base64 string.", data), e);
     }
-    return ByteString.copyFrom(serialized);
+    return ByteStrings.wrap(serialized);
   }
 
   private ByteString serializeJson(JsonNode data) {
-    return ByteString.copyFrom(jsonSerializer.serialize(data));
+    return ByteStrings.wrap(jsonSerializer.serialize(data));
   }
 
   private static final class JsonSerializer extends KafkaJsonSerializer<JsonNode> {
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.confluent.kafkarest.backends.kafka.ProducerPool;
+import io.confluent.kafkarest.backends.kafka.ProducerProfiles;
+import io.confluent.kafkarest.backends.kafka.RecordPartitions;
+import io.confluent.kafkarest.entities.ProduceResult;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends records to the producer selected by {@link ProducerProfiles}, optionally grouping the
+ * records produced concurrently by different requests per topic partition.
+ *
+ * <p>When batching is enabled, records are queued per topic partition. Records with a key but no
+ * explicit partition are queued for the partition their key hashes to, see {@link
+ * RecordPartitions}, once the partition count of their topic is known, and are sent straight away
+ * until then. Whichever thread finds a queue idle sends everything queued so far in one burst,
+ * while the other threads only enqueue. This keeps the number of threads appending to the same
+ * partition of the producer's accumulator at one, and sends the records that piled up in the
+ * meantime in a tight loop. A thread sends at most {@code maxBurstRecords} records, and hands
+ * whatever is left over to one of a few background threads of its own, as sending can block.
+ *
+ * <p>Records with neither a partition nor a key have no partition ordering to keep, and are sent
+ * straight away, concurrently.
+ *
+ * <p>Each queued record is also its own send callback, so no callback is allocated per record.
+ */
+final class PartitionBatchingProducer {
+
+  private static final Logger log = LoggerFactory.getLogger(PartitionBatchingProducer.class);
+
+  private static final int MAX_DRAIN_THREADS = Runtime.getRuntime().availableProcessors();
+  private static final long DRAIN_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+  private final ProducerProfiles producerProfiles;
+  private final int maxBurstRecords;
+  private final ConcurrentMap<TopicPartition, PartitionQueue> queues = new ConcurrentHashMap<>();
+  // Drains the queues left over by a burst. Its threads are only started once needed.
+  private final ThreadPoolExecutor drainExecutor;
+
+  PartitionBatchingProducer(Producer<byte[], byte[]> producer, int maxBurstRecords) {
+    this(
+        new ProducerProfiles(new ProducerPool(ImmutableList.of(producer)), ImmutableList.of()),
+        maxBurstRecords);
+  }
+
+  /** {@code maxBurstRecords} of 0 disables batching. */
+  PartitionBatchingProducer(ProducerProfiles producerProfiles, int maxBurstRecords) {
+    this.producerProfiles = requireNonNull(producerProfiles);
+    this.maxBurstRecords = maxBurstRecords;
+    this.drainExecutor =
+        new ThreadPoolExecutor(
+            MAX_DRAIN_THREADS,
+            MAX_DRAIN_THREADS,
+            DRAIN_THREAD_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("Partition-batch-drain-thread-%d")
+                .setDaemon(true)
+                .build());
+    drainExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  /** Stops the background threads. Records still queued are sent by the next send, if any. */
+  void close() {
+    drainExecutor.shutdown();
+  }
+
+  CompletableFuture<ProduceResult> send(ProducerRecord<byte[], byte[]> record) {
+    return send(record, /* profile= */ Optional.empty());
+  }
+
+  CompletableFuture<ProduceResult> send(
+      ProducerRecord<byte[], byte[]> record, Optional<String> profile) {
+    ProducerPool producerPool = producerProfiles.select(record.topic(), profile);
+    Producer<byte[], byte[]> producer = producerPool.get(record);
+    PendingRecord pending = new PendingRecord(producer, record);
+    if (maxBurstRecords <= 0) {
+      producer.send(record, pending);
+      return pending.result;
+    }
+    OptionalInt partition = producerPool.partitionOf(record);
+    if (!partition.isPresent()) {
+      pending.send();
+      return pending.result;
+    }
+    TopicPartition topicPartition = new TopicPartition(record.topic(), partition.getAsInt());
+    PartitionQueue queue = queues.get(topicPartition);
+    if (queue == null) {
+      queue = queues.computeIfAbsent(topicPartition, key -> new PartitionQueue());
+    }
+    queue.records.add(pending);
+    queue.drain();
+    return pending.result;
+  }
+
+  private final class PartitionQueue {
+
+    private final Queue<PendingRecord> records = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    private void drain() {
+      int sent = 0;
+      // Whoever enqueues a record after draining is reset sees it, so no record is left behind.
+      while (!records.isEmpty() && draining.compareAndSet(false, true)) {
+        try {
+          PendingRecord pending;
+          while (sent < maxBurstRecords && (pending = records.poll()) != null) {
+            pending.send();
+            sent++;
+          }
+        } finally {
+          draining.set(false);
+        }
+        if (sent >= maxBurstRecords) {
+          if (!records.isEmpty()) {
+            try {
+              drainExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+              log.debug("Not draining {} records, as the producer is closed.", records.size());
+            }
+          }
+          return;
+        }
+      }
+    }
+  }
+
+  private final class PendingRecord implements Callback {
+
+    private final Producer<byte[], byte[]> producer;
+    private final ProducerRecord<byte[], byte[]> record;
+    private final CompletableFuture<ProduceResult> result = new CompletableFuture<>();
+
+    private PendingRecord(
+        Producer<byte[], byte[]> producer, ProducerRecord<byte[], byte[]> record) {
+      this.producer = producer;
+      this.record = record;
+    }
+
+    private void send() {
+      try {
+        producer.send(record, this);
+      } catch (RuntimeException e) {
+        // Sent on behalf of another request, so fail this record instead of that request.
+        result.completeExceptionally(e);
+      }
+    }
+
+    @Override
+    public void onCompletion(RecordMetadata metadata, Exception exception) {
+      if (exception != null) {
+        log.debug("Received exception from kafka", exception);
+        result.completeExceptionally(exception);
+      } else {
+        log.debug("Received response from kafka");
+        result.complete(ProduceResult.fromRecordMetadata(metadata, Instant.now()));
+      }
+    }
+  }
+}
@@ -19,8 +19,12 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.Multimap;
 import com.google.protobuf.ByteString;
+import io.confluent.kafkarest.common.ByteStrings;
+import io.confluent.kafkarest.config.ConfigModule.ProduceProducerProfileHeaderConfig;
 import io.confluent.kafkarest.entities.ProduceResult;
 import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.ws.rs.core.HttpHeaders;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -35,11 +39,31 @@ final class ProduceControllerImpl implements ProduceController {
 
   private static final Logger log = LoggerFactory.getLogger(ProduceController.class);
 
-  private final Producer<byte[], byte[]> producer;
+  private final PartitionBatchingProducer producer;
+  private final Optional<String> producerProfile;
 
-  @Inject
   ProduceControllerImpl(Producer<byte[], byte[]> producer) {
+    this(
+        new PartitionBatchingProducer(producer, /* maxBurstRecords= */ 0),
+        /* producerProfile= */ Optional.empty());
+  }
+
+  @Inject
+  ProduceControllerImpl(
+      PartitionBatchingProducer producer,
+      @ProduceProducerProfileHeaderConfig String producerProfileHeader,
+      Provider<HttpHeaders> httpHeaders) {
+    // Controllers are created per request, so the header is read from the current request.
+    this(
+        producer,
+        producerProfileHeader.isEmpty()
+            ? Optional.empty()
+            : Optional.ofNullable(httpHeaders.get().getHeaderString(producerProfileHeader)));
+  }
+
+  ProduceControllerImpl(PartitionBatchingProducer producer, Optional<String> producerProfile) {
     this.producer = requireNonNull(producer);
+    this.producerProfile = requireNonNull(producerProfile);
   }
 
   @Override
@@ -51,31 +75,21 @@ final class ProduceControllerImpl implements ProduceController {
       Optional<ByteString> key,
       Optional<ByteString> value,
       Instant timestamp) {
-    CompletableFuture<ProduceResult> result = new CompletableFuture<>();
     log.debug("Producing to kafka");
-    producer.send(
+    return producer.send(
         new ProducerRecord<>(
             topicName,
             partitionId.orElse(null),
             timestamp.toEpochMilli(),
-            key.map(ByteString::toByteArray).orElse(null),
-            value.map(ByteString::toByteArray).orElse(null),
+            key.map(ByteStrings::toByteArray).orElse(null),
+            value.map(ByteStrings::toByteArray).orElse(null),
             headers.entries().stream()
                 .map(
                     header ->
                         new RecordHeader(
                             header.getKey(),
-                            header.getValue().map(ByteString::toByteArray).orElse(null)))
+                            header.getValue().map(ByteStrings::toByteArray).orElse(null)))
                 .collect(Collectors.toList())),
-        (metadata, exception) -> {
-          if (exception != null) {
-            log.debug("Received exception from kafka", exception);
-            result.completeExceptionally(exception);
-          } else {
-            log.debug("Received response from kafka");
-            result.complete(ProduceResult.fromRecordMetadata(metadata, Instant.now()));
-          }
-        });
-    return result;
+        producerProfile);
   }
 }
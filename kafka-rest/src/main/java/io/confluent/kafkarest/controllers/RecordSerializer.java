@@ -28,6 +28,9 @@ public interface RecordSerializer {
    * Serializes the given {@code data} into a {@link ByteString}.
    *
    * <p>Returns {@link Optional#empty()} if {@code data} {@link JsonNode#isNull() is null}.
+   *
+   * <p>The returned {@link ByteString} wraps the serializer output without copying it, so that
+   * {@link ProduceController} can hand the same array over to the Kafka producer.
    */
   Optional<ByteString> serialize(
       EmbeddedFormat format,
@@ -22,16 +22,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
-import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.json.JsonSchemaUtils;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
-import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaUtils;
 import io.confluent.kafka.serializers.AbstractKafkaAvroSerializer;
 import io.confluent.kafka.serializers.json.AbstractKafkaJsonSchemaSerializer;
 import io.confluent.kafka.serializers.protobuf.KafkaProtobufSerializer;
 import io.confluent.kafkarest.Errors;
+import io.confluent.kafkarest.common.ByteStrings;
 import io.confluent.kafkarest.config.ConfigModule.AvroSerializerConfigs;
 import io.confluent.kafkarest.config.ConfigModule.JsonschemaSerializerConfigs;
 import io.confluent.kafkarest.config.ConfigModule.ProtobufSerializerConfigs;
@@ -48,6 +47,8 @@ final class SchemaRecordSerializerImpl implements SchemaRecordSerializer {
 
   private final boolean nullRequestBodyAlwaysPublishEmptyRecord;
   private final AvroSerializer avroSerializer;
+  private final JsonAvroConverter jsonAvroConverter = new JsonAvroConverter();
+  private final JsonProtobufConverter jsonProtobufConverter = new JsonProtobufConverter();
   private final JsonSchemaSerializer jsonschemaSerializer;
   private final ProtobufSerializer protobufSerializer;
 
@@ -103,11 +104,11 @@ final class SchemaRecordSerializerImpl implements SchemaRecordSerializer {
     AvroSchema avroSchema = (AvroSchema) schema.getSchema();
     Object record;
     try {
-      record = AvroSchemaUtils.toObject(data, avroSchema);
+      record = jsonAvroConverter.toObject(data, avroSchema);
     } catch (AvroTypeException | IOException e) {
       throw new BadRequestException(e.getMessage(), e);
     }
-    return ByteString.copyFrom(avroSerializer.serialize(subject, avroSchema, record));
+    return ByteStrings.wrap(avroSerializer.serialize(subject, avroSchema, record));
   }
 
   private ByteString serializeJsonschema(String subject, RegisteredSchema schema, JsonNode data) {
@@ -118,7 +119,7 @@ final class SchemaRecordSerializerImpl implements SchemaRecordSerializer {
     } catch (IOException | ValidationException e) {
       throw new BadRequestException(e.getMessage(), e);
     }
-    return ByteString.copyFrom(jsonschemaSerializer.serialize(subject, jsonSchema, record));
+    return ByteStrings.wrap(jsonschemaSerializer.serialize(subject, jsonSchema, record));
   }
 
   private ByteString serializeProtobuf(
@@ -126,11 +127,11 @@ final class SchemaRecordSerializerImpl implements SchemaRecordSerializer {
     ProtobufSchema protobufSchema = (ProtobufSchema) schema.getSchema();
     Message record;
     try {
-      record = (Message) ProtobufSchemaUtils.toObject(data, protobufSchema);
+      record = jsonProtobufConverter.toObject(data, protobufSchema);
     } catch (IOException e) {
       throw new BadRequestException(e.getMessage(), e);
     }
-    return ByteString.copyFrom(
+    return ByteStrings.wrap(
         protobufSerializer.serialize(subject, topicName, protobufSchema, record, isKey));
   }
 
@@ -38,6 +38,7 @@ import io.confluent.kafka.serializers.subject.RecordNameStrategy;
 import io.confluent.kafka.serializers.subject.TopicNameStrategy;
 import io.confluent.kafka.serializers.subject.TopicRecordNameStrategy;
 import io.confluent.kafka.serializers.subject.strategy.SubjectNameStrategy;
+import io.confluent.kafkarest.common.ByteStrings;
 import io.confluent.kafkarest.entities.EmbeddedFormat;
 import jakarta.annotation.Nullable;
 import java.io.IOException;
@@ -156,7 +157,7 @@ public abstract class ProduceRequest {
     @JsonCreator
     static ProduceRequestHeader fromJson(
         @JsonProperty("name") String name, @JsonProperty("value") @Nullable byte[] value) {
-      return create(name, value != null ? ByteString.copyFrom(value) : null);
+      return create(name, value != null ? ByteStrings.wrap(value) : null);
     }
   }
 
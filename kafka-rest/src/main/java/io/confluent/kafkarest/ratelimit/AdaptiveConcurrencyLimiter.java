@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.kafkarest.config.ConfigModule.ProduceConcurrencyLimitEnabledConfig;
+import io.confluent.kafkarest.config.ConfigModule.ProduceConcurrencyLimitMaxConfig;
+import io.confluent.kafkarest.config.ConfigModule.ProduceConcurrencyLimitMinConfig;
+import jakarta.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.kafka.common.errors.TimeoutException;
+
+/**
+ * Limits how many produce requests can wait on the brokers at once, adapting the limit to the
+ * latency of the brokers.
+ *
+ * <p>The limit follows AIMD (additive increase, multiplicative decrease): it grows by one for each
+ * request that completes in time while the limit is at least half used, and shrinks by 10% when
+ * requests start taking much longer than usual, or time out in the producer. Requests taking
+ * "much longer than usual" means a short-term average of the latency being over twice a long-term
+ * one. The limit shrinks at most once per short-term latency, so that the requests already sent
+ * when the brokers slowed down do not shrink it all the way down.
+ *
+ * <p>Requests past the limit are rejected straight away, instead of queueing up in the producer
+ * until they fill up its buffer or time out, which makes latency collapse for everyone when a
+ * broker slows down (e.g. while rolling).
+ *
+ * <p>The latency estimates and the limit are updated without synchronization, so concurrent
+ * updates can get lost. This only makes the estimates slightly noisier.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+  private static final double SHORT_TERM_SMOOTHING = 0.1;
+  private static final double LONG_TERM_SMOOTHING = 0.001;
+  private static final double LATENCY_TOLERANCE = 2.0;
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final boolean enabled;
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile int limit;
+  private volatile double shortTermLatencyNs = 0;
+  private volatile double longTermLatencyNs = 0;
+  private volatile long lastDecreaseNs = System.nanoTime();
+
+  @Inject
+  public AdaptiveConcurrencyLimiter(
+      @ProduceConcurrencyLimitEnabledConfig Boolean enabled,
+      @ProduceConcurrencyLimitMinConfig Integer minLimit,
+      @ProduceConcurrencyLimitMaxConfig Integer maxLimit) {
+    this.enabled = enabled;
+    this.minLimit = minLimit;
+    this.maxLimit = Math.max(minLimit, maxLimit);
+    // Start wide open, and only shrink when the brokers show signs of overload.
+    this.limit = this.maxLimit;
+  }
+
+  /**
+   * Calls {@code send}, unless the limit has been reached, and takes into account the latency of
+   * the returned future, from the call until its completion.
+   *
+   * @throws ConcurrencyLimitExceededException if the limit has been reached
+   */
+  public <T> CompletableFuture<T> limit(Supplier<CompletableFuture<T>> send) {
+    if (!enabled) {
+      return send.get();
+    }
+    if (!tryAcquire()) {
+      throw new ConcurrencyLimitExceededException();
+    }
+    long startNs = System.nanoTime();
+    CompletableFuture<T> result;
+    try {
+      result = send.get();
+    } catch (RuntimeException e) {
+      release(System.nanoTime() - startNs, /* overloaded= */ false, System.nanoTime());
+      throw e;
+    }
+    return result.whenComplete(
+        (value, error) -> {
+          long now = System.nanoTime();
+          release(now - startNs, isOverloaded(error), now);
+        });
+  }
+
+  /** Returns the current limit. */
+  public int getLimit() {
+    return limit;
+  }
+
+  /** Returns how many requests are currently waiting on the brokers. */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  @VisibleForTesting
+  boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  @VisibleForTesting
+  void release(long latencyNs, boolean overloaded, long nowNs) {
+    int inFlightBefore = inFlight.getAndDecrement();
+
+    double shortTerm = average(shortTermLatencyNs, latencyNs, SHORT_TERM_SMOOTHING);
+    double longTerm = average(longTermLatencyNs, latencyNs, LONG_TERM_SMOOTHING);
+    shortTermLatencyNs = shortTerm;
+    longTermLatencyNs = longTerm;
+
+    int current = limit;
+    if (overloaded || shortTerm > longTerm * LATENCY_TOLERANCE) {
+      if (nowNs - lastDecreaseNs >= shortTerm) {
+        limit = Math.max(minLimit, (int) (current * BACKOFF_RATIO));
+        lastDecreaseNs = nowNs;
+      }
+    } else if (inFlightBefore * 2 >= current && current < maxLimit) {
+      limit = current + 1;
+    }
+  }
+
+  /** Returns the exponential moving average including {@code sample}. */
+  private static double average(double average, long sample, double smoothing) {
+    return average == 0 ? sample : average + (sample - average) * smoothing;
+  }
+
+  private static boolean isOverloaded(Throwable error) {
+    while ((error instanceof CompletionException || error instanceof ExecutionException)
+        && error.getCause() != null) {
+      error = error.getCause();
+    }
+    // Raised by the producer when a record could not be sent in time, or when its buffer is full.
+    return error instanceof TimeoutException;
+  }
+}
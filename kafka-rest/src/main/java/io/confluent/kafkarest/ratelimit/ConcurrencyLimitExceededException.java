@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import io.confluent.kafkarest.exceptions.StatusCodeException;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * An exception thrown when too many produce requests are already waiting on the brokers.
+ *
+ * @see AdaptiveConcurrencyLimiter
+ */
+public final class ConcurrencyLimitExceededException extends StatusCodeException {
+
+  public ConcurrencyLimitExceededException() {
+    super(
+        Response.Status.TOO_MANY_REQUESTS,
+        "Concurrency limit exceeded",
+        "Too many requests are waiting on the Kafka cluster. Retry later.");
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    // Skipping stack-trace filling, as these exceptions are being used as a specific signal with
+    // well-known origin (our concurrency-limiting infrastructure).
+    return this;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically shares the demand of this replica's {@link DistributedRateLimiter
+ * DistributedRateLimiters} with the other replicas, via a {@link RateLimitStateStore}, and sets the
+ * local rate of each to this replica's fair share of it.
+ *
+ * <p>Shares are max-min fair: replicas asking for less than an even split of the rate-limit get
+ * what they ask for, and the rest is split evenly between the others. Whatever is left once every
+ * replica gets what it asks for is split evenly between all of them, so that they can absorb an
+ * increase in demand until the next synchronization.
+ */
+final class DistributedRateLimitCoordinator implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(DistributedRateLimitCoordinator.class);
+
+  /** The local rate never goes below this, so that each replica can still let some requests in. */
+  private static final double MIN_LOCAL_PERMITS_PER_SECOND = 1;
+
+  private final RateLimitStateStore store;
+  private final String replicaId;
+  private final Duration syncInterval;
+  private final ConcurrentMap<String, DistributedRateLimiter> rateLimiters =
+      new MapMaker().weakValues().makeMap();
+  private ScheduledExecutorService executor;
+
+  DistributedRateLimitCoordinator(
+      RateLimitStateStore store, String replicaId, Duration syncInterval) {
+    this.store = requireNonNull(store);
+    this.replicaId = requireNonNull(replicaId);
+    this.syncInterval = requireNonNull(syncInterval);
+  }
+
+  /** Starts synchronizing every {@code syncInterval}, on a background thread. */
+  synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("rate-limit-sync-%d")
+                .setDaemon(true)
+                .build());
+    executor.scheduleWithFixedDelay(
+        this::sync, syncInterval.toMillis(), syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  DistributedRateLimiter create(String name, int permitsPerSecond, Duration timeout) {
+    return new DistributedRateLimiter(this, name, permitsPerSecond, timeout);
+  }
+
+  void register(DistributedRateLimiter rateLimiter) {
+    rateLimiters.put(rateLimiter.getKey(), rateLimiter);
+  }
+
+  /** Shares this replica's demand, and updates the local rates from the demand of all replicas. */
+  void sync() {
+    Map<String, DistributedRateLimiter> current = ImmutableMap.copyOf(rateLimiters);
+    if (current.isEmpty()) {
+      return;
+    }
+    Map<String, Long> demands = new HashMap<>();
+    current.forEach((key, rateLimiter) -> demands.put(key, rateLimiter.drainDemand()));
+
+    Map<String, Map<String, Long>> allDemands;
+    try {
+      allDemands = store.exchange(replicaId, demands);
+    } catch (RuntimeException e) {
+      // Keep the current shares until the store is reachable again.
+      log.warn("Failed to synchronize rate-limits with the other replicas.", e);
+      return;
+    }
+
+    double intervalSeconds = syncInterval.toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+    current.forEach(
+        (key, rateLimiter) -> {
+          Map<String, Long> byReplica =
+              allDemands.getOrDefault(key, ImmutableMap.of(replicaId, demands.get(key)));
+          rateLimiter.setLocalPermitsPerSecond(
+              fairShare(
+                  rateLimiter.getPermitsPerSecond(), byReplica, replicaId, intervalSeconds));
+        });
+  }
+
+  /**
+   * Returns the max-min fair share of {@code permitsPerSecond} of {@code replicaId}, given the
+   * permits requested by each replica over the last {@code intervalSeconds}.
+   */
+  static double fairShare(
+      int permitsPerSecond, Map<String, Long> demands, String replicaId, double intervalSeconds) {
+    Map<String, Long> allDemands = new HashMap<>(demands);
+    allDemands.putIfAbsent(replicaId, 0L);
+    double ownDemand = allDemands.get(replicaId) / intervalSeconds;
+
+    double[] sortedDemands = new double[allDemands.size()];
+    int i = 0;
+    for (long demand : allDemands.values()) {
+      sortedDemands[i++] = demand / intervalSeconds;
+    }
+    Arrays.sort(sortedDemands);
+
+    // Fill replicas up, from the least demanding one, until the rate-limit runs out.
+    int replicas = sortedDemands.length;
+    double remaining = permitsPerSecond;
+    int unsatisfied = replicas;
+    for (double demand : sortedDemands) {
+      if (demand * unsatisfied > remaining) {
+        double level = remaining / unsatisfied;
+        return Math.max(Math.min(ownDemand, level), MIN_LOCAL_PERMITS_PER_SECOND);
+      }
+      remaining -= demand;
+      unsatisfied--;
+    }
+    return Math.max(ownDemand + remaining / replicas, MIN_LOCAL_PERMITS_PER_SECOND);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    store.close();
+  }
+}
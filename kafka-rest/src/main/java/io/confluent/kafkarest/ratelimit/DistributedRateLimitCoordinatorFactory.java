@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.kafkarest.KafkaRestConfig;
+import jakarta.inject.Inject;
+import java.util.UUID;
+import org.glassfish.hk2.api.Factory;
+
+/** A {@link Factory} for {@link DistributedRateLimitCoordinator}. */
+final class DistributedRateLimitCoordinatorFactory
+    implements Factory<DistributedRateLimitCoordinator> {
+
+  private final KafkaRestConfig config;
+
+  @Inject
+  DistributedRateLimitCoordinatorFactory(KafkaRestConfig config) {
+    this.config = requireNonNull(config);
+  }
+
+  @Override
+  public DistributedRateLimitCoordinator provide() {
+    RateLimitStateStore store =
+        config.getConfiguredInstance(
+            KafkaRestConfig.RATE_LIMIT_DISTRIBUTED_STORE_CLASS_CONFIG, RateLimitStateStore.class);
+    DistributedRateLimitCoordinator coordinator =
+        new DistributedRateLimitCoordinator(
+            store, UUID.randomUUID().toString(), config.getRateLimitDistributedSyncInterval());
+    coordinator.start();
+    return coordinator;
+  }
+
+  @Override
+  public void dispose(DistributedRateLimitCoordinator coordinator) {
+    coordinator.close();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link RequestRateLimiter} implementation that enforces its rate-limit across all the REST
+ * proxy replicas, rather than in each of them.
+ *
+ * <p>Requests are rate-limited by a local {@link TokenBucketRateLimiter}, so that no remote call
+ * happens while handling a request. Its rate is this replica's fair share of the rate-limit, which
+ * {@link DistributedRateLimitCoordinator} periodically works out from the demand of all the
+ * replicas. Until then, the local rate is the whole rate-limit.
+ */
+final class DistributedRateLimiter extends RequestRateLimiter {
+
+  private final DistributedRateLimitCoordinator coordinator;
+  private final String key;
+  private final int permitsPerSecond;
+  private final Duration timeout;
+  private final TokenBucketRateLimiter localRateLimiter;
+  private final LongAdder demand = new LongAdder();
+  private volatile boolean registered = false;
+
+  DistributedRateLimiter(
+      DistributedRateLimitCoordinator coordinator,
+      String key,
+      int permitsPerSecond,
+      Duration timeout) {
+    this.coordinator = requireNonNull(coordinator);
+    this.key = requireNonNull(key);
+    this.permitsPerSecond = permitsPerSecond;
+    this.timeout = requireNonNull(timeout);
+    // A single stripe, as the local rate can get much lower than the configured one.
+    this.localRateLimiter =
+        new TokenBucketRateLimiter(permitsPerSecond, timeout, 1, Ticker.systemTicker());
+  }
+
+  /**
+   * Returns a new rate-limiter with the same rate-limit, but applying to the given {@code scope}
+   * (e.g. a cluster ID) only.
+   */
+  DistributedRateLimiter scopedTo(String scope) {
+    return new DistributedRateLimiter(coordinator, key + "/" + scope, permitsPerSecond, timeout);
+  }
+
+  /** The key identifying this rate-limit in the {@link RateLimitStateStore}. */
+  String getKey() {
+    return key;
+  }
+
+  int getPermitsPerSecond() {
+    return permitsPerSecond;
+  }
+
+  /** Returns the permits requested since the previous call. */
+  long drainDemand() {
+    return demand.sumThenReset();
+  }
+
+  void setLocalPermitsPerSecond(double localPermitsPerSecond) {
+    localRateLimiter.setPermitsPerSecond(localPermitsPerSecond);
+  }
+
+  @Override
+  public void rateLimit(int cost) {
+    if (!registered) {
+      // Only rate-limiters that actually get used take part in the synchronization.
+      coordinator.register(this);
+      registered = true;
+    }
+    demand.add(cost);
+    localRateLimiter.rateLimit(cost);
+  }
+}
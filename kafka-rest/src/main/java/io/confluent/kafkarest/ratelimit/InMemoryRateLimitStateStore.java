@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link RateLimitStateStore} kept in memory.
+ *
+ * <p>As the state is not shared beyond the JVM, this is only a stand-in: replicas sharing an
+ * instance, e.g. in tests, share their rate-limits, while a standalone replica ends up with the
+ * whole of each rate-limit to itself.
+ */
+public final class InMemoryRateLimitStateStore implements RateLimitStateStore {
+
+  /** How long a replica is considered live after its latest call to {@link #exchange}. */
+  private static final Duration DEFAULT_REPLICA_TIMEOUT = Duration.ofSeconds(10);
+
+  private final ConcurrentHashMap<String, ConcurrentHashMap<String, Demand>> demands =
+      new ConcurrentHashMap<>();
+  private final Ticker ticker;
+  private final long replicaTimeoutNanos;
+
+  public InMemoryRateLimitStateStore() {
+    this(DEFAULT_REPLICA_TIMEOUT, Ticker.systemTicker());
+  }
+
+  InMemoryRateLimitStateStore(Duration replicaTimeout, Ticker ticker) {
+    this.replicaTimeoutNanos = replicaTimeout.toNanos();
+    this.ticker = requireNonNull(ticker);
+  }
+
+  @Override
+  public Map<String, Map<String, Long>> exchange(String replicaId, Map<String, Long> demands) {
+    long now = ticker.read();
+    ImmutableMap.Builder<String, Map<String, Long>> result = ImmutableMap.builder();
+    for (Map.Entry<String, Long> demand : demands.entrySet()) {
+      ConcurrentHashMap<String, Demand> byReplica =
+          this.demands.computeIfAbsent(demand.getKey(), key -> new ConcurrentHashMap<>());
+      byReplica.put(replicaId, new Demand(demand.getValue(), now));
+      byReplica.values().removeIf(other -> now - other.publishedAt > replicaTimeoutNanos);
+
+      ImmutableMap.Builder<String, Long> live = ImmutableMap.builder();
+      byReplica.forEach((replica, other) -> live.put(replica, other.permits));
+      result.put(demand.getKey(), live.build());
+    }
+    return result.build();
+  }
+
+  private static final class Demand {
+    private final long permits;
+    private final long publishedAt;
+
+    private Demand(long permits, long publishedAt) {
+      this.permits = permits;
+      this.publishedAt = publishedAt;
+    }
+  }
+}
@@ -22,5 +22,15 @@ public enum RateLimitBackend {
   GUAVA,
 
   /** @see <a href="https://resilience4j.readme.io/docs/ratelimiter">Resilience4j RateLimiter</a> */
-  RESILIENCE4J
+  RESILIENCE4J,
+
+  /** A lock-free, striped token bucket. */
+  TOKEN_BUCKET,
+
+  /**
+   * Rate-limits shared by all the REST proxy replicas, each enforcing its fair share locally.
+   *
+   * @see RateLimitStateStore
+   */
+  DISTRIBUTED
 }
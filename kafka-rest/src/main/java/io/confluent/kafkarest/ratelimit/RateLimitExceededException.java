@@ -44,6 +44,9 @@ public final class RateLimitExceededException extends StatusCodeException {
     // Apply to all APIs, via the Dos-filters at Jetty layer.
     public static final int DOS_FILTER_MAX_REQUEST_LIMIT_EXCEEDED = 429007;
     public static final int DOS_FILTER_MAX_REQUEST_PER_CONNECTION_LIMIT_EXCEEDED = 429008;
+
+    // Only apply to Produce APIs, see ConcurrencyLimitExceededException.
+    public static final int PRODUCE_CONCURRENCY_LIMIT_EXCEEDED = 429009;
   }
 
   public RateLimitExceededException() {
@@ -32,6 +32,10 @@ public final class RateLimitModule extends AbstractBinder {
 
   @Override
   protected void configure() {
+    bindFactory(DistributedRateLimitCoordinatorFactory.class)
+        .to(DistributedRateLimitCoordinator.class)
+        .in(Singleton.class);
+
     bindFactory(RequestRateLimiterGenericFactory.class)
         .qualifiedBy(new RequestRateLimiterGenericImpl())
         .to(RequestRateLimiter.class)
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import java.io.Closeable;
+import java.util.Map;
+
+/**
+ * The state shared by the REST proxy replicas using the {@link RateLimitBackend#DISTRIBUTED}
+ * rate-limiting backend.
+ *
+ * <p>Each replica periodically publishes its recent demand for each of its rate-limits, and gets
+ * back the demand recently published by all the live replicas, which it uses to work out its fair
+ * share of each rate-limit. Calls only ever happen on a background thread, never while handling a
+ * request, so implementations are free to make remote calls, e.g. to a database or a compacted
+ * Kafka topic.
+ *
+ * <p>Implementations are configured via {@link
+ * io.confluent.kafkarest.KafkaRestConfig#RATE_LIMIT_DISTRIBUTED_STORE_CLASS_CONFIG}, and must have
+ * a public no-args constructor. If they also implement {@link
+ * org.apache.kafka.common.Configurable}, they are configured with the REST proxy configs.
+ */
+public interface RateLimitStateStore extends Closeable {
+
+  /**
+   * Publishes the demand of {@code replicaId} for each rate-limit, and returns the demand of each
+   * live replica, including {@code replicaId}, for the same rate-limits.
+   *
+   * @param replicaId the ID of the calling replica
+   * @param demands the permits requested from the calling replica since its previous call, by
+   *     rate-limit
+   * @return the latest demand published by each live replica, by rate-limit, then by replica ID.
+   *     Replicas that have not published for a while should be left out.
+   */
+  Map<String, Map<String, Long>> exchange(String replicaId, Map<String, Long> demands);
+
+  @Override
+  default void close() {}
+}
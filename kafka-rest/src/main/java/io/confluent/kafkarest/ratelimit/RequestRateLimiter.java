@@ -15,6 +15,11 @@
 
 package io.confluent.kafkarest.ratelimit;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.primitives.Ints;
+import java.util.function.IntConsumer;
+
 /**
  * A server-wide request rate-limiter.
  *
@@ -43,4 +48,86 @@ public abstract class RequestRateLimiter {
    * @throws RateLimitExceededException if permission to go through has been denied
    */
   public abstract void rateLimit(int cost);
+
+  /**
+   * Rate-limits {@code costs[i]} against {@code rateLimiters[i]}, for every {@code i}, stopping at
+   * the first rate-limiter that denies permission.
+   *
+   * <p>If all the rate-limiters are {@link RateLimitBackend#TOKEN_BUCKET} ones, they are
+   * rate-limited as a whole: the permits taken from the rate-limiters preceding the one that denied
+   * permission are given back, and the call waits at most once. Otherwise, this is the same as
+   * calling {@link #rateLimit(int)} on each of them in turn.
+   *
+   * @return the index of the rate-limiter that denied permission, or {@code -1} if all granted it
+   */
+  public static int rateLimitAll(RequestRateLimiter[] rateLimiters, int[] costs) {
+    checkArgument(rateLimiters.length == costs.length, "Each rate-limiter needs a cost.");
+    TokenBucketRateLimiter[] tokenBuckets = toTokenBuckets(rateLimiters);
+    if (tokenBuckets != null) {
+      return TokenBucketRateLimiter.rateLimitAll(tokenBuckets, costs);
+    }
+    for (int i = 0; i < rateLimiters.length; i++) {
+      try {
+        rateLimiters[i].rateLimit(costs[i]);
+      } catch (RateLimitExceededException e) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Rate-limits the longest prefix of a batch of requests that all of {@code rateLimiters} let
+   * through. They come in pairs: each request costs one permit of {@code rateLimiters[2 * i]}, and
+   * its size in permits of {@code rateLimiters[2 * i + 1]}.
+   *
+   * <p>If all the rate-limiters are {@link RateLimitBackend#TOKEN_BUCKET} ones, the prefix is
+   * computed from the permits they all have available, and then taken from all of them at once.
+   * Otherwise, the requests are rate-limited one at a time, with {@link
+   * #rateLimitAll(RequestRateLimiter[], int[])}, until one of them is denied. Either way, the batch
+   * overshoots the rate by at most one request.
+   *
+   * @param cumulativeSizes {@code cumulativeSizes[i]} is the size of the first {@code i + 1}
+   *     requests of the batch
+   * @param length how many requests of the batch to rate-limit
+   * @param onDenied called with the index of the rate-limiter that cut the batch short, if any
+   * @return how many requests, from the start of the batch, went through
+   */
+  public static int rateLimitPrefix(
+      RequestRateLimiter[] rateLimiters, long[] cumulativeSizes, int length, IntConsumer onDenied) {
+    checkArgument(rateLimiters.length % 2 == 0, "Rate-limiters come in pairs.");
+    checkArgument(length <= cumulativeSizes.length, "Each request needs a size.");
+    TokenBucketRateLimiter[] tokenBuckets = toTokenBuckets(rateLimiters);
+    if (tokenBuckets != null) {
+      return TokenBucketRateLimiter.rateLimitPrefix(
+          tokenBuckets, cumulativeSizes, length, onDenied);
+    }
+    int[] costs = new int[rateLimiters.length];
+    long previousSize = 0;
+    for (int i = 0; i < length; i++) {
+      int size = Ints.saturatedCast(cumulativeSizes[i] - previousSize);
+      previousSize = cumulativeSizes[i];
+      for (int j = 0; j < costs.length; j += 2) {
+        costs[j] = 1;
+        costs[j + 1] = size;
+      }
+      int denied = rateLimitAll(rateLimiters, costs);
+      if (denied != -1) {
+        onDenied.accept(denied);
+        return i;
+      }
+    }
+    return length;
+  }
+
+  private static TokenBucketRateLimiter[] toTokenBuckets(RequestRateLimiter[] rateLimiters) {
+    TokenBucketRateLimiter[] tokenBuckets = new TokenBucketRateLimiter[rateLimiters.length];
+    for (int i = 0; i < rateLimiters.length; i++) {
+      if (!(rateLimiters[i] instanceof TokenBucketRateLimiter)) {
+        return null;
+      }
+      tokenBuckets[i] = (TokenBucketRateLimiter) rateLimiters[i];
+    }
+    return tokenBuckets;
+  }
 }
@@ -34,6 +34,11 @@ public final class RequestRateLimiterCacheLoader extends CacheLoader<String, Req
 
   @Override
   public RequestRateLimiter load(String key) {
-    return rateLimiter.get();
+    RequestRateLimiter loaded = rateLimiter.get();
+    if (loaded instanceof DistributedRateLimiter) {
+      // Replicas need to tell apart the rate-limits for different keys, e.g. different clusters.
+      return ((DistributedRateLimiter) loaded).scopedTo(key);
+    }
+    return loaded;
   }
 }
@@ -18,6 +18,7 @@ package io.confluent.kafkarest.ratelimit;
 import io.confluent.kafkarest.config.ConfigModule.RateLimitPerClusterPermitsPerSecConfig;
 import io.confluent.kafkarest.config.ConfigModule.RateLimitTimeoutConfig;
 import jakarta.inject.Inject;
+import jakarta.inject.Provider;
 import java.time.Duration;
 
 final class RequestRateLimiterPerClusterFactory extends RequestRateLimiterFactory {
@@ -26,7 +27,8 @@ final class RequestRateLimiterPerClusterFactory extends RequestRateLimiterFactor
   public RequestRateLimiterPerClusterFactory(
       RateLimitBackend backend,
       @RateLimitPerClusterPermitsPerSecConfig Integer permitsPerSecond,
-      @RateLimitTimeoutConfig Duration timeout) {
-    super(backend, permitsPerSecond, timeout);
+      @RateLimitTimeoutConfig Duration timeout,
+      Provider<DistributedRateLimitCoordinator> coordinator) {
+    super("per-cluster", backend, permitsPerSecond, timeout, coordinator);
   }
 }
@@ -18,6 +18,7 @@ package io.confluent.kafkarest.ratelimit;
 import io.confluent.kafkarest.config.ConfigModule.ProduceRateLimitBytesConfig;
 import io.confluent.kafkarest.config.ConfigModule.RateLimitTimeoutConfig;
 import jakarta.inject.Inject;
+import jakarta.inject.Provider;
 import java.time.Duration;
 
 final class RequestRateLimiterProduceBytesFactory extends RequestRateLimiterFactory {
@@ -26,7 +27,8 @@ final class RequestRateLimiterProduceBytesFactory extends RequestRateLimiterFact
   public RequestRateLimiterProduceBytesFactory(
       RateLimitBackend backend,
       @ProduceRateLimitBytesConfig Integer permitsPerSecond,
-      @RateLimitTimeoutConfig Duration timeout) {
-    super(backend, permitsPerSecond, timeout);
+      @RateLimitTimeoutConfig Duration timeout,
+      Provider<DistributedRateLimitCoordinator> coordinator) {
+    super("produce-bytes", backend, permitsPerSecond, timeout, coordinator);
   }
 }
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Ticker;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * A lock-free {@link RequestRateLimiter} implementation based on a striped token bucket.
+ *
+ * <p>Each stripe is a bucket that refills at {@code permitsPerSecond / stripes} permits per second
+ * and holds at most one second worth of permits. The whole state of a bucket is a single
+ * timestamp, the time at which all the permits handed out so far will have been refilled, which is
+ * updated with a CAS. Requests start at a random stripe and move on to the next ones if it cannot
+ * serve them, so a request is only denied if no stripe can serve it.
+ *
+ * <p>Like Guava's {@code RateLimiter}, a request that goes through takes all of its permits at
+ * once, even if that leaves the bucket in debt. It is the subsequent requests that wait, up to the
+ * configured timeout, for the debt to be paid back.
+ *
+ * <p>Batches rate-limited with {@link #rateLimitPrefix} are the exception: only the last request
+ * of the admitted prefix may run into debt, the ones before it have to fit in the permits
+ * available within the timeout. A batch of one request is therefore the same as a single request.
+ */
+final class TokenBucketRateLimiter extends RequestRateLimiter {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  /** A bucket holds at most this much time worth of permits. */
+  private static final long MAX_BURST_NANOS = NANOS_PER_SECOND;
+
+  /** Caps the time worth of a single request, so that bucket timestamps never overflow. */
+  private static final long MAX_COST_NANOS = Long.MAX_VALUE / 4;
+
+  /**
+   * Stripes are only added while each of them still gets this many permits per second, so that low
+   * rates are not split into buckets too small to absorb bursts.
+   */
+  private static final int MIN_PERMITS_PER_SECOND_PER_STRIPE = 1000;
+
+  private static final int STRIPE_BITS = 6;
+  private static final int MAX_STRIPES = 1 << STRIPE_BITS;
+
+  /** Distance between two stripes in {@link #buckets}, so that each sits in its own cache line. */
+  private static final int STRIDE = 16;
+
+  private static final long DENIED = -1;
+
+  /**
+   * How many times {@link #rateLimitPrefix} recomputes the prefix when concurrent requests take
+   * the permits it was sized for, before giving up.
+   */
+  private static final int MAX_PREFIX_ATTEMPTS = 3;
+
+  private final Ticker ticker;
+  private volatile double nanosPerPermit;
+  private final long timeoutNanos;
+  private final int stripes;
+  private final AtomicLongArray buckets;
+
+  TokenBucketRateLimiter(double permitsPerSecond, Duration timeout, int stripes, Ticker ticker) {
+    checkArgument(permitsPerSecond > 0, "permitsPerSecond must be positive: %s", permitsPerSecond);
+    checkArgument(
+        stripes > 0 && stripes <= MAX_STRIPES,
+        "stripes must be in [1, %s]: %s",
+        MAX_STRIPES,
+        stripes);
+    this.ticker = requireNonNull(ticker);
+    this.nanosPerPermit = (double) NANOS_PER_SECOND * stripes / permitsPerSecond;
+    this.timeoutNanos = Math.min(timeout.toNanos(), Long.MAX_VALUE >> STRIPE_BITS);
+    this.stripes = stripes;
+    this.buckets = new AtomicLongArray((stripes - 1) * STRIDE + 1);
+    long now = ticker.read();
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      buckets.set(stripe * STRIDE, now);
+    }
+  }
+
+  static TokenBucketRateLimiter create(int permitsPerSecond, Duration timeout) {
+    int stripes =
+        Math.max(
+            1,
+            Math.min(
+                Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES),
+                permitsPerSecond / MIN_PERMITS_PER_SECOND_PER_STRIPE));
+    return new TokenBucketRateLimiter(permitsPerSecond, timeout, stripes, Ticker.systemTicker());
+  }
+
+  /**
+   * Changes the rate at which permits are refilled from now on. Permits already handed out, and
+   * the resulting debt, if any, are not affected.
+   */
+  void setPermitsPerSecond(double permitsPerSecond) {
+    checkArgument(permitsPerSecond > 0, "permitsPerSecond must be positive: %s", permitsPerSecond);
+    nanosPerPermit = (double) NANOS_PER_SECOND * stripes / permitsPerSecond;
+  }
+
+  @Override
+  public void rateLimit(int cost) {
+    if (cost <= 0) {
+      return;
+    }
+    long reservation = reserve(cost, /* checkedCost= */ 0, ticker.read());
+    if (reservation == DENIED) {
+      throw new RateLimitExceededException();
+    }
+    sleep(waitNanos(reservation));
+  }
+
+  /**
+   * Rate-limits {@code costs[i]} against {@code rateLimiters[i]}, for every {@code i}, as a whole.
+   *
+   * <p>If any of the rate-limiters denies permission, the permits already taken from the preceding
+   * ones are given back. Otherwise, the call waits once, for the longest of the waits required by
+   * the individual rate-limiters.
+   *
+   * @return the index of the rate-limiter that denied permission, or {@code -1} if all granted it
+   */
+  static int rateLimitAll(TokenBucketRateLimiter[] rateLimiters, int[] costs) {
+    return rateLimitAll(rateLimiters, costs, new int[costs.length]);
+  }
+
+  /**
+   * Rate-limits the longest prefix of a batch of requests that all of {@code rateLimiters} have the
+   * permits for, see {@link RequestRateLimiter#rateLimitPrefix}.
+   *
+   * <p>The prefix is computed from the permits every rate-limiter has available within the timeout,
+   * before taking any of them, so that no rate-limiter is charged for requests another one cuts.
+   * A batch overshoots the rate by at most its last request, the same as a single request would.
+   */
+  static int rateLimitPrefix(
+      TokenBucketRateLimiter[] rateLimiters,
+      long[] cumulativeSizes,
+      int length,
+      IntConsumer onDenied) {
+    if (length == 0) {
+      return 0;
+    }
+    int[] costs = new int[rateLimiters.length];
+    int[] checkedCosts = new int[rateLimiters.length];
+    int denied = 0;
+    for (int attempt = 0; attempt < MAX_PREFIX_ATTEMPTS; attempt++) {
+      int admitted = length;
+      int limiting = -1;
+      for (int i = 0; i < rateLimiters.length && admitted > 0; i++) {
+        int prefix = rateLimiters[i].availablePrefix(i, cumulativeSizes, admitted);
+        if (prefix < admitted) {
+          admitted = prefix;
+          limiting = i;
+        }
+      }
+      if (admitted == 0) {
+        denied = limiting;
+        break;
+      }
+
+      for (int i = 0; i < rateLimiters.length; i++) {
+        costs[i] = Ints.saturatedCast(cumulativeCost(i, cumulativeSizes, admitted));
+        checkedCosts[i] = Ints.saturatedCast(cumulativeCost(i, cumulativeSizes, admitted - 1));
+      }
+      denied = rateLimitAll(rateLimiters, costs, checkedCosts);
+      if (denied == -1) {
+        if (limiting != -1) {
+          onDenied.accept(limiting);
+        }
+        return admitted;
+      }
+      // Concurrent requests took some of the permits in the meantime, retry with what is left.
+    }
+    onDenied.accept(denied);
+    return 0;
+  }
+
+  /**
+   * Returns the longest prefix, of at most {@code length} requests, that this rate-limiter, the
+   * {@code index}-th one of a {@link #rateLimitPrefix} call, has the permits for. Like a single
+   * request, the last request of the prefix may run into debt, so only the ones before it need to
+   * fit in the available permits.
+   */
+  private int availablePrefix(int index, long[] cumulativeSizes, int length) {
+    long available = availablePermits(ticker.read());
+    if (available < 0) {
+      return 0;
+    }
+    int low = 1;
+    int high = length;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (cumulativeCost(index, cumulativeSizes, mid - 1) <= available) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the cost of the first {@code requests} requests of a batch for the {@code index}-th
+   * rate-limiter of a {@link RequestRateLimiter#rateLimitPrefix} call.
+   */
+  private static long cumulativeCost(int index, long[] cumulativeSizes, int requests) {
+    if (requests == 0) {
+      return 0;
+    }
+    return index % 2 == 0 ? requests : cumulativeSizes[requests - 1];
+  }
+
+  /**
+   * Same as {@link #rateLimitAll(TokenBucketRateLimiter[], int[])}, except that {@code
+   * checkedCosts[i]} of the permits taken from {@code rateLimiters[i]} have to be available within
+   * the timeout.
+   */
+  private static int rateLimitAll(
+      TokenBucketRateLimiter[] rateLimiters, int[] costs, int[] checkedCosts) {
+    long[] reservations = new long[rateLimiters.length];
+    long maxWaitNanos = 0;
+    for (int i = 0; i < rateLimiters.length; i++) {
+      if (costs[i] <= 0) {
+        reservations[i] = DENIED;
+        continue;
+      }
+      reservations[i] =
+          rateLimiters[i].reserve(costs[i], checkedCosts[i], rateLimiters[i].ticker.read());
+      if (reservations[i] == DENIED) {
+        for (int j = 0; j < i; j++) {
+          if (reservations[j] != DENIED) {
+            rateLimiters[j].refund(reservations[j], costs[j]);
+          }
+        }
+        return i;
+      }
+      maxWaitNanos = Math.max(maxWaitNanos, waitNanos(reservations[i]));
+    }
+    sleep(maxWaitNanos);
+    return -1;
+  }
+
+  /**
+   * Returns how many permits the stripe with the most of them has available within the timeout, or
+   * {@code -1} if every stripe is in debt for longer than the timeout.
+   */
+  private long availablePermits(long now) {
+    long availableNanos = -1;
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      long start = Math.max(buckets.get(stripe * STRIDE), now - MAX_BURST_NANOS);
+      availableNanos = Math.max(availableNanos, timeoutNanos - (start - now));
+    }
+    return availableNanos < 0 ? -1 : (long) (availableNanos / nanosPerPermit);
+  }
+
+  /**
+   * Takes {@code cost} permits from the first stripe that can serve them within the timeout. The
+   * stripe only has to have {@code checkedCost} of them, the rest may run into debt.
+   *
+   * @return the reservation, encoding both the stripe and how long to wait for it, or {@link
+   *     #DENIED} if no stripe can serve the request
+   */
+  private long reserve(int cost, int checkedCost, long now) {
+    long costNanos = costNanos(cost);
+    long checkedNanos = costNanos(checkedCost);
+    int first = stripes == 1 ? 0 : ThreadLocalRandom.current().nextInt(stripes);
+    for (int i = 0; i < stripes; i++) {
+      int stripe = first + i < stripes ? first + i : first + i - stripes;
+      long reservation = tryReserve(stripe, costNanos, checkedNanos, now);
+      if (reservation != DENIED) {
+        return reservation;
+      }
+    }
+    return DENIED;
+  }
+
+  private long tryReserve(int stripe, long costNanos, long checkedNanos, long now) {
+    int index = stripe * STRIDE;
+    while (true) {
+      long refilledAt = buckets.get(index);
+      long start = Math.max(refilledAt, now - MAX_BURST_NANOS);
+      long waitNanos = Math.max(start + checkedNanos - now, 0);
+      if (waitNanos > timeoutNanos) {
+        return DENIED;
+      }
+      if (buckets.compareAndSet(index, refilledAt, start + costNanos)) {
+        return waitNanos << STRIPE_BITS | stripe;
+      }
+    }
+  }
+
+  private void refund(long reservation, int cost) {
+    buckets.getAndAdd((int) (reservation & (MAX_STRIPES - 1)) * STRIDE, -costNanos(cost));
+  }
+
+  private long costNanos(int cost) {
+    return (long) Math.min(cost * nanosPerPermit, MAX_COST_NANOS);
+  }
+
+  private static long waitNanos(long reservation) {
+    return reservation >>> STRIPE_BITS;
+  }
+
+  private static void sleep(long nanos) {
+    if (nanos > 0) {
+      Uninterruptibles.sleepUninterruptibly(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
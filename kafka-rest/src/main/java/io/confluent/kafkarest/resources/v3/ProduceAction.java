@@ -36,12 +36,17 @@ import io.confluent.kafkarest.entities.v3.ProduceResponse.ProduceResponseData;
 import io.confluent.kafkarest.exceptions.BadRequestException;
 import io.confluent.kafkarest.exceptions.StacklessCompletionException;
 import io.confluent.kafkarest.extension.ResourceAccesslistFeature.ResourceName;
+import io.confluent.kafkarest.ratelimit.AdaptiveConcurrencyLimiter;
+import io.confluent.kafkarest.ratelimit.ConcurrencyLimitExceededException;
 import io.confluent.kafkarest.ratelimit.DoNotRateLimit;
 import io.confluent.kafkarest.ratelimit.RateLimitExceededException;
+import io.confluent.kafkarest.ratelimit.RateLimitExceededException.ErrorCodes;
 import io.confluent.kafkarest.requestlog.CustomLog.ProduceRecordErrorCounter;
 import io.confluent.kafkarest.requestlog.CustomLogRequestAttributes;
+import io.confluent.kafkarest.resources.v3.ProducerMetrics.Stage;
 import io.confluent.kafkarest.resources.v3.V3ResourcesModule.ProduceResponseThreadPool;
 import io.confluent.kafkarest.response.JsonStream;
+import io.confluent.kafkarest.response.StreamingResponse.InFlightWindowListener;
 import io.confluent.kafkarest.response.StreamingResponseFactory;
 import io.confluent.rest.annotations.PerformanceMetric;
 import jakarta.inject.Inject;
@@ -88,6 +93,7 @@ public final class ProduceAction {
   private final Provider<ProducerMetrics> producerMetricsProvider;
   private final StreamingResponseFactory streamingResponseFactory;
   private final ProduceRateLimiters produceRateLimiters;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
   private final ExecutorService executorService;
 
   @Context private HttpServletRequest httpServletRequest;
@@ -100,6 +106,7 @@ public final class ProduceAction {
       Provider<ProducerMetrics> producerMetrics,
       StreamingResponseFactory streamingResponseFactory,
       ProduceRateLimiters produceRateLimiters,
+      AdaptiveConcurrencyLimiter concurrencyLimiter,
       @ProduceResponseThreadPool ExecutorService executorService) {
     this(
         schemaManagerProvider,
@@ -108,6 +115,7 @@ public final class ProduceAction {
         producerMetrics,
         streamingResponseFactory,
         produceRateLimiters,
+        concurrencyLimiter,
         executorService,
         null);
   }
@@ -121,6 +129,7 @@ public final class ProduceAction {
       Provider<ProducerMetrics> producerMetrics,
       StreamingResponseFactory streamingResponseFactory,
       ProduceRateLimiters produceRateLimiters,
+      AdaptiveConcurrencyLimiter concurrencyLimiter,
       @ProduceResponseThreadPool ExecutorService executorService,
       HttpServletRequest httpServletRequest) {
     this.schemaManagerProvider = requireNonNull(schemaManagerProvider);
@@ -129,6 +138,7 @@ public final class ProduceAction {
     this.producerMetricsProvider = requireNonNull(producerMetrics);
     this.streamingResponseFactory = requireNonNull(streamingResponseFactory);
     this.produceRateLimiters = requireNonNull(produceRateLimiters);
+    this.concurrencyLimiter = requireNonNull(concurrencyLimiter);
     this.executorService = requireNonNull(executorService);
     this.httpServletRequest = httpServletRequest;
   }
@@ -152,12 +162,25 @@ public final class ProduceAction {
     ProduceRecordErrorCounter produceRecordErrorCounter = new ProduceRecordErrorCounter();
 
     ProduceController controller = produceControllerProvider.get();
+    // Streaming clients usually send the same schema selector on every record of a connection.
+    ResolvedSchemaMemo keySchemaMemo = new ResolvedSchemaMemo();
+    ResolvedSchemaMemo valueSchemaMemo = new ResolvedSchemaMemo();
     streamingResponseFactory
         .from(requests)
         .compose(
             request ->
-                produce(clusterId, topicName, request, controller, producerMetricsProvider.get()))
-        .resume(asyncResponse, produceRecordErrorCounter);
+                produce(
+                    clusterId,
+                    topicName,
+                    request,
+                    controller,
+                    producerMetricsProvider.get(),
+                    keySchemaMemo,
+                    valueSchemaMemo))
+        .resume(
+            asyncResponse,
+            produceRecordErrorCounter,
+            new ProducerMetricsInFlightWindowListener(producerMetricsProvider.get()));
 
     httpServletRequest.setAttribute(
         CustomLogRequestAttributes.REST_PRODUCE_RECORD_ERROR_CODE_COUNTS,
@@ -169,7 +192,9 @@ public final class ProduceAction {
       String topicName,
       ProduceRequest request,
       ProduceController controller,
-      ProducerMetrics metrics) {
+      ProducerMetrics metrics,
+      ResolvedSchemaMemo keySchemaMemo,
+      ResolvedSchemaMemo valueSchemaMemo) {
     final long requestStartNs = System.nanoTime();
 
     try {
@@ -179,6 +204,7 @@ public final class ProduceAction {
       // KREST-4356 Use our own CompletionException that will avoid the costly stack trace fill.
       throw new StacklessCompletionException(e);
     }
+    long stageStartNs = recordStageLatency(metrics, Stage.RATE_LIMIT, requestStartNs);
 
     // Request metrics are recorded before we check the validity of the message body, but after
     // rate limiting, as these metrics are used for billing.
@@ -194,36 +220,62 @@ public final class ProduceAction {
             });
 
     Optional<RegisteredSchema> keySchema =
-        request.getKey().flatMap(key -> getSchema(topicName, /* isKey= */ true, key));
+        request
+            .getKey()
+            .flatMap(key -> getSchema(topicName, /* isKey= */ true, key, keySchemaMemo));
     Optional<EmbeddedFormat> keyFormat =
         keySchema
             .map(schema -> Optional.of(schema.getFormat()))
             .orElse(request.getKey().flatMap(ProduceRequestData::getFormat));
-    Optional<ByteString> serializedKey =
-        serialize(topicName, keyFormat, keySchema, request.getKey(), /* isKey= */ true);
 
     Optional<RegisteredSchema> valueSchema =
-        request.getValue().flatMap(value -> getSchema(topicName, /* isKey= */ false, value));
+        request
+            .getValue()
+            .flatMap(value -> getSchema(topicName, /* isKey= */ false, value, valueSchemaMemo));
     Optional<EmbeddedFormat> valueFormat =
         valueSchema
             .map(schema -> Optional.of(schema.getFormat()))
             .orElse(request.getValue().flatMap(ProduceRequestData::getFormat));
+    if (keySchema.isPresent() || valueSchema.isPresent()) {
+      stageStartNs = recordStageLatency(metrics, Stage.SCHEMA_RESOLUTION, stageStartNs);
+    } else {
+      stageStartNs = System.nanoTime();
+    }
+
+    Optional<ByteString> serializedKey =
+        serialize(
+            topicName, keyFormat, keySchema, request.getKey(), /* isKey= */ true, metrics);
     Optional<ByteString> serializedValue =
-        serialize(topicName, valueFormat, valueSchema, request.getValue(), /* isKey= */ false);
-
-    CompletableFuture<ProduceResult> produceResult =
-        controller.produce(
-            clusterId,
-            topicName,
-            request.getPartitionId(),
-            request.getHeaders().stream().collect(PRODUCE_REQUEST_HEADER_COLLECTOR),
-            serializedKey,
-            serializedValue,
-            request.getTimestamp().orElse(Instant.now()));
+        serialize(
+            topicName, valueFormat, valueSchema, request.getValue(), /* isKey= */ false, metrics);
+    stageStartNs = recordStageLatency(metrics, Stage.SERIALIZATION, stageStartNs);
+
+    CompletableFuture<ProduceResult> produceResult;
+    try {
+      produceResult =
+          concurrencyLimiter.limit(
+              () ->
+                  controller.produce(
+                      clusterId,
+                      topicName,
+                      request.getPartitionId(),
+                      request.getHeaders().stream().collect(PRODUCE_REQUEST_HEADER_COLLECTOR),
+                      serializedKey,
+                      serializedValue,
+                      request.getTimestamp().orElse(Instant.now())));
+    } catch (ConcurrencyLimitExceededException e) {
+      recordRateLimitedMetrics(metrics);
+      httpServletRequest.setAttribute(
+          CustomLogRequestAttributes.REST_ERROR_CODE,
+          ErrorCodes.PRODUCE_CONCURRENCY_LIMIT_EXCEEDED);
+      throw new StacklessCompletionException(e);
+    }
+    final long enqueuedNs = recordStageLatency(metrics, Stage.PRODUCER_ENQUEUE, stageStartNs);
 
     return produceResult
         .handleAsync(
             (result, error) -> {
+              recordStageLatency(metrics, Stage.BROKER_ACK, enqueuedNs);
               if (error != null) {
                 long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStartNs);
                 recordErrorMetrics(metrics, latency);
@@ -245,24 +297,28 @@ public final class ProduceAction {
   }
 
   private Optional<RegisteredSchema> getSchema(
-      String topicName, boolean isKey, ProduceRequestData data) {
+      String topicName, boolean isKey, ProduceRequestData data, ResolvedSchemaMemo memo) {
     if (data.getFormat().isPresent() && !data.getFormat().get().requiresSchema()) {
       return Optional.empty();
     }
 
+    return Optional.of(memo.resolve(data, () -> resolveSchema(topicName, isKey, data)));
+  }
+
+  private RegisteredSchema resolveSchema(
+      String topicName, boolean isKey, ProduceRequestData data) {
     try {
-      return Optional.of(
-          schemaManagerProvider
-              .get()
-              .getSchema(
-                  topicName,
-                  data.getFormat(),
-                  data.getSubject(),
-                  data.getSubjectNameStrategy().map(Function.identity()),
-                  data.getSchemaId(),
-                  data.getSchemaVersion(),
-                  data.getRawSchema(),
-                  isKey));
+      return schemaManagerProvider
+          .get()
+          .getSchema(
+              topicName,
+              data.getFormat(),
+              data.getSubject(),
+              data.getSubjectNameStrategy().map(Function.identity()),
+              data.getSchemaId(),
+              data.getSchemaVersion(),
+              data.getRawSchema(),
+              isKey);
     } catch (SerializationException se) {
       throw Errors.messageSerializationException(se.getMessage());
     } catch (IllegalArgumentException iae) {
@@ -275,15 +331,24 @@ public final class ProduceAction {
       Optional<EmbeddedFormat> format,
       Optional<RegisteredSchema> schema,
       Optional<ProduceRequestData> data,
-      boolean isKey) {
-    return recordSerializerProvider
-        .get()
-        .serialize(
-            format.orElse(EmbeddedFormat.BINARY),
-            topicName,
-            schema,
-            data.map(ProduceRequestData::getData).orElse(NullNode.getInstance()),
-            isKey);
+      boolean isKey,
+      ProducerMetrics metrics) {
+    long startNs = System.nanoTime();
+    Optional<ByteString> serialized =
+        recordSerializerProvider
+            .get()
+            .serialize(
+                format.orElse(EmbeddedFormat.BINARY),
+                topicName,
+                schema,
+                data.map(ProduceRequestData::getData).orElse(NullNode.getInstance()),
+                isKey);
+    if (schema.isPresent()) {
+      metrics.recordSerializationLatency(
+          schema.get().getFormat(),
+          TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNs));
+    }
+    return serialized;
   }
 
   private static ProduceResponse toProduceResponse(
@@ -343,4 +408,41 @@ public final class ProduceAction {
     // record request size
     metrics.recordRequestSize(size);
   }
+
+  /** Records the time since {@code startNs} as the latency of {@code stage}, and returns now. */
+  private static long recordStageLatency(ProducerMetrics metrics, Stage stage, long startNs) {
+    long nowNs = System.nanoTime();
+    metrics.recordStageLatency(stage, TimeUnit.NANOSECONDS.toMicros(nowNs - startNs));
+    return nowNs;
+  }
+
+  private static final class ProducerMetricsInFlightWindowListener
+      implements InFlightWindowListener {
+
+    private final ProducerMetrics metrics;
+
+    private ProducerMetricsInFlightWindowListener(ProducerMetrics metrics) {
+      this.metrics = requireNonNull(metrics);
+    }
+
+    @Override
+    public void onRecordAdmitted(int inFlightRecords) {
+      metrics.recordStreamingInFlight(inFlightRecords);
+    }
+
+    @Override
+    public void onWindowFull() {
+      metrics.recordStreamingWindowFull();
+    }
+
+    @Override
+    public void onRecordRead(long readNanos) {
+      metrics.recordStageLatency(Stage.JSON_PARSE, TimeUnit.NANOSECONDS.toMicros(readNanos));
+    }
+
+    @Override
+    public void onResponseWritten(long writeNanos) {
+      metrics.recordStageLatency(Stage.RESPONSE_WRITE, TimeUnit.NANOSECONDS.toMicros(writeNanos));
+    }
+  }
 }
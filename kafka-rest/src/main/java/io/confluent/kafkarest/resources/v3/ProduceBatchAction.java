@@ -40,8 +40,13 @@ import io.confluent.kafkarest.exceptions.BadRequestException;
 import io.confluent.kafkarest.exceptions.StacklessCompletionException;
 import io.confluent.kafkarest.exceptions.v3.ErrorResponse;
 import io.confluent.kafkarest.extension.ResourceAccesslistFeature.ResourceName;
+import io.confluent.kafkarest.ratelimit.AdaptiveConcurrencyLimiter;
+import io.confluent.kafkarest.ratelimit.ConcurrencyLimitExceededException;
 import io.confluent.kafkarest.ratelimit.DoNotRateLimit;
 import io.confluent.kafkarest.ratelimit.RateLimitExceededException;
+import io.confluent.kafkarest.ratelimit.RateLimitExceededException.ErrorCodes;
+import io.confluent.kafkarest.requestlog.CustomLogRequestAttributes;
+import io.confluent.kafkarest.resources.v3.ProducerMetrics.Stage;
 import io.confluent.kafkarest.resources.v3.V3ResourcesModule.ProduceResponseThreadPool;
 import io.confluent.kafkarest.response.StreamingResponse;
 import io.confluent.rest.annotations.PerformanceMetric;
@@ -99,6 +104,7 @@ public final class ProduceBatchAction {
   private final Provider<ProduceController> produceControllerProvider;
   private final Provider<ProducerMetrics> producerMetricsProvider;
   private final ProduceRateLimiters produceRateLimiters;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
   private final int produceBatchMaximumEntries;
   private final ExecutorService executorService;
 
@@ -111,6 +117,7 @@ public final class ProduceBatchAction {
       Provider<ProduceController> produceControllerProvider,
       Provider<ProducerMetrics> producerMetrics,
       ProduceRateLimiters produceRateLimiters,
+      AdaptiveConcurrencyLimiter concurrencyLimiter,
       @ProduceBatchMaximumEntriesConfig Integer produceBatchMaximumEntries,
       @ProduceResponseThreadPool ExecutorService executorService) {
     this.schemaManagerProvider = requireNonNull(schemaManagerProvider);
@@ -118,6 +125,7 @@ public final class ProduceBatchAction {
     this.produceControllerProvider = requireNonNull(produceControllerProvider);
     this.producerMetricsProvider = requireNonNull(producerMetrics);
     this.produceRateLimiters = requireNonNull(produceRateLimiters);
+    this.concurrencyLimiter = requireNonNull(concurrencyLimiter);
     this.produceBatchMaximumEntries = requireNonNull(produceBatchMaximumEntries);
     this.executorService = requireNonNull(executorService);
   }
@@ -166,9 +174,23 @@ public final class ProduceBatchAction {
     List<CompletableFuture<ProduceBatchResponseSuccessEntry>> responseFutures =
         new ArrayList<>(batchSize);
 
-    for (ProduceBatchRequestEntry e : request.getEntries()) {
+    long[] requestSizes = new long[batchSize];
+    for (int i = 0; i < batchSize; i++) {
+      requestSizes[i] = request.getEntries().get(i).getOriginalSize();
+    }
+    long rateLimitStartNs = System.nanoTime();
+    int admitted = produceRateLimiters.rateLimit(clusterId, requestSizes, httpServletRequest);
+    recordStageLatency(producerMetricsProvider.get(), Stage.RATE_LIMIT, rateLimitStartNs);
+
+    for (int i = 0; i < batchSize; i++) {
       responseFutures.add(
-          produce(clusterId, topicName, e, controller, producerMetricsProvider.get()));
+          produce(
+              clusterId,
+              topicName,
+              request.getEntries().get(i),
+              /* rateLimited= */ i >= admitted,
+              controller,
+              producerMetricsProvider.get()));
     }
     CompletableFuture.allOf(responseFutures.toArray(new CompletableFuture[0]))
         .whenCompleteAsync(
@@ -202,19 +224,20 @@ public final class ProduceBatchAction {
       String clusterId,
       String topicName,
       ProduceBatchRequestEntry request,
+      boolean rateLimited,
       ProduceController controller,
       ProducerMetrics metrics) {
     final long requestStartNs = System.nanoTime();
 
     try {
-      try {
-        produceRateLimiters.rateLimit(clusterId, request.getOriginalSize(), httpServletRequest);
-      } catch (RateLimitExceededException e) {
+      if (rateLimited) {
         recordRateLimitedMetrics(metrics);
         // KREST-4356 Use our own CompletionException that will avoid the costly stack trace fill.
-        throw new StacklessCompletionException(e);
+        throw new StacklessCompletionException(new RateLimitExceededException());
       }
 
+      long stageStartNs = System.nanoTime();
+
       // Request metrics are recorded before we check the validity of the message body, but after
       // rate limiting, as these metrics are used for billing.
       recordRequestMetrics(metrics, request.getOriginalSize());
@@ -234,8 +257,6 @@ public final class ProduceBatchAction {
           keySchema
               .map(schema -> Optional.of(schema.getFormat()))
               .orElse(request.getKey().flatMap(ProduceRequestData::getFormat));
-      Optional<ByteString> serializedKey =
-          serialize(topicName, keyFormat, keySchema, request.getKey(), /* isKey= */ true);
 
       Optional<RegisteredSchema> valueSchema =
           request.getValue().flatMap(value -> getSchema(topicName, /* isKey= */ false, value));
@@ -243,22 +264,46 @@ public final class ProduceBatchAction {
           valueSchema
               .map(schema -> Optional.of(schema.getFormat()))
               .orElse(request.getValue().flatMap(ProduceRequestData::getFormat));
+      if (keySchema.isPresent() || valueSchema.isPresent()) {
+        stageStartNs = recordStageLatency(metrics, Stage.SCHEMA_RESOLUTION, stageStartNs);
+      } else {
+        stageStartNs = System.nanoTime();
+      }
+
+      Optional<ByteString> serializedKey =
+          serialize(
+              topicName, keyFormat, keySchema, request.getKey(), /* isKey= */ true, metrics);
       Optional<ByteString> serializedValue =
-          serialize(topicName, valueFormat, valueSchema, request.getValue(), /* isKey= */ false);
+          serialize(
+              topicName, valueFormat, valueSchema, request.getValue(), /* isKey= */ false, metrics);
+      stageStartNs = recordStageLatency(metrics, Stage.SERIALIZATION, stageStartNs);
 
-      CompletableFuture<ProduceResult> produceResult =
-          controller.produce(
-              clusterId,
-              topicName,
-              request.getPartitionId(),
-              request.getHeaders().stream().collect(PRODUCE_REQUEST_HEADER_COLLECTOR),
-              serializedKey,
-              serializedValue,
-              request.getTimestamp().orElse(Instant.now()));
+      CompletableFuture<ProduceResult> produceResult;
+      try {
+        produceResult =
+            concurrencyLimiter.limit(
+                () ->
+                    controller.produce(
+                        clusterId,
+                        topicName,
+                        request.getPartitionId(),
+                        request.getHeaders().stream().collect(PRODUCE_REQUEST_HEADER_COLLECTOR),
+                        serializedKey,
+                        serializedValue,
+                        request.getTimestamp().orElse(Instant.now())));
+      } catch (ConcurrencyLimitExceededException e) {
+        recordRateLimitedMetrics(metrics);
+        httpServletRequest.setAttribute(
+            CustomLogRequestAttributes.REST_ERROR_CODE,
+            ErrorCodes.PRODUCE_CONCURRENCY_LIMIT_EXCEEDED);
+        throw new StacklessCompletionException(e);
+      }
+      final long enqueuedNs = recordStageLatency(metrics, Stage.PRODUCER_ENQUEUE, stageStartNs);
 
       return produceResult
           .handleAsync(
               (result, error) -> {
+                recordStageLatency(metrics, Stage.BROKER_ACK, enqueuedNs);
                 if (error != null) {
                   long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStartNs);
                   recordErrorMetrics(metrics, latency);
@@ -322,15 +367,24 @@ public final class ProduceBatchAction {
       Optional<EmbeddedFormat> format,
       Optional<RegisteredSchema> schema,
       Optional<ProduceRequestData> data,
-      boolean isKey) {
-    return recordSerializerProvider
-        .get()
-        .serialize(
-            format.orElse(EmbeddedFormat.BINARY),
-            topicName,
-            schema,
-            data.map(ProduceRequestData::getData).orElse(NullNode.getInstance()),
-            isKey);
+      boolean isKey,
+      ProducerMetrics metrics) {
+    long startNs = System.nanoTime();
+    Optional<ByteString> serialized =
+        recordSerializerProvider
+            .get()
+            .serialize(
+                format.orElse(EmbeddedFormat.BINARY),
+                topicName,
+                schema,
+                data.map(ProduceRequestData::getData).orElse(NullNode.getInstance()),
+                isKey);
+    if (schema.isPresent()) {
+      metrics.recordSerializationLatency(
+          schema.get().getFormat(),
+          TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNs));
+    }
+    return serialized;
   }
 
   private static ProduceBatchResponseSuccessEntry toResponseSuccessEntry(
@@ -406,4 +460,11 @@ public final class ProduceBatchAction {
     // record request size
     metrics.recordRequestSize(size);
   }
+
+  /** Records the time since {@code startNs} as the latency of {@code stage}, and returns now. */
+  private static long recordStageLatency(ProducerMetrics metrics, Stage stage, long startNs) {
+    long nowNs = System.nanoTime();
+    metrics.recordStageLatency(stage, TimeUnit.NANOSECONDS.toMicros(nowNs - startNs));
+    return nowNs;
+  }
 }
@@ -38,6 +38,20 @@ import java.time.Duration;
 
 public class ProduceRateLimiters {
 
+  // The error codes to log when the count, respectively bytes, rate-limit is exceeded.
+  private static final int[] GLOBAL_ERROR_CODES = {
+    ErrorCodes.PRODUCE_MAX_REQUESTS_GLOBAL_LIMIT_EXCEEDED,
+    ErrorCodes.PRODUCE_MAX_BYTES_GLOBAL_LIMIT_EXCEEDED
+  };
+  private static final int[] TENANT_ERROR_CODES = {
+    ErrorCodes.PRODUCE_MAX_REQUESTS_PER_TENANT_LIMIT_EXCEEDED,
+    ErrorCodes.PRODUCE_MAX_BYTES_PER_TENANT_LIMIT_EXCEEDED
+  };
+  // The error codes to log when a batch is cut by the global, respectively tenant, rate-limits.
+  private static final int[] BATCH_ERROR_CODES = {
+    GLOBAL_ERROR_CODES[0], GLOBAL_ERROR_CODES[1], TENANT_ERROR_CODES[0], TENANT_ERROR_CODES[1]
+  };
+
   private final boolean rateLimitingEnabled;
   private final LoadingCache<String, RequestRateLimiter> countCache;
   private final LoadingCache<String, RequestRateLimiter> bytesCache;
@@ -71,45 +85,73 @@ public class ProduceRateLimiters {
       return;
     }
 
-    // Apply global rate-limits
-    try {
-      // Global rate limit first to reduce CPU usage under load
-      // https://confluentinc.atlassian.net/browse/KREST-4979
-      countLimiterGlobal.get().rateLimit(1);
-    } catch (RateLimitExceededException ex) {
-      httpServletRequest.setAttribute(
-          CustomLogRequestAttributes.REST_ERROR_CODE,
-          ErrorCodes.PRODUCE_MAX_REQUESTS_GLOBAL_LIMIT_EXCEEDED);
-      throw ex;
+    // Apply global rate-limits first to reduce CPU usage under load, and only then look up the
+    // tenant specific ones. https://confluentinc.atlassian.net/browse/KREST-4979
+    int cost = toIntExact(requestSize);
+    int denied =
+        RequestRateLimiter.rateLimitAll(
+            new RequestRateLimiter[] {countLimiterGlobal.get(), bytesLimiterGlobal.get()},
+            new int[] {1, cost});
+    if (denied != -1) {
+      throw rateLimitExceeded(httpServletRequest, GLOBAL_ERROR_CODES[denied]);
     }
-    try {
-      bytesLimiterGlobal.get().rateLimit(toIntExact(requestSize));
-    } catch (RateLimitExceededException ex) {
-      httpServletRequest.setAttribute(
-          CustomLogRequestAttributes.REST_ERROR_CODE,
-          ErrorCodes.PRODUCE_MAX_BYTES_GLOBAL_LIMIT_EXCEEDED);
-      throw ex;
+
+    denied =
+        RequestRateLimiter.rateLimitAll(
+            new RequestRateLimiter[] {
+              countCache.getUnchecked(clusterId), bytesCache.getUnchecked(clusterId)
+            },
+            new int[] {1, cost});
+    if (denied != -1) {
+      throw rateLimitExceeded(httpServletRequest, TENANT_ERROR_CODES[denied]);
     }
+  }
 
-    // Apply tenant specific rate-limits
-    RequestRateLimiter countRateLimiter = countCache.getUnchecked(clusterId);
-    RequestRateLimiter byteRateLimiter = bytesCache.getUnchecked(clusterId);
-    try {
-      countRateLimiter.rateLimit(1);
-    } catch (RateLimitExceededException ex) {
-      httpServletRequest.setAttribute(
-          CustomLogRequestAttributes.REST_ERROR_CODE,
-          ErrorCodes.PRODUCE_MAX_REQUESTS_PER_TENANT_LIMIT_EXCEEDED);
-      throw ex;
+  /**
+   * Rate-limits a batch of produce requests against the same rate-limits as {@link
+   * #rateLimit(String, long, HttpServletRequest)}.
+   *
+   * <p>The longest prefix of the batch that the rate-limits allow goes through, see {@link
+   * RequestRateLimiter#rateLimitPrefix}. The requests past it have been rate-limited, and should
+   * fail with a {@link RateLimitExceededException}.
+   *
+   * @param requestSizes the size of each request in the batch, in order
+   * @return how many requests, from the start of the batch, went through
+   */
+  public int rateLimit(
+      String clusterId, long[] requestSizes, HttpServletRequest httpServletRequest) {
+    if (!rateLimitingEnabled || requestSizes.length == 0) {
+      return requestSizes.length;
     }
-    try {
-      byteRateLimiter.rateLimit(toIntExact(requestSize));
-    } catch (RateLimitExceededException ex) {
-      httpServletRequest.setAttribute(
-          CustomLogRequestAttributes.REST_ERROR_CODE,
-          ErrorCodes.PRODUCE_MAX_BYTES_PER_TENANT_LIMIT_EXCEEDED);
-      throw ex;
+
+    // cumulativeSizes[i] is the size of the first i + 1 requests.
+    long[] cumulativeSizes = new long[requestSizes.length];
+    long size = 0;
+    for (int i = 0; i < requestSizes.length; i++) {
+      size += requestSizes[i];
+      cumulativeSizes[i] = size;
     }
+
+    // Global and tenant rate-limits are taken together, so that neither is charged for the
+    // requests cut by the other.
+    return RequestRateLimiter.rateLimitPrefix(
+        new RequestRateLimiter[] {
+          countLimiterGlobal.get(),
+          bytesLimiterGlobal.get(),
+          countCache.getUnchecked(clusterId),
+          bytesCache.getUnchecked(clusterId)
+        },
+        cumulativeSizes,
+        requestSizes.length,
+        denied ->
+            httpServletRequest.setAttribute(
+                CustomLogRequestAttributes.REST_ERROR_CODE, BATCH_ERROR_CODES[denied]));
+  }
+
+  private static RateLimitExceededException rateLimitExceeded(
+      HttpServletRequest httpServletRequest, int errorCode) {
+    httpServletRequest.setAttribute(CustomLogRequestAttributes.REST_ERROR_CODE, errorCode);
+    return new RateLimitExceededException();
   }
 
   public void clear() {
@@ -19,14 +19,24 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.MetricNameTemplate;
+import org.apache.kafka.common.metrics.MetricConfig;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
@@ -38,11 +48,22 @@ import org.apache.kafka.common.metrics.stats.Rate;
 import org.apache.kafka.common.metrics.stats.WindowedCount;
 import org.apache.kafka.common.utils.Time;
 
+/**
+ * Metrics of the produce API.
+ *
+ * <p>The count and size metrics, recorded a few times for every record, are accumulated in {@link
+ * LongAdder}s, which do not contend between threads, and only folded into their sensors on {@link
+ * #flush()}, which is called periodically, every {@link #FLUSH_INTERVAL}, once {@link
+ * #startFlushing()} has been called. This avoids having every request thread synchronize on the
+ * same few sensors. The latency metrics need every sample to compute their averages and
+ * percentiles, so they are still recorded straight away.
+ */
 // CHECKSTYLE:OFF:ClassDataAbstractionCoupling
 final class ProducerMetrics {
 
   private static final String GROUP_NAME = "produce-api-metrics";
   public static final long EXPIRY_SECONDS = TimeUnit.HOURS.toSeconds(1);
+  static final Duration FLUSH_INTERVAL = Duration.ofSeconds(1);
 
   /*
    * Rate, Average and Percentile metrics use underlying SampledStat and are therefore over a window
@@ -55,6 +76,10 @@ final class ProducerMetrics {
   private static final String RECORD_ERROR_SENSOR_NAME = "record-error-sensor";
   private static final String RECORD_RATE_LIMITED_SENSOR_NAME = "record-rate-limited-sensor";
   private static final String REQUEST_LATENCY_SENSOR_NAME = "request-latency-sensor";
+  private static final String STREAMING_IN_FLIGHT_SENSOR_NAME = "streaming-in-flight-sensor";
+  private static final String STREAMING_WINDOW_FULL_SENSOR_NAME = "streaming-window-full-sensor";
+  private static final String SERIALIZATION_LATENCY_SENSOR_NAME_SUFFIX =
+      "-serialization-latency-sensor";
 
   // request
   static final String REQUEST_RATE_METRIC_NAME = "request-rate";
@@ -103,6 +128,78 @@ final class ProducerMetrics {
   static final String REQUEST_LATENCY_PCT_METRIC_PREFIX = "request-latency-";
   private static final String REQUEST_LATENCY_PCT_METRIC_DOC = "Request latency percentiles.";
 
+  // streaming in-flight window
+  static final String STREAMING_IN_FLIGHT_AVG_METRIC_NAME = "streaming-in-flight-records-avg";
+  private static final String STREAMING_IN_FLIGHT_AVG_METRIC_DOC =
+      "The average number of in-flight records of a streaming connection.";
+
+  static final String STREAMING_IN_FLIGHT_MAX_METRIC_NAME = "streaming-in-flight-records-max";
+  private static final String STREAMING_IN_FLIGHT_MAX_METRIC_DOC =
+      "The max number of in-flight records of a streaming connection.";
+
+  static final String STREAMING_WINDOW_FULL_RATE_METRIC_NAME = "streaming-window-full-rate";
+  private static final String STREAMING_WINDOW_FULL_RATE_METRIC_DOC =
+      "The average per-second number of times a streaming connection stopped reading because its "
+          + "in-flight window was full.";
+
+  static final String STREAMING_WINDOW_FULL_COUNT_WINDOWED_METRIC_NAME =
+      "streaming-window-full-count-windowed";
+  private static final String STREAMING_WINDOW_FULL_COUNT_WINDOWED_METRIC_DOC =
+      "The total number of times a streaming connection stopped reading because its in-flight "
+          + "window was full in the given window.";
+
+  // serialization latency, one set per schema format, e.g. avro-serialization-latency-avg
+  static final String SERIALIZATION_LATENCY_METRIC_PREFIX_SUFFIX = "-serialization-latency-";
+  private static final String SERIALIZATION_LATENCY_AVG_METRIC_DOC =
+      "The average time in microseconds to convert and serialize a %s key or value.";
+  private static final String SERIALIZATION_LATENCY_MAX_METRIC_DOC =
+      "The max time in microseconds to convert and serialize a %s key or value.";
+  private static final String SERIALIZATION_LATENCY_PCT_METRIC_DOC =
+      "Percentiles of the time in microseconds to convert and serialize a %s key or value.";
+  // Serialization latencies above this many microseconds are all counted in the last bucket.
+  private static final int SERIALIZATION_LATENCY_HISTOGRAM_MAX_US = 100_000;
+  private static final int SERIALIZATION_LATENCY_HISTOGRAM_SIZE_BYTES = 4 * 1000;
+
+  // stage latency, one set per stage of a produce request, e.g. broker-ack-latency-p99
+  static final String STAGE_LATENCY_METRIC_PREFIX_SUFFIX = "-latency-";
+  private static final String STAGE_LATENCY_SENSOR_NAME_SUFFIX = "-latency-sensor";
+  private static final String STAGE_LATENCY_AVG_METRIC_DOC =
+      "The average time in microseconds spent %s.";
+  private static final String STAGE_LATENCY_MAX_METRIC_DOC =
+      "The max time in microseconds spent %s.";
+  private static final String STAGE_LATENCY_PCT_METRIC_DOC =
+      "Percentiles of the time in microseconds spent %s.";
+  private static final int STAGE_LATENCY_HISTOGRAM_SIZE_BYTES = 4 * 1000;
+
+  /**
+   * The stages a produce request goes through, in order. Each stage gets its own latency metrics,
+   * in microseconds, so that a spike in the end-to-end request latency can be attributed.
+   */
+  enum Stage {
+    JSON_PARSE("json-parse", "parsing the JSON of a produce request", 100_000),
+    RATE_LIMIT("rate-limit", "checking the rate limits of a produce request", 1_000_000),
+    SCHEMA_RESOLUTION(
+        "schema-resolution", "resolving the schemas of a produce request", 10_000_000),
+    SERIALIZATION(
+        "serialization", "converting and serializing the key and value of a record", 100_000),
+    PRODUCER_ENQUEUE("producer-enqueue", "handing a record over to the Kafka producer", 1_000_000),
+    BROKER_ACK(
+        "broker-ack", "waiting for a record to be acknowledged by the Kafka brokers", 30_000_000),
+    RESPONSE_WRITE(
+        "response-write", "writing a chunk of produce responses to the connection", 1_000_000);
+
+    private final String metricName;
+    private final String description;
+    // Latencies above this many microseconds are all counted in the last bucket.
+    private final int histogramMaxUs;
+
+    Stage(String metricName, String description, int histogramMaxUs) {
+      this.metricName = metricName;
+      this.description = description;
+      this.histogramMaxUs = histogramMaxUs;
+    }
+  }
+
   private final Metrics metrics;
   private final String jmxPrefix;
   private final String requestSensorName;
@@ -111,6 +208,22 @@ final class ProducerMetrics {
   private final String recordErrorSensorName;
   private final String recordRateLimitedSensorName;
   private final String requestLatencySensorName;
+  private final String streamingInFlightSensorName;
+  private final String streamingWindowFullSensorName;
+  private final Map<EmbeddedFormat, String> serializationLatencySensorNames =
+      new EnumMap<>(EmbeddedFormat.class);
+  private final Map<Stage, String> stageLatencySensorNames = new EnumMap<>(Stage.class);
+
+  // Accumulated since the last flush().
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder requestBytes = new LongAdder();
+  private final LongAdder responses = new LongAdder();
+  private final LongAdder recordErrors = new LongAdder();
+  private final LongAdder recordsRateLimited = new LongAdder();
+  private final LongAdder streamingWindowFulls = new LongAdder();
+
+  // Calls flush() periodically, between startFlushing() and close().
+  private ScheduledExecutorService flushExecutor;
 
   // TODO: Delete once all usages have been removed.
   ProducerMetrics(KafkaRestConfig config, Time time, Map<String, String> metricsTags) {
@@ -135,6 +248,18 @@ final class ProducerMetrics {
     this.requestLatencySensorName = sensorNamePrefix + REQUEST_LATENCY_SENSOR_NAME + sensorTags;
     this.requestSizeSensorName = sensorNamePrefix + REQUEST_SIZE_SENSOR_NAME + sensorTags;
     this.responseSensorName = sensorNamePrefix + RESPONSE_SENSOR_NAME + sensorTags;
+    this.streamingInFlightSensorName =
+        sensorNamePrefix + STREAMING_IN_FLIGHT_SENSOR_NAME + sensorTags;
+    this.streamingWindowFullSensorName =
+        sensorNamePrefix + STREAMING_WINDOW_FULL_SENSOR_NAME + sensorTags;
+    for (EmbeddedFormat format : schemaFormats()) {
+      serializationLatencySensorNames.put(
+          format, sensorNamePrefix + serializationLatencySensorName(format) + sensorTags);
+    }
+    for (Stage stage : Stage.values()) {
+      stageLatencySensorNames.put(
+          stage, sensorNamePrefix + stageLatencySensorName(stage) + sensorTags);
+    }
 
     setupSensors(sortedMetricsTags, sensorTags);
   }
@@ -149,6 +274,20 @@ final class ProducerMetrics {
     setupRecordErrorSensor(metricsTags, sensorTags);
     setupRecordRateLimitedSensor(metricsTags, sensorTags);
     setupRequestLatencySensor(metricsTags, sensorTags);
+
+    // streaming metrics
+    setupStreamingInFlightSensor(metricsTags, sensorTags);
+    setupStreamingWindowFullSensor(metricsTags, sensorTags);
+
+    // serialization metrics
+    for (EmbeddedFormat format : schemaFormats()) {
+      setupSerializationLatencySensor(format, metricsTags, sensorTags);
+    }
+
+    // stage metrics
+    for (Stage stage : Stage.values()) {
+      setupStageLatencySensor(stage, metricsTags, sensorTags);
+    }
   }
 
   private void setupRequestSensor(Map<String, String> metricsTags, String sensorTags) {
@@ -244,6 +383,121 @@ final class ProducerMetrics {
         metricsTags);
   }
 
+  private void setupStreamingInFlightSensor(Map<String, String> metricsTags, String sensorTags) {
+    Sensor streamingInFlightSensor = createSensor(STREAMING_IN_FLIGHT_SENSOR_NAME, sensorTags);
+    addAvg(
+        streamingInFlightSensor,
+        STREAMING_IN_FLIGHT_AVG_METRIC_NAME,
+        STREAMING_IN_FLIGHT_AVG_METRIC_DOC,
+        metricsTags);
+    addMax(
+        streamingInFlightSensor,
+        STREAMING_IN_FLIGHT_MAX_METRIC_NAME,
+        STREAMING_IN_FLIGHT_MAX_METRIC_DOC,
+        metricsTags);
+  }
+
+  private void setupStreamingWindowFullSensor(Map<String, String> metricsTags, String sensorTags) {
+    Sensor streamingWindowFullSensor =
+        createSensor(STREAMING_WINDOW_FULL_SENSOR_NAME, sensorTags);
+    addRate(
+        streamingWindowFullSensor,
+        STREAMING_WINDOW_FULL_RATE_METRIC_NAME,
+        STREAMING_WINDOW_FULL_RATE_METRIC_DOC,
+        metricsTags);
+    addWindowedCount(
+        streamingWindowFullSensor,
+        STREAMING_WINDOW_FULL_COUNT_WINDOWED_METRIC_NAME,
+        STREAMING_WINDOW_FULL_COUNT_WINDOWED_METRIC_DOC,
+        metricsTags);
+  }
+
+  private void setupSerializationLatencySensor(
+      EmbeddedFormat format, Map<String, String> metricsTags, String sensorTags) {
+    Sensor serializationLatencySensor =
+        createSensor(serializationLatencySensorName(format), sensorTags);
+    String prefix = serializationLatencyMetricPrefix(format);
+    String formatName = format.name();
+    addAvg(
+        serializationLatencySensor,
+        prefix + "avg",
+        String.format(SERIALIZATION_LATENCY_AVG_METRIC_DOC, formatName),
+        metricsTags);
+    addMax(
+        serializationLatencySensor,
+        prefix + "max",
+        String.format(SERIALIZATION_LATENCY_MAX_METRIC_DOC, formatName),
+        metricsTags);
+    // Serialization takes well under a millisecond, so use a finer grained histogram than the
+    // request latency one, with more resolution at the low end.
+    addPercentiles(
+        serializationLatencySensor,
+        prefix,
+        ImmutableMap.of(
+            "p50", 0.5,
+            "p95", 0.95,
+            "p99", 0.99,
+            "p999", 0.999),
+        String.format(SERIALIZATION_LATENCY_PCT_METRIC_DOC, formatName),
+        metricsTags,
+        SERIALIZATION_LATENCY_HISTOGRAM_SIZE_BYTES,
+        SERIALIZATION_LATENCY_HISTOGRAM_MAX_US,
+        Percentiles.BucketSizing.LINEAR);
+  }
+
+  private void setupStageLatencySensor(
+      Stage stage, Map<String, String> metricsTags, String sensorTags) {
+    Sensor stageLatencySensor = createSensor(stageLatencySensorName(stage), sensorTags);
+    String prefix = stageLatencyMetricPrefix(stage);
+    addAvg(
+        stageLatencySensor,
+        prefix + "avg",
+        String.format(STAGE_LATENCY_AVG_METRIC_DOC, stage.description),
+        metricsTags);
+    addMax(
+        stageLatencySensor,
+        prefix + "max",
+        String.format(STAGE_LATENCY_MAX_METRIC_DOC, stage.description),
+        metricsTags);
+    // Linear bucket sizing gives microsecond resolution at the low end, where most samples are,
+    // while still covering the long tail up to the maximum of each stage.
+    addPercentiles(
+        stageLatencySensor,
+        prefix,
+        ImmutableMap.of(
+            "p50", 0.5,
+            "p95", 0.95,
+            "p99", 0.99,
+            "p999", 0.999),
+        String.format(STAGE_LATENCY_PCT_METRIC_DOC, stage.description),
+        metricsTags,
+        STAGE_LATENCY_HISTOGRAM_SIZE_BYTES,
+        stage.histogramMaxUs,
+        Percentiles.BucketSizing.LINEAR);
+  }
+
+  private static EmbeddedFormat[] schemaFormats() {
+    return Arrays.stream(EmbeddedFormat.values())
+        .filter(EmbeddedFormat::requiresSchema)
+        .toArray(EmbeddedFormat[]::new);
+  }
+
+  private static String serializationLatencySensorName(EmbeddedFormat format) {
+    return format.name().toLowerCase(Locale.ROOT) + SERIALIZATION_LATENCY_SENSOR_NAME_SUFFIX;
+  }
+
+  static String serializationLatencyMetricPrefix(EmbeddedFormat format) {
+    return format.name().toLowerCase(Locale.ROOT) + SERIALIZATION_LATENCY_METRIC_PREFIX_SUFFIX;
+  }
+
+  private static String stageLatencySensorName(Stage stage) {
+    return stage.metricName + STAGE_LATENCY_SENSOR_NAME_SUFFIX;
+  }
+
+  static String stageLatencyMetricPrefix(Stage stage) {
+    return stage.metricName + STAGE_LATENCY_METRIC_PREFIX_SUFFIX;
+  }
+
   private Sensor createSensor(String name, String sensorTags) {
     String fullSensorName = String.join(":", jmxPrefix, GROUP_NAME, name);
     fullSensorName = fullSensorName.concat(sensorTags);
@@ -264,7 +518,7 @@ final class ProducerMetrics {
 
   private void addWindowedCount(
       Sensor sensor, String name, String doc, Map<String, String> metricsTags) {
-    sensor.add(getMetricName(name, doc, metricsTags), new WindowedCount());
+    sensor.add(getMetricName(name, doc, metricsTags), new FoldedWindowedCount());
   }
 
   private void addPercentiles(
@@ -273,11 +527,31 @@ final class ProducerMetrics {
       Map<String, Double> percentiles,
       String doc,
       Map<String, String> metricsTags) {
+    addPercentiles(
+        sensor,
+        prefix,
+        percentiles,
+        doc,
+        metricsTags,
+        30 * 1000 * 4,
+        30 * 1000,
+        Percentiles.BucketSizing.CONSTANT);
+  }
+
+  private void addPercentiles(
+      Sensor sensor,
+      String prefix,
+      Map<String, Double> percentiles,
+      String doc,
+      Map<String, String> metricsTags,
+      int sizeInBytes,
+      double max,
+      Percentiles.BucketSizing bucketing) {
     sensor.add(
         new Percentiles(
-            30 * 1000 * 4,
-            30 * 1000,
-            Percentiles.BucketSizing.CONSTANT,
+            sizeInBytes,
+            max,
+            bucketing,
             percentiles.entrySet().stream()
                 .map(
                     entry ->
@@ -294,7 +568,7 @@ final class ProducerMetrics {
   }
 
   void recordResponse() {
-    recordMetric(responseSensorName, 1.0);
+    responses.increment();
   }
 
   void recordRequestLatency(long valueMs) {
@@ -302,19 +576,81 @@ final class ProducerMetrics {
   }
 
   void recordError() {
-    recordMetric(recordErrorSensorName, 1.0);
+    recordErrors.increment();
   }
 
   void recordRateLimited() {
-    recordMetric(recordRateLimitedSensorName, 1.0);
+    recordsRateLimited.increment();
   }
 
   void recordRequest() {
-    recordMetric(requestSensorName, 1.0);
+    requests.increment();
   }
 
-  void recordRequestSize(double value) {
-    recordMetric(requestSizeSensorName, value);
+  void recordRequestSize(long value) {
+    requestBytes.add(value);
+  }
+
+  void recordStreamingInFlight(int inFlightRecords) {
+    recordMetric(streamingInFlightSensorName, inFlightRecords);
+  }
+
+  void recordStreamingWindowFull() {
+    streamingWindowFulls.increment();
+  }
+
+  void recordSerializationLatency(EmbeddedFormat format, long latencyUs) {
+    String sensorName = serializationLatencySensorNames.get(format);
+    if (sensorName != null) {
+      recordMetric(sensorName, latencyUs);
+    }
+  }
+
+  void recordStageLatency(Stage stage, long latencyUs) {
+    recordMetric(stageLatencySensorNames.get(stage), latencyUs);
+  }
+
+  /** Starts calling {@link #flush()} every {@link #FLUSH_INTERVAL}, until {@link #close()}. */
+  synchronized void startFlushing() {
+    if (flushExecutor != null) {
+      return;
+    }
+    flushExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("Produce-metrics-flush-thread-%d")
+                .setDaemon(true)
+                .build());
+    long flushIntervalMs = FLUSH_INTERVAL.toMillis();
+    flushExecutor.scheduleAtFixedRate(
+        this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops the periodic flushes, and folds what has been recorded since the last one. */
+  synchronized void close() {
+    if (flushExecutor != null) {
+      flushExecutor.shutdownNow();
+      flushExecutor = null;
+    }
+    flush();
+  }
+
+  /** Folds the counts and sizes recorded since the last call into their sensors. */
+  void flush() {
+    foldMetric(requestSensorName, requests);
+    foldMetric(requestSizeSensorName, requestBytes);
+    foldMetric(responseSensorName, responses);
+    foldMetric(recordErrorSensorName, recordErrors);
+    foldMetric(recordRateLimitedSensorName, recordsRateLimited);
+    foldMetric(streamingWindowFullSensorName, streamingWindowFulls);
+  }
+
+  private void foldMetric(String sensorName, LongAdder accumulated) {
+    long value = accumulated.sumThenReset();
+    // Nothing recorded means nothing to fold, so that idle sensors can still expire.
+    if (value != 0) {
+      recordMetric(sensorName, value);
+    }
   }
 
   private void recordMetric(String sensorName, double value) {
@@ -323,5 +659,17 @@ final class ProducerMetrics {
       sensor.record(value);
     }
   }
+
+  /**
+   * A {@link WindowedCount} where each recording counts for {@code value} events instead of one,
+   * so that the events accumulated between two {@link #flush()}es can be recorded at once.
+   */
+  private static final class FoldedWindowedCount extends WindowedCount {
+
+    @Override
+    protected void update(Sample sample, MetricConfig config, double value, long now) {
+      sample.value += value;
+    }
+  }
   // CHECKSTYLE:ON:ClassDataAbstractionCoupling
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.resources.v3;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.RegisteredSchema;
+import io.confluent.kafkarest.entities.v3.ProduceRequest.EnumSubjectNameStrategy;
+import io.confluent.kafkarest.entities.v3.ProduceRequest.ProduceRequestData;
+import jakarta.annotation.Nullable;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the schema last resolved for the key (or the value) of the records of a single
+ * streaming connection, so that consecutive records with the same schema selector do not resolve
+ * it again.
+ *
+ * <p>Only selectors that pin a schema (by ID, version or raw schema) are remembered. Selectors for
+ * the latest version of a subject are resolved every time, so that a long-lived connection still
+ * picks up newly registered versions.
+ */
+final class ResolvedSchemaMemo {
+
+  @Nullable private volatile Entry last;
+
+  /**
+   * Returns the schema selected by {@code data}, calling {@code resolver} only if it is not the
+   * same selector as the one last resolved.
+   */
+  RegisteredSchema resolve(ProduceRequestData data, Supplier<RegisteredSchema> resolver) {
+    if (data.getSchemaId().isEmpty()
+        && data.getSchemaVersion().isEmpty()
+        && data.getRawSchema().isEmpty()) {
+      return resolver.get();
+    }
+    Entry current = last;
+    if (current != null && current.matches(data)) {
+      return current.schema;
+    }
+    RegisteredSchema schema = resolver.get();
+    last = new Entry(data, schema);
+    return schema;
+  }
+
+  private static final class Entry {
+
+    private final Optional<EmbeddedFormat> format;
+    private final Optional<String> subject;
+    private final Optional<EnumSubjectNameStrategy> subjectNameStrategy;
+    private final Optional<Integer> schemaId;
+    private final Optional<Integer> schemaVersion;
+    private final Optional<String> rawSchema;
+    private final RegisteredSchema schema;
+
+    private Entry(ProduceRequestData data, RegisteredSchema schema) {
+      this.format = data.getFormat();
+      this.subject = data.getSubject();
+      this.subjectNameStrategy = data.getSubjectNameStrategy();
+      this.schemaId = data.getSchemaId();
+      this.schemaVersion = data.getSchemaVersion();
+      this.rawSchema = data.getRawSchema();
+      this.schema = requireNonNull(schema);
+    }
+
+    private boolean matches(ProduceRequestData data) {
+      return schemaId.equals(data.getSchemaId())
+          && schemaVersion.equals(data.getSchemaVersion())
+          && format.equals(data.getFormat())
+          && subject.equals(data.getSubject())
+          && subjectNameStrategy.equals(data.getSubjectNameStrategy())
+          && rawSchema.equals(data.getRawSchema());
+    }
+  }
+}
@@ -21,8 +21,10 @@ import static java.util.Objects.requireNonNull;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.kafkarest.KafkaRestConfig;
 import io.confluent.kafkarest.config.ConfigModule.ProduceResponseThreadPoolSizeConfig;
+import io.confluent.kafkarest.ratelimit.AdaptiveConcurrencyLimiter;
 import io.confluent.kafkarest.response.ChunkedOutputFactory;
 import io.confluent.kafkarest.response.StreamingResponseFactory;
+import io.confluent.kafkarest.response.StreamingResponseFactory.ResponseLingerExecutor;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import jakarta.inject.Qualifier;
@@ -45,11 +47,13 @@ public final class V3ResourcesModule extends AbstractBinder {
   @Override
   protected void configure() {
     bindAsContract(ProduceRateLimiters.class).in(Singleton.class);
+    bindAsContract(AdaptiveConcurrencyLimiter.class).in(Singleton.class);
     bindAsContract(ChunkedOutputFactory.class);
     bindAsContract(StreamingResponseFactory.class);
     bind(Clock.systemUTC()).to(Clock.class);
     bindFactory(ProduceResponseExecutorServiceFactory.class)
         .qualifiedBy(new ProduceResponseThreadPoolImpl())
+        .qualifiedBy(new ResponseLingerExecutorImpl())
         .to(ExecutorService.class)
         .in(Singleton.class);
     bindFactory(ProducerMetricsFactory.class).to(ProducerMetrics.class).in(Singleton.class);
@@ -63,6 +67,9 @@ public final class V3ResourcesModule extends AbstractBinder {
   private static final class ProduceResponseThreadPoolImpl
       extends AnnotationLiteral<ProduceResponseThreadPool> implements ProduceResponseThreadPool {}
 
+  private static final class ResponseLingerExecutorImpl
+      extends AnnotationLiteral<ResponseLingerExecutor> implements ResponseLingerExecutor {}
+
   private static final class ProduceResponseExecutorServiceFactory
       implements Factory<ExecutorService> {
 
@@ -104,10 +111,14 @@ public final class V3ResourcesModule extends AbstractBinder {
 
     @Override
     public ProducerMetrics provide() {
-      return new ProducerMetrics(config.get(), emptyMap());
+      ProducerMetrics producerMetrics = new ProducerMetrics(config.get(), emptyMap());
+      producerMetrics.startFlushing();
+      return producerMetrics;
     }
 
     @Override
-    public void dispose(ProducerMetrics producerMetrics) {}
+    public void dispose(ProducerMetrics producerMetrics) {
+      producerMetrics.close();
+    }
   }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.response;
+
+import static java.util.Objects.requireNonNull;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafkarest.response.StreamingResponse.BatchHolder;
+import io.confluent.kafkarest.response.StreamingResponse.ResultOrError;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * A {@link MessageBodyWriter} for a batch of streaming responses.
+ *
+ * <p>Each response in the batch is written exactly as it would have been written on its own chunk,
+ * separated by the chunk separator, so a batch is indistinguishable on the wire from the same
+ * responses written one by one. The entity stream is not flushed between responses.
+ */
+@Produces(MediaType.APPLICATION_JSON)
+public final class ResultOrErrorBatchMessageBodyWriter implements MessageBodyWriter<BatchHolder> {
+  private final ObjectMapper objectMapper;
+
+  public ResultOrErrorBatchMessageBodyWriter(ObjectMapper objectMapper) {
+    this.objectMapper = requireNonNull(objectMapper);
+  }
+
+  @Override
+  public boolean isWriteable(
+      Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return BatchHolder.class.isAssignableFrom(type);
+  }
+
+  @Override
+  public void writeTo(
+      BatchHolder batch,
+      Class<?> type,
+      Type genericType,
+      Annotation[] annotations,
+      MediaType mediaType,
+      MultivaluedMap<String, Object> httpHeaders,
+      OutputStream entityStream)
+      throws IOException {
+    // The generator must neither close nor flush the entity stream: ChunkedOutput appends the last
+    // separator and flushes the whole chunk once we are done.
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(entityStream)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+      generator.setRootValueSeparator(new SerializedString(ChunkedOutputFactory.CHUNK_SEPARATOR));
+      for (ResultOrError result : batch.getResults()) {
+        objectMapper.writeValue(generator, result);
+      }
+    }
+  }
+}
@@ -26,6 +26,7 @@ import com.fasterxml.jackson.jakarta.rs.base.JsonParseExceptionMapper;
 import com.google.auto.value.AutoValue;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.confluent.kafkarest.common.CompletableFutures;
 import io.confluent.kafkarest.exceptions.BadRequestException;
 import io.confluent.kafkarest.exceptions.ProduceRequestTooLargeException;
@@ -48,11 +49,17 @@ import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import org.glassfish.jersey.server.ChunkedOutput;
 import org.slf4j.Logger;
@@ -68,12 +75,23 @@ import org.slf4j.LoggerFactory;
  *     .compose(request -> computeResponse(request))
  *     .resume(asyncResponse);
  * }</pre>
+ *
+ * <p>If {@code maxInFlightRecords} is positive, at most that many requests are allowed to be
+ * waiting for their response at any given time. Once the limit is reached, no more requests are
+ * read from the input stream until one of the outstanding responses completes.
+ *
+ * <p>If {@code responseBatchMaxRecords} is greater than one, responses that are ready to be written
+ * at the same time are coalesced into a single chunk write of up to that many responses. If {@code
+ * responseLinger} is positive, a partial batch is held back for up to that long while there are
+ * outstanding responses that could join it. It is then written from {@code lingerExecutor}, as the
+ * write may block on the connection.
  */
 // CHECKSTYLE:OFF:ClassDataAbstractionCoupling
 public abstract class StreamingResponse<T> {
 
   private static final Logger log = LoggerFactory.getLogger(StreamingResponse.class);
   private static final int ONE_SECOND_MS = 1000;
+  private static final long IN_FLIGHT_WINDOW_POLL_MS = 100;
 
   private static final CompositeErrorMapper EXCEPTION_MAPPER =
       new CompositeErrorMapper.Builder()
@@ -111,6 +129,10 @@ public abstract class StreamingResponse<T> {
   private final ChunkedOutputFactory chunkedOutputFactory;
   private final Duration maxDuration;
   private final Duration gracePeriod;
+  private final int maxInFlightRecords;
+  private final int responseBatchMaxRecords;
+  private final Duration responseLinger;
+  private final Executor lingerExecutor;
   private final Instant streamStartTime;
   private final Clock clock;
 
@@ -120,12 +142,20 @@ public abstract class StreamingResponse<T> {
       ChunkedOutputFactory chunkedOutputFactory,
       Duration maxDuration,
       Duration gracePeriod,
+      int maxInFlightRecords,
+      int responseBatchMaxRecords,
+      Duration responseLinger,
+      Executor lingerExecutor,
       Clock clock) {
     this.clock = clock;
     this.streamStartTime = clock.instant();
     this.chunkedOutputFactory = requireNonNull(chunkedOutputFactory);
     this.maxDuration = maxDuration;
     this.gracePeriod = gracePeriod;
+    this.maxInFlightRecords = maxInFlightRecords;
+    this.responseBatchMaxRecords = responseBatchMaxRecords;
+    this.responseLinger = requireNonNull(responseLinger);
+    this.lingerExecutor = requireNonNull(lingerExecutor);
   }
 
   public static <T> StreamingResponse<T> from(
@@ -133,8 +163,46 @@ public abstract class StreamingResponse<T> {
       ChunkedOutputFactory chunkedOutputFactory,
       Duration maxDuration,
       Duration gracePeriod) {
+    return from(
+        inputStream, chunkedOutputFactory, maxDuration, gracePeriod, /* maxInFlightRecords= */ 0);
+  }
+
+  public static <T> StreamingResponse<T> from(
+      JsonStream<T> inputStream,
+      ChunkedOutputFactory chunkedOutputFactory,
+      Duration maxDuration,
+      Duration gracePeriod,
+      int maxInFlightRecords) {
+    return from(
+        inputStream,
+        chunkedOutputFactory,
+        maxDuration,
+        gracePeriod,
+        maxInFlightRecords,
+        /* responseBatchMaxRecords= */ 0,
+        Duration.ZERO,
+        MoreExecutors.directExecutor());
+  }
+
+  public static <T> StreamingResponse<T> from(
+      JsonStream<T> inputStream,
+      ChunkedOutputFactory chunkedOutputFactory,
+      Duration maxDuration,
+      Duration gracePeriod,
+      int maxInFlightRecords,
+      int responseBatchMaxRecords,
+      Duration responseLinger,
+      Executor lingerExecutor) {
     return new InputStreamingResponse<>(
-        inputStream, chunkedOutputFactory, maxDuration, gracePeriod, Clock.systemUTC());
+        inputStream,
+        chunkedOutputFactory,
+        maxDuration,
+        gracePeriod,
+        maxInFlightRecords,
+        responseBatchMaxRecords,
+        responseLinger,
+        lingerExecutor,
+        Clock.systemUTC());
   }
 
   @VisibleForTesting
@@ -145,13 +213,29 @@ public abstract class StreamingResponse<T> {
       Duration gracePeriod,
       Clock clock) {
     return new InputStreamingResponse<>(
-        inputStream, chunkedOutputFactory, maxDuration, gracePeriod, clock);
+        inputStream,
+        chunkedOutputFactory,
+        maxDuration,
+        gracePeriod,
+        /* maxInFlightRecords= */ 0,
+        /* responseBatchMaxRecords= */ 0,
+        Duration.ZERO,
+        MoreExecutors.directExecutor(),
+        clock);
   }
 
   public final <O> StreamingResponse<O> compose(
       Function<? super T, ? extends CompletableFuture<O>> transform) {
     return new ComposingStreamingResponse<>(
-        this, transform, chunkedOutputFactory, maxDuration, gracePeriod);
+        this,
+        transform,
+        chunkedOutputFactory,
+        maxDuration,
+        gracePeriod,
+        maxInFlightRecords,
+        responseBatchMaxRecords,
+        responseLinger,
+        lingerExecutor);
   }
 
   /**
@@ -162,14 +246,34 @@ public abstract class StreamingResponse<T> {
    */
   public final void resume(
       AsyncResponse asyncResponse, ProduceRecordErrorCounter produceRecordErrorCounter) {
+    resume(asyncResponse, produceRecordErrorCounter, InFlightWindowListener.NO_OP);
+  }
+
+  /**
+   * Same as {@link #resume(AsyncResponse, ProduceRecordErrorCounter)}, additionally reporting the
+   * occupancy of the in-flight window to {@code inFlightWindowListener}.
+   */
+  public final void resume(
+      AsyncResponse asyncResponse,
+      ProduceRecordErrorCounter produceRecordErrorCounter,
+      InFlightWindowListener inFlightWindowListener) {
     log.debug("Resuming StreamingResponse");
-    AsyncResponseQueue responseQueue = new AsyncResponseQueue(chunkedOutputFactory);
+    AsyncResponseQueue responseQueue =
+        new AsyncResponseQueue(
+            chunkedOutputFactory,
+            responseBatchMaxRecords,
+            responseLinger,
+            lingerExecutor,
+            inFlightWindowListener);
     responseQueue.asyncResume(asyncResponse);
+    InFlightWindow inFlightWindow = new InFlightWindow(maxInFlightRecords, inFlightWindowListener);
     ScheduledExecutorService executorService = null;
 
     try {
-      // hasNext() needs to be last here. It hangs if there is nothing on the mappingIterator
-      while (!closingStarted && hasNext()) {
+      // hasNext() needs to be last here. It hangs if there is nothing on the mappingIterator.
+      // The in-flight window is acquired before hasNext() so that we stop reading from the
+      // request stream while the window is full.
+      while (!closingStarted && inFlightWindow.acquire(() -> closingStarted) && hasNext()) {
         // need to recheck closingStarted because hasNext can take time to respond
         if (!closingStarted
             && Duration.between(streamStartTime, clock.instant()).compareTo(maxDuration) > 0) {
@@ -179,6 +283,7 @@ public abstract class StreamingResponse<T> {
                 () -> closeAll(responseQueue), gracePeriod.toMillis(), TimeUnit.MILLISECONDS);
           }
           next();
+          inFlightWindow.release();
           responseQueue.push(
               CompletableFuture.completedFuture(
                   ResultOrError.error(
@@ -188,12 +293,15 @@ public abstract class StreamingResponse<T> {
                               "Streaming connection open for longer than allowed",
                               "Connection will be closed.")))));
         } else if (!closingStarted) {
+          CompletableFuture<T> next = next();
+          inFlightWindowListener.onRecordRead(lastReadNanos());
           responseQueue.push(
-              next()
-                  .handle(
+              next.handle(
                       (result, exception) ->
-                          handleNext(result, exception, produceRecordErrorCounter)));
+                          handleNext(result, exception, produceRecordErrorCounter)),
+              inFlightWindow::release);
         } else {
+          inFlightWindow.release();
           break;
         }
       }
@@ -243,23 +351,77 @@ public abstract class StreamingResponse<T> {
     return EXCEPTION_MAPPER.toErrorResponse(t);
   }
 
+  /**
+   * Receives updates on the occupancy of the in-flight window of a streaming connection, and on how
+   * long it takes to read the requests into it and to write their responses out of it.
+   */
+  public interface InFlightWindowListener {
+
+    InFlightWindowListener NO_OP =
+        new InFlightWindowListener() {
+          @Override
+          public void onRecordAdmitted(int inFlightRecords) {}
+
+          @Override
+          public void onWindowFull() {}
+        };
+
+    /**
+     * Called every time a request is admitted into the window, with the number of requests in
+     * flight after admitting it.
+     */
+    void onRecordAdmitted(int inFlightRecords);
+
+    /** Called every time reading from the request stream is paused because the window is full. */
+    void onWindowFull();
+
+    /**
+     * Called every time a request is read from the request stream, with the time it took to parse
+     * it in nanoseconds.
+     */
+    default void onRecordRead(long readNanos) {}
+
+    /**
+     * Called every time a chunk of one or more responses is written to the response stream, with
+     * the time the write took in nanoseconds.
+     */
+    default void onResponseWritten(long writeNanos) {}
+  }
+
   abstract boolean hasNext();
 
   abstract void close();
 
   abstract CompletableFuture<T> next();
 
+  /** Returns how long it took to read the request returned by the last call to {@link #next()}. */
+  abstract long lastReadNanos();
+
   private static class InputStreamingResponse<T> extends StreamingResponse<T> {
 
     private final JsonStream<T> inputStream;
+    // Only accessed by the thread reading the request stream.
+    private long lastReadNanos = 0;
 
     private InputStreamingResponse(
         JsonStream<T> inputStream,
         ChunkedOutputFactory chunkedOutputFactory,
         Duration maxDuration,
         Duration gracePeriod,
+        int maxInFlightRecords,
+        int responseBatchMaxRecords,
+        Duration responseLinger,
+        Executor lingerExecutor,
         Clock clock) {
-      super(chunkedOutputFactory, maxDuration, gracePeriod, clock);
+      super(
+          chunkedOutputFactory,
+          maxDuration,
+          gracePeriod,
+          maxInFlightRecords,
+          responseBatchMaxRecords,
+          responseLinger,
+          lingerExecutor,
+          clock);
       this.inputStream = requireNonNull(inputStream);
     }
 
@@ -291,6 +453,7 @@ public abstract class StreamingResponse<T> {
 
     @Override
     public CompletableFuture<T> next() {
+      long startNs = System.nanoTime();
       try {
         return CompletableFuture.completedFuture(inputStream.nextValue());
       } catch (JsonMappingException e) {
@@ -304,8 +467,15 @@ public abstract class StreamingResponse<T> {
         }
       } catch (Throwable e) {
         return CompletableFutures.failedFuture(e);
+      } finally {
+        lastReadNanos = System.nanoTime() - startNs;
       }
     }
+
+    @Override
+    long lastReadNanos() {
+      return lastReadNanos;
+    }
   }
 
   private static final class ComposingStreamingResponse<I, O> extends StreamingResponse<O> {
@@ -318,8 +488,20 @@ public abstract class StreamingResponse<T> {
         Function<? super I, ? extends CompletableFuture<O>> transform,
         ChunkedOutputFactory chunkedOutputFactory,
         Duration maxDuration,
-        Duration gracePeriod) {
-      super(chunkedOutputFactory, maxDuration, gracePeriod, streamingResponseInput.clock);
+        Duration gracePeriod,
+        int maxInFlightRecords,
+        int responseBatchMaxRecords,
+        Duration responseLinger,
+        Executor lingerExecutor) {
+      super(
+          chunkedOutputFactory,
+          maxDuration,
+          gracePeriod,
+          maxInFlightRecords,
+          responseBatchMaxRecords,
+          responseLinger,
+          lingerExecutor,
+          streamingResponseInput.clock);
       this.streamingResponseInput = requireNonNull(streamingResponseInput);
       this.transform = requireNonNull(transform);
     }
@@ -346,31 +528,114 @@ public abstract class StreamingResponse<T> {
       return streamingResponseInput.next().thenCompose(transform);
     }
 
+    @Override
+    long lastReadNanos() {
+      return streamingResponseInput.lastReadNanos();
+    }
+
     public void close() {
       streamingResponseInput.close();
     }
   }
 
-  private static final class AsyncResponseQueue {
+  /**
+   * Bounds the number of requests of a single stream that are waiting for their response. A
+   * non-positive capacity means the window is unbounded, in which case only occupancy is tracked.
+   */
+  private static final class InFlightWindow {
 
-    private final ChunkedOutput<ResultOrError> sink;
+    private final int capacity;
+    @Nullable private final Semaphore permits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final InFlightWindowListener listener;
 
-    // tail is the end of a linked list of completable futures. The futures are tied together by
-    // allOf completion handles. For example, let's say we push 3 futures into the queue:
-    //
-    // 1. tail = (null) // empty queue
-    // 2. tail = then(allOf((null), f_1), write(f_1)) // -> f_1
-    // 3. tail = then(allOf(then(allOf((null), f_1), write(f_1)), f_2), write(f_2)) // -> f_1 -> f_2
-    //
-    // The chaining of the futures guarantees that the write(f) callbacks are called in the order
-    // that the futures got pushed into the queue. Also, due to the way allOf is implemented, it
-    // makes sure that, as soon as f_0..i is completed, the whole
-    // then(allOf((f_i-1), f_i), write(f_i)) monad is made available for garbage collection.
-    private CompletableFuture<Void> tail;
+    private InFlightWindow(int capacity, InFlightWindowListener listener) {
+      this.capacity = capacity;
+      this.permits = capacity > 0 ? new Semaphore(capacity) : null;
+      this.listener = requireNonNull(listener);
+    }
 
-    private AsyncResponseQueue(ChunkedOutputFactory chunkedOutputFactory) {
-      sink = chunkedOutputFactory.getChunkedOutput();
-      tail = CompletableFuture.completedFuture(null);
+    /**
+     * Blocks until there is room in the window, or until {@code closing} is true, in which case
+     * returns false.
+     */
+    private boolean acquire(BooleanSupplier closing) throws InterruptedException {
+      if (permits != null && !permits.tryAcquire()) {
+        log.debug("In-flight window of {} records is full, pausing reads", capacity);
+        listener.onWindowFull();
+        while (!permits.tryAcquire(IN_FLIGHT_WINDOW_POLL_MS, TimeUnit.MILLISECONDS)) {
+          if (closing.getAsBoolean()) {
+            return false;
+          }
+        }
+      }
+      listener.onRecordAdmitted(inFlight.incrementAndGet());
+      return true;
+    }
+
+    private void release() {
+      inFlight.decrementAndGet();
+      if (permits != null) {
+        permits.release();
+      }
+    }
+  }
+
+  /**
+   * Writes responses to the sink in the order they were pushed, regardless of the order in which
+   * they complete.
+   *
+   * <p>Each pushed response gets a sequence number and, once complete, is stored in the slot of a
+   * ring buffer indexed by that sequence number. Whichever thread completes a response then tries
+   * to become the single writer, draining the contiguous run of completed responses starting at
+   * the head of the buffer. Other threads completing responses while a drain is in progress just
+   * signal the writer to run another pass, so there is no per-response chaining of futures.
+   *
+   * <p>When coalescing is enabled, the writer accumulates the responses it drains into a batch and
+   * writes the whole batch as a single chunk, so that it is flushed to the connection only once.
+   * The batch is written when it is full, when there are no outstanding responses left to join it,
+   * when the queue is closing, or once the linger time has elapsed since the batch was started.
+   */
+  private static final class AsyncResponseQueue {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ChunkedOutput<ResultOrError> sink;
+    private final int batchMaxRecords;
+    private final Duration linger;
+    private final Executor lingerExecutor;
+    private final InFlightWindowListener listener;
+
+    // Guards slots, head and tail. Only held while manipulating the ring buffer, never while
+    // writing to the sink.
+    private final Object lock = new Object();
+    private ResultOrError[] slots = new ResultOrError[INITIAL_CAPACITY];
+    // Sequence number of the next response to be written.
+    private long head = 0;
+    // Sequence number of the next response to be pushed.
+    private long tail = 0;
+
+    // Number of drain requests not yet served. Whoever moves it away from zero is the writer.
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private volatile boolean closeRequested = false;
+
+    // Batch being accumulated. Only touched by the writer.
+    private final List<ResultOrError> batch = new ArrayList<>();
+    private long batchGeneration = 0;
+    private boolean lingerScheduled = false;
+    private volatile long expiredBatchGeneration = -1;
+
+    private AsyncResponseQueue(
+        ChunkedOutputFactory chunkedOutputFactory,
+        int batchMaxRecords,
+        Duration linger,
+        Executor lingerExecutor,
+        InFlightWindowListener listener) {
+      this.sink = chunkedOutputFactory.getChunkedOutput();
+      this.batchMaxRecords = batchMaxRecords;
+      this.linger = requireNonNull(linger);
+      this.lingerExecutor = requireNonNull(lingerExecutor);
+      this.listener = requireNonNull(listener);
     }
 
     private void asyncResume(AsyncResponse asyncResponse) {
@@ -384,36 +649,165 @@ public abstract class StreamingResponse<T> {
     }
 
     private void push(CompletableFuture<ResultOrError> result) {
+      push(result, () -> {});
+    }
+
+    /**
+     * Pushes {@code result} to the end of the queue. {@code onCompletion} is run as soon as {@code
+     * result} completes, before it is written.
+     */
+    private void push(CompletableFuture<ResultOrError> result, Runnable onCompletion) {
       log.debug("Pushing to response queue");
-      tail =
-          CompletableFuture.allOf(tail, result)
-              .thenApply(
-                  unused -> {
-                    try {
-                      if (sinkClosed || sink.isClosed()) {
-                        sinkClosed = true;
-                        return null;
-                      }
-                      ResultOrError res = result.join();
-                      log.debug("Writing to sink");
-                      sink.write(res);
-                    } catch (IOException e) {
-                      log.error("Error when writing streaming result to response channel.", e);
-                    }
-                    return null;
-                  });
+      long sequence;
+      synchronized (lock) {
+        if (tail - head == slots.length) {
+          grow();
+        }
+        sequence = tail++;
+      }
+      result.whenComplete(
+          (value, error) -> {
+            onCompletion.run();
+            complete(sequence, error == null ? value : toErrorResult(error));
+          });
     }
 
-    private void close() {
-      tail.whenComplete(
-          (unused, throwable) -> {
-            try {
-              sinkClosed = true;
-              sink.close();
-            } catch (IOException e) {
-              log.error("Error when closing response channel.", e);
+    private void complete(long sequence, ResultOrError value) {
+      synchronized (lock) {
+        slots[(int) (sequence & (slots.length - 1))] = value;
+      }
+      drain();
+    }
+
+    private void drain() {
+      if (drainRequests.getAndIncrement() != 0) {
+        // Someone else is writing. They will do another pass on our behalf.
+        return;
+      }
+      int missed = 1;
+      do {
+        ResultOrError next;
+        while ((next = poll()) != null) {
+          if (batchMaxRecords <= 1) {
+            write(next);
+          } else {
+            batch.add(next);
+            if (batch.size() >= batchMaxRecords) {
+              writeBatch();
             }
-          });
+          }
+        }
+        if (!batch.isEmpty()) {
+          if (linger.isZero() || closeRequested || isEmpty() || isBatchLingerExpired()) {
+            writeBatch();
+          } else {
+            scheduleLinger();
+          }
+        }
+        if (closeRequested && isEmpty() && batch.isEmpty()) {
+          closeSink();
+        }
+        missed = drainRequests.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    @Nullable
+    private ResultOrError poll() {
+      synchronized (lock) {
+        if (head == tail) {
+          return null;
+        }
+        int index = (int) (head & (slots.length - 1));
+        ResultOrError next = slots[index];
+        if (next != null) {
+          slots[index] = null;
+          head++;
+        }
+        return next;
+      }
+    }
+
+    private boolean isEmpty() {
+      synchronized (lock) {
+        return head == tail;
+      }
+    }
+
+    private void grow() {
+      ResultOrError[] grown = new ResultOrError[slots.length * 2];
+      for (long sequence = head; sequence < tail; sequence++) {
+        grown[(int) (sequence & (grown.length - 1))] =
+            slots[(int) (sequence & (slots.length - 1))];
+      }
+      slots = grown;
+    }
+
+    private boolean isBatchLingerExpired() {
+      return expiredBatchGeneration == batchGeneration;
+    }
+
+    private void scheduleLinger() {
+      if (lingerScheduled) {
+        return;
+      }
+      lingerScheduled = true;
+      long generation = batchGeneration;
+      // The delayed executor only keeps time. The drain, which writes to the connection, runs on
+      // lingerExecutor.
+      CompletableFuture.delayedExecutor(linger.toMillis(), TimeUnit.MILLISECONDS, lingerExecutor)
+          .execute(
+              () -> {
+                expiredBatchGeneration = generation;
+                drain();
+              });
+    }
+
+    private void writeBatch() {
+      write(batch.size() == 1 ? batch.get(0) : ResultOrError.batch(batch));
+      batch.clear();
+      batchGeneration++;
+      lingerScheduled = false;
+    }
+
+    private void write(ResultOrError result) {
+      try {
+        if (sinkClosed || sink.isClosed()) {
+          sinkClosed = true;
+          return;
+        }
+        log.debug("Writing to sink");
+        long startNs = System.nanoTime();
+        sink.write(result);
+        listener.onResponseWritten(System.nanoTime() - startNs);
+      } catch (IOException e) {
+        log.error("Error when writing streaming result to response channel.", e);
+      }
+    }
+
+    private static ResultOrError toErrorResult(Throwable error) {
+      log.debug("Error computing streaming response.", error);
+      Throwable cause =
+          error instanceof CompletionException && error.getCause() != null
+              ? error.getCause()
+              : error;
+      return ResultOrError.error(EXCEPTION_MAPPER.toErrorResponse(cause));
+    }
+
+    /** Closes the sink once all responses pushed so far have been written. */
+    private void close() {
+      closeRequested = true;
+      drain();
+    }
+
+    private void closeSink() {
+      // ChunkedOutput.close() is idempotent, so it is fine if more than one close() call ends up
+      // here.
+      try {
+        sinkClosed = true;
+        sink.close();
+      } catch (IOException e) {
+        log.error("Error when closing response channel.", e);
+      }
     }
   }
 
@@ -426,6 +820,10 @@ public abstract class StreamingResponse<T> {
     public static ErrorHolder error(ErrorResponse error) {
       return new AutoValue_StreamingResponse_ErrorHolder(error);
     }
+
+    static BatchHolder batch(List<ResultOrError> results) {
+      return new AutoValue_StreamingResponse_BatchHolder(ImmutableList.copyOf(results));
+    }
   }
 
   @AutoValue
@@ -446,6 +844,18 @@ public abstract class StreamingResponse<T> {
     abstract ErrorResponse getError();
   }
 
+  /**
+   * A number of responses to be written as a single chunk. See {@link
+   * ResultOrErrorBatchMessageBodyWriter}.
+   */
+  @AutoValue
+  abstract static class BatchHolder extends ResultOrError {
+
+    BatchHolder() {}
+
+    abstract ImmutableList<ResultOrError> getResults();
+  }
+
   private static final class ErrorMapper<T extends Throwable> {
 
     private final Class<T> errorClass;
@@ -17,28 +17,85 @@ package io.confluent.kafkarest.response;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import io.confluent.kafkarest.config.ConfigModule.StreamingMaxConnectionDurationConfig;
 import io.confluent.kafkarest.config.ConfigModule.StreamingMaxConnectionGracePeriod;
+import io.confluent.kafkarest.config.ConfigModule.StreamingMaxInFlightRecordsConfig;
+import io.confluent.kafkarest.config.ConfigModule.StreamingResponseBatchMaxRecordsConfig;
+import io.confluent.kafkarest.config.ConfigModule.StreamingResponseLingerConfig;
 import jakarta.inject.Inject;
+import jakarta.inject.Qualifier;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 public final class StreamingResponseFactory {
 
   private final ChunkedOutputFactory chunkedOutputFactory;
   private final Duration maxDuration;
   private final Duration gracePeriod;
+  private final int maxInFlightRecords;
+  private final int responseBatchMaxRecords;
+  private final Duration responseLinger;
+  private final Executor lingerExecutor;
+
+  public StreamingResponseFactory(
+      ChunkedOutputFactory chunkedOutputFactory, Duration maxDuration, Duration gracePeriod) {
+    this(chunkedOutputFactory, maxDuration, gracePeriod, /* maxInFlightRecords= */ 0);
+  }
+
+  public StreamingResponseFactory(
+      ChunkedOutputFactory chunkedOutputFactory,
+      Duration maxDuration,
+      Duration gracePeriod,
+      Integer maxInFlightRecords) {
+    this(
+        chunkedOutputFactory,
+        maxDuration,
+        gracePeriod,
+        maxInFlightRecords,
+        /* responseBatchMaxRecords= */ 0,
+        Duration.ZERO,
+        MoreExecutors.newDirectExecutorService());
+  }
 
   @Inject
   public StreamingResponseFactory(
       ChunkedOutputFactory chunkedOutputFactory,
       @StreamingMaxConnectionDurationConfig Duration maxDuration,
-      @StreamingMaxConnectionGracePeriod Duration gracePeriod) {
+      @StreamingMaxConnectionGracePeriod Duration gracePeriod,
+      @StreamingMaxInFlightRecordsConfig Integer maxInFlightRecords,
+      @StreamingResponseBatchMaxRecordsConfig Integer responseBatchMaxRecords,
+      @StreamingResponseLingerConfig Duration responseLinger,
+      @ResponseLingerExecutor ExecutorService lingerExecutor) {
     this.chunkedOutputFactory = requireNonNull(chunkedOutputFactory);
     this.maxDuration = maxDuration;
     this.gracePeriod = gracePeriod;
+    this.maxInFlightRecords = requireNonNull(maxInFlightRecords);
+    this.responseBatchMaxRecords = requireNonNull(responseBatchMaxRecords);
+    this.responseLinger = requireNonNull(responseLinger);
+    this.lingerExecutor = requireNonNull(lingerExecutor);
   }
 
   public <T> StreamingResponse<T> from(JsonStream<T> inputStream) {
-    return StreamingResponse.from(inputStream, chunkedOutputFactory, maxDuration, gracePeriod);
+    return StreamingResponse.from(
+        inputStream,
+        chunkedOutputFactory,
+        maxDuration,
+        gracePeriod,
+        maxInFlightRecords,
+        responseBatchMaxRecords,
+        responseLinger,
+        lingerExecutor);
   }
+
+  /** The executor that writes the partial response batches whose linger time has elapsed. */
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD, ElementType.FIELD, ElementType.PARAMETER})
+  public @interface ResponseLingerExecutor {}
 }
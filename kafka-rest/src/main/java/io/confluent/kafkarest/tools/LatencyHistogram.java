@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in microseconds, which can be recorded to from many threads at once.
+ *
+ * <p>Values under {@code 2^SUB_BUCKET_BITS} get a bucket each. Above that, each power of two is
+ * split in {@code 2^(SUB_BUCKET_BITS - 1)} buckets, so that percentiles are reported with a
+ * relative error under 2%. Values past {@link #MAX_VALUE} (about 12 days) are clamped.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+  private static final int MAX_EXPONENT = 40;
+
+  static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+  private final AtomicLongArray counts =
+      new AtomicLongArray(SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /** Records a latency of {@code valueUs} microseconds. */
+  void record(long valueUs) {
+    long value = Math.min(Math.max(valueUs, 0), MAX_VALUE);
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.incrementAndGet();
+    maxValue.accumulateAndGet(value, Math::max);
+  }
+
+  /** Adds all the values recorded by {@code other} to this histogram. */
+  void add(LatencyHistogram other) {
+    for (int i = 0; i < counts.length(); i++) {
+      long count = other.counts.get(i);
+      if (count != 0) {
+        counts.addAndGet(i, count);
+      }
+    }
+    totalCount.addAndGet(other.totalCount.get());
+    maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+  }
+
+  /**
+   * Moves the values recorded so far to a new histogram, and returns it.
+   *
+   * <p>Values recorded concurrently end up in either histogram, but the total count and the maximum
+   * of the returned histogram can be slightly off from its buckets.
+   */
+  LatencyHistogram drain() {
+    LatencyHistogram drained = new LatencyHistogram();
+    for (int i = 0; i < counts.length(); i++) {
+      if (counts.get(i) != 0) {
+        drained.counts.set(i, counts.getAndSet(i, 0));
+      }
+    }
+    drained.totalCount.set(totalCount.getAndSet(0));
+    drained.maxValue.set(maxValue.getAndSet(0));
+    return drained;
+  }
+
+  long getTotalCount() {
+    return totalCount.get();
+  }
+
+  long getMaxValue() {
+    return maxValue.get();
+  }
+
+  /**
+   * Returns the value under which {@code percentile} percent of the recorded values fall, or 0 if
+   * nothing was recorded.
+   */
+  long getValueAtPercentile(double percentile) {
+    long total = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      total += counts.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestValueInBucket(i), maxValue.get());
+      }
+    }
+    return maxValue.get();
+  }
+
+  private static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - (SUB_BUCKET_BITS - 1);
+    int subBucket = (int) (value >>> shift);
+    return SUB_BUCKETS
+        + (exponent - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS
+        + (subBucket - HALF_SUB_BUCKETS);
+  }
+
+  private static long highestValueInBucket(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = SUB_BUCKET_BITS + (index - SUB_BUCKETS) / HALF_SUB_BUCKETS;
+    int subBucket = HALF_SUB_BUCKETS + (index - SUB_BUCKETS) % HALF_SUB_BUCKETS;
+    int shift = exponent - (SUB_BUCKET_BITS - 1);
+    return ((subBucket + 1L) << shift) - 1;
+  }
+}
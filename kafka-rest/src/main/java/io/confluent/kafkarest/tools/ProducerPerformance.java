@@ -15,132 +15,695 @@
 
 package io.confluent.kafkarest.tools;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.confluent.common.utils.AbstractPerformanceTest;
-import io.confluent.common.utils.PerformanceStats;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.confluent.kafkarest.Versions;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.kafkarest.entities.v2.BinaryTopicProduceRequest;
-import io.confluent.rest.entities.ErrorMessage;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.Arrays;
+import io.confluent.kafkarest.entities.v2.BinaryTopicProduceRequest.BinaryTopicProduceRecord;
+import io.confluent.kafkarest.entities.v3.ProduceBatchRequest;
+import io.confluent.kafkarest.entities.v3.ProduceBatchRequestEntry;
+import io.confluent.kafkarest.entities.v3.ProduceRequest;
+import io.confluent.kafkarest.entities.v3.ProduceRequest.ProduceRequestData;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates produce load against a Kafka REST Proxy, and reports the throughput and latency.
+ *
+ * <p>Records are sent at a fixed rate (open loop), whether or not the previous ones have been
+ * acknowledged yet. The latency of a record is measured from the time it was due to be sent, not
+ * from the time it was actually sent, so that any time the tool spends waiting to send (e.g. for
+ * one of {@code --max-in-flight} requests to complete) shows up in the latency instead of hiding
+ * it (a.k.a. coordinated omission). The time from the actual send is reported as service time.
+ *
+ * <p>HTTP connections are kept alive and reused across requests. In {@link Mode#STREAMING} mode,
+ * each connection carries a single long-lived request, with the records streamed in its body and
+ * the results streamed back in its response.
+ */
+public class ProducerPerformance {
+
+  enum Mode {
+    /** One record per request to {@code /v3/clusters/{clusterId}/topics/{topic}/records}. */
+    SINGLE,
+    /** {@code --batch-size} records per request to {@code .../records:batch}. */
+    BATCH,
+    /** Records streamed over {@code --connections} long-lived requests to {@code .../records}. */
+    STREAMING,
+    /** {@code --batch-size} binary records per request to the v2 {@code /topics/{topic}}. */
+    V2
+  }
 
-public class ProducerPerformance extends AbstractPerformanceTest {
+  private static final String USAGE =
+      "Usage: java "
+          + ProducerPerformance.class.getName()
+          + " --url <rest_url> --topic <topic> [options]\n"
+          + "  --cluster-id <id>         Cluster to produce to. Defaults to the first one listed.\n"
+          + "  --mode <mode>             SINGLE, BATCH, STREAMING or V2. Defaults to SINGLE.\n"
+          + "  --num-records <n>         Records to produce. Defaults to 100000.\n"
+          + "  --record-size <bytes>     Size of the record payloads. Defaults to 100.\n"
+          + "  --records-per-sec <n>     Rate at which records are sent. Defaults to 1000.\n"
+          + "  --batch-size <n>          Records per request, in BATCH and V2 modes. Defaults to\n"
+          + "                            100.\n"
+          + "  --connections <n>         Streaming connections, in STREAMING mode. Defaults to 1.\n"
+          + "  --max-in-flight <n>       Requests, or streamed records, awaiting a response at\n"
+          + "                            any time. Defaults to 1000.\n"
+          + "  --format <format>         BINARY, JSON, AVRO, JSONSCHEMA or PROTOBUF. Defaults to\n"
+          + "                            BINARY.\n"
+          + "  --schema-id <id>          Registered schema to use, instead of sending the schema\n"
+          + "                            inline, for the AVRO, JSONSCHEMA and PROTOBUF formats.\n"
+          + "  --report-interval-sec <n> How often to report progress. Defaults to 5.\n"
+          + "  --http2                   Use HTTP/2, negotiated with ALPN for https URLs.\n"
+          + "Legacy usage, in V2 mode: java "
+          + ProducerPerformance.class.getName()
+          + " rest_url topic_name num_records record_size batch_size target_records_sec";
 
-  long iterations;
-  long iterationsPerSec;
-  int recordsPerIteration;
-  long bytesPerIteration;
+  private static final ObjectMapper OBJECT_MAPPER =
+      new ObjectMapper().registerModule(new Jdk8Module()).registerModule(new JavaTimeModule());
 
-  String targetUrl;
-  String requestEntityLength;
-  byte[] requestEntity;
-  byte[] buffer;
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+  private static final int MAX_LOGGED_ERRORS = 10;
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
 
-  private final ObjectMapper jsonDeserializer = new ObjectMapper();
+  private final Options options;
+  private final HttpClient client;
+  private final Semaphore inFlight;
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final LatencyHistogram serviceTimes = new LatencyHistogram();
+  private final LatencyHistogram totalLatencies = new LatencyHistogram();
+  private final LatencyHistogram totalServiceTimes = new LatencyHistogram();
+  private final LongAdder ackedRecords = new LongAdder();
+  private final LongAdder failedRecords = new LongAdder();
+  private final AtomicInteger loggedErrors = new AtomicInteger();
+  private final double nanosPerRecord;
+  private long startNs;
 
   public static void main(String[] args) throws Exception {
-    if (args.length < 6) {
-      System.out.println(
-          "Usage: java "
-              + ProducerPerformance.class.getName()
-              + " rest_url topic_name "
-              + "num_records record_size batch_size target_records_sec");
+    Options options;
+    try {
+      options = Options.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage());
+      System.out.println(USAGE);
       System.exit(1);
+      return;
+    }
+    new ProducerPerformance(options).run();
+  }
+
+  ProducerPerformance(Options options) {
+    this.options = options;
+    this.client =
+        HttpClient.newBuilder()
+            .version(options.http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+    this.inFlight = new Semaphore(options.maxInFlight);
+    this.nanosPerRecord = TimeUnit.SECONDS.toNanos(1) / options.recordsPerSec;
+  }
+
+  void run() throws Exception {
+    byte[] requestEntity = createRequestEntity();
+    URI uri = URI.create(targetUrl());
+
+    List<StreamingConnection> connections = new ArrayList<>();
+    if (options.mode == Mode.STREAMING) {
+      for (int i = 0; i < options.connections; i++) {
+        connections.add(new StreamingConnection(uri, requestEntity));
+      }
+    }
+
+    ScheduledExecutorService reporter =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "producer-performance-reporter");
+              thread.setDaemon(true);
+              return thread;
+            });
+    startNs = System.nanoTime();
+    long reportIntervalNs = options.reportInterval.toNanos();
+    reporter.scheduleAtFixedRate(
+        this::report, reportIntervalNs, reportIntervalNs, TimeUnit.NANOSECONDS);
+
+    int recordsPerRequest = options.recordsPerRequest();
+    for (long record = 0; record < options.numRecords; record += recordsPerRequest) {
+      // A request goes out once all of its records are due.
+      sleepUntil(intendedNs(record + recordsPerRequest - 1));
+      if (options.mode == Mode.STREAMING) {
+        connections.get((int) (record % connections.size())).send(record);
+      } else {
+        send(uri, requestEntity, record, recordsPerRequest);
+      }
+    }
+
+    for (StreamingConnection connection : connections) {
+      connection.close();
     }
+    if (!inFlight.tryAcquire(
+        options.maxInFlight, DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+      System.out.println("Timed out waiting for the in-flight requests to complete.");
+    }
+    long elapsedNs = System.nanoTime() - startNs;
+    reporter.shutdownNow();
+
+    totalLatencies.add(latencies.drain());
+    totalServiceTimes.add(serviceTimes.drain());
+    printSummary(elapsedNs);
+  }
 
-    String baseUrl = args[0];
-    String topic = args[1];
-    int numRecords = Integer.parseInt(args[2]);
-    int recordSize = Integer.parseInt(args[3]);
-    int batchSize = Integer.parseInt(args[4]);
-    int throughput = Integer.parseInt(args[5]) / batchSize;
-
-    ProducerPerformance perf =
-        new ProducerPerformance(
-            baseUrl, topic, numRecords / batchSize, batchSize, throughput, recordSize);
-    perf.run(throughput);
-  }
-
-  public ProducerPerformance(
-      String baseUrl,
-      String topic,
-      long iterations,
-      int recordsPerIteration,
-      long iterationsPerSec,
-      int recordSize)
-      throws Exception {
-    super(iterations * recordsPerIteration);
-    this.iterations = iterations;
-    this.iterationsPerSec = iterationsPerSec;
-    this.recordsPerIteration = recordsPerIteration;
-    this.bytesPerIteration = recordsPerIteration * recordSize;
-
-    /* setup perf test */
-    targetUrl = baseUrl + "/topics/" + topic;
-    BinaryTopicProduceRequest.BinaryTopicProduceRecord record =
-        new BinaryTopicProduceRequest.BinaryTopicProduceRecord(null, "payload", null);
-    BinaryTopicProduceRequest.BinaryTopicProduceRecord[] records =
-        new BinaryTopicProduceRequest.BinaryTopicProduceRecord[recordsPerIteration];
-    Arrays.fill(records, record);
-    BinaryTopicProduceRequest request = BinaryTopicProduceRequest.create(Arrays.asList(records));
-    requestEntity = new ObjectMapper().writeValueAsBytes(request);
-    requestEntityLength = Integer.toString(requestEntity.length);
-    buffer = new byte[1024 * 1024];
-  }
-
-  @Override
-  protected void doIteration(PerformanceStats.Callback cb) {
-    HttpURLConnection connection = null;
+  private String targetUrl() throws IOException, InterruptedException {
+    if (options.mode == Mode.V2) {
+      return options.url + "/topics/" + options.topic;
+    }
+    String clusterId = options.clusterId != null ? options.clusterId : getFirstClusterId();
+    String recordsUrl =
+        options.url + "/v3/clusters/" + clusterId + "/topics/" + options.topic + "/records";
+    return options.mode == Mode.BATCH ? recordsUrl + ":batch" : recordsUrl;
+  }
+
+  private String getFirstClusterId() throws IOException, InterruptedException {
+    HttpResponse<String> response =
+        client.send(
+            HttpRequest.newBuilder(URI.create(options.url + "/v3/clusters")).GET().build(),
+            BodyHandlers.ofString());
+    if (response.statusCode() >= 400) {
+      throw new IOException(
+          String.format(
+              "Unexpected HTTP error status %d listing clusters: %s",
+              response.statusCode(), response.body()));
+    }
+    JsonNode clusters = OBJECT_MAPPER.readTree(response.body()).path("data");
+    if (clusters.isEmpty()) {
+      throw new IOException("No cluster found.");
+    }
+    return clusters.get(0).path("cluster_id").asText();
+  }
+
+  private byte[] createRequestEntity() throws IOException {
+    switch (options.mode) {
+      case SINGLE:
+      case STREAMING:
+        return OBJECT_MAPPER.writeValueAsBytes(
+            ProduceRequest.builder().setValue(createData()).setOriginalSize(0).build());
+      case BATCH:
+        ProduceRequestData data = createData();
+        List<ProduceBatchRequestEntry> entries = new ArrayList<>();
+        for (int i = 0; i < options.batchSize; i++) {
+          // Entry ids are the index of the record in the batch.
+          entries.add(
+              ProduceBatchRequestEntry.builder()
+                  .setId(TextNode.valueOf(Integer.toString(i)))
+                  .setValue(data)
+                  .setOriginalSize(0)
+                  .build());
+        }
+        return OBJECT_MAPPER.writeValueAsBytes(
+            ProduceBatchRequest.builder().setEntries(entries).build());
+      case V2:
+        BinaryTopicProduceRecord record =
+            new BinaryTopicProduceRecord(
+                /* key= */ null, createBinaryPayload(), /* partition= */ null);
+        return OBJECT_MAPPER.writeValueAsBytes(
+            BinaryTopicProduceRequest.create(Collections.nCopies(options.batchSize, record)));
+      default:
+        throw new IllegalArgumentException(options.mode.name());
+    }
+  }
+
+  private ProduceRequestData createData() {
+    ProduceRequestData.Builder data = ProduceRequestData.builder();
+    switch (options.format) {
+      case BINARY:
+        return data.setFormat(EmbeddedFormat.BINARY)
+            .setData(TextNode.valueOf(createBinaryPayload()))
+            .build();
+      case JSON:
+        return data.setFormat(EmbeddedFormat.JSON).setData(createJsonPayload()).build();
+      case AVRO:
+      case JSONSCHEMA:
+      case PROTOBUF:
+        data.setData(createJsonPayload());
+        if (options.schemaId != null) {
+          return data.setSchemaId(options.schemaId).build();
+        }
+        return data.setFormat(options.format).setRawSchema(getSchema(options.format)).build();
+      default:
+        throw new IllegalArgumentException(options.format.name());
+    }
+  }
+
+  private String createBinaryPayload() {
+    byte[] payload = new byte[options.recordSize];
+    ThreadLocalRandom.current().nextBytes(payload);
+    return Base64.getEncoder().encodeToString(payload);
+  }
+
+  private ObjectNode createJsonPayload() {
+    char[] payload = new char[options.recordSize];
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] = (char) ('a' + ThreadLocalRandom.current().nextInt(26));
+    }
+    ObjectNode node = JsonNodeFactory.instance.objectNode();
+    node.put("id", ThreadLocalRandom.current().nextLong(Long.MAX_VALUE));
+    node.put("payload", new String(payload));
+    return node;
+  }
+
+  /** Returns a schema matching {@link #createJsonPayload()}. */
+  private static String getSchema(EmbeddedFormat format) {
+    switch (format) {
+      case AVRO:
+        return "{\"type\":\"record\",\"name\":\"PerformanceRecord\",\"fields\":["
+            + "{\"name\":\"id\",\"type\":\"long\"},"
+            + "{\"name\":\"payload\",\"type\":\"string\"}]}";
+      case JSONSCHEMA:
+        return "{\"type\":\"object\",\"properties\":{"
+            + "\"id\":{\"type\":\"integer\"},"
+            + "\"payload\":{\"type\":\"string\"}}}";
+      case PROTOBUF:
+        return "syntax = \"proto3\"; "
+            + "message PerformanceRecord { int64 id = 1; string payload = 2; }";
+      default:
+        throw new IllegalArgumentException(format.name());
+    }
+  }
+
+  /** Sends a request with {@code records} records, starting at record number {@code first}. */
+  private void send(URI uri, byte[] requestEntity, long first, int records) {
+    HttpRequest request =
+        HttpRequest.newBuilder(uri)
+            .header(
+                "Content-Type",
+                options.mode == Mode.V2 ? Versions.KAFKA_V2_JSON_BINARY : "application/json")
+            .POST(BodyPublishers.ofByteArray(requestEntity))
+            .build();
+    inFlight.acquireUninterruptibly();
+    long sentNs = System.nanoTime();
+    client
+        .sendAsync(request, BodyHandlers.ofString())
+        .whenComplete(
+            (response, error) -> {
+              long doneNs = System.nanoTime();
+              inFlight.release();
+              if (error != null) {
+                fail(records, error.toString());
+              } else if (response.statusCode() >= 400) {
+                fail(records, "HTTP " + response.statusCode() + ": " + response.body());
+              } else {
+                onResponse(response.body(), first, records, sentNs, doneNs);
+              }
+            });
+  }
+
+  private void onResponse(String body, long first, int records, long sentNs, long doneNs) {
+    JsonNode response;
     try {
-      URL url = new URL(targetUrl);
-      connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("POST");
-      connection.setRequestProperty("Content-Type", Versions.KAFKA_V2_JSON);
-      connection.setRequestProperty("Content-Length", requestEntityLength);
+      response = OBJECT_MAPPER.readTree(body);
+    } catch (IOException e) {
+      fail(records, "Unreadable response: " + body);
+      return;
+    }
+    switch (options.mode) {
+      case SINGLE:
+        onResult(response, first, sentNs, doneNs);
+        break;
+      case BATCH:
+        for (JsonNode success : response.path("successes")) {
+          ack(first + Integer.parseInt(success.path("id").asText()), sentNs, doneNs);
+        }
+        for (JsonNode failure : response.path("failures")) {
+          fail(1, failure.toString());
+        }
+        break;
+      case V2:
+        int record = 0;
+        for (JsonNode offset : response.path("offsets")) {
+          if (offset.path("error_code").isNumber()) {
+            fail(1, offset.toString());
+          } else {
+            ack(first + record, sentNs, doneNs);
+          }
+          record++;
+        }
+        break;
+      default:
+        throw new IllegalStateException(options.mode.name());
+    }
+  }
 
-      connection.setUseCaches(false);
-      connection.setDoInput(true);
-      connection.setDoOutput(true);
+  /** Handles the result of a single record produced to the v3 API. */
+  private void onResult(JsonNode result, long record, long sentNs, long doneNs) {
+    if (result.path("error_code").asInt() == 200) {
+      ack(record, sentNs, doneNs);
+    } else {
+      fail(1, result.toString());
+    }
+  }
 
-      OutputStream os = connection.getOutputStream();
-      os.write(requestEntity);
-      os.flush();
-      os.close();
+  private void ack(long record, long sentNs, long doneNs) {
+    latencies.record(NANOSECONDS.toMicros(doneNs - intendedNs(record)));
+    serviceTimes.record(NANOSECONDS.toMicros(doneNs - sentNs));
+    ackedRecords.increment();
+  }
 
-      int responseStatus = connection.getResponseCode();
-      if (responseStatus >= 400) {
-        InputStream es = connection.getErrorStream();
-        ErrorMessage errorMessage = jsonDeserializer.readValue(es, ErrorMessage.class);
-        es.close();
-        throw new RuntimeException(
-            String.format(
-                "Unexpected HTTP error status %d: %s", responseStatus, errorMessage.getMessage()));
+  private void fail(int records, String error) {
+    failedRecords.add(records);
+    if (loggedErrors.getAndIncrement() < MAX_LOGGED_ERRORS) {
+      System.out.println("Produce failed: " + error);
+    }
+  }
+
+  /** Returns when {@code record} is due to be sent. */
+  private long intendedNs(long record) {
+    return startNs + (long) (record * nanosPerRecord);
+  }
+
+  private static void sleepUntil(long deadlineNs) {
+    long remainingNs;
+    while ((remainingNs = deadlineNs - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remainingNs);
+    }
+  }
+
+  private void report() {
+    LatencyHistogram interval = latencies.drain();
+    totalLatencies.add(interval);
+    totalServiceTimes.add(serviceTimes.drain());
+    double intervalSec = options.reportInterval.toNanos() / 1e9;
+    System.out.printf(
+        "%,d records acked, %,d failed, %,.1f records/sec, latency %s%n",
+        ackedRecords.sum(),
+        failedRecords.sum(),
+        interval.getTotalCount() / intervalSec,
+        formatPercentiles(interval));
+  }
+
+  private void printSummary(long elapsedNs) {
+    double elapsedSec = elapsedNs / 1e9;
+    long acked = ackedRecords.sum();
+    System.out.printf(
+        "%,d records acked, %,d failed, in %.1f sec: %,.1f records/sec (%.2f MB/sec)%n",
+        acked,
+        failedRecords.sum(),
+        elapsedSec,
+        acked / elapsedSec,
+        acked * options.recordSize / elapsedSec / (1024 * 1024));
+    System.out.println(
+        "Latency, from the intended send time: " + formatPercentiles(totalLatencies));
+    System.out.println(
+        "Service time, from the actual send time: " + formatPercentiles(totalServiceTimes));
+  }
+
+  private static String formatPercentiles(LatencyHistogram histogram) {
+    StringBuilder result = new StringBuilder();
+    for (double percentile : PERCENTILES) {
+      String label =
+          percentile % 1 == 0 ? Long.toString((long) percentile) : Double.toString(percentile);
+      result.append(
+          String.format(
+              "p%s %.1f ms, ", label, histogram.getValueAtPercentile(percentile) / 1000.0));
+    }
+    return result.append(String.format("max %.1f ms", histogram.getMaxValue() / 1000.0)).toString();
+  }
+
+  /**
+   * A long-lived streaming produce request. Records are written to the request body as they come,
+   * and their results are read back, in the same order, from the response body.
+   */
+  private final class StreamingConnection implements Flow.Subscriber<String> {
+
+    private final byte[] requestEntity;
+    private final SubmissionPublisher<ByteBuffer> requestBody = new SubmissionPublisher<>();
+    private final Queue<PendingRecord> pending = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<Void> done;
+
+    private StreamingConnection(URI uri, byte[] requestEntity) {
+      this.requestEntity = requestEntity;
+      HttpRequest request =
+          HttpRequest.newBuilder(uri)
+              .header("Content-Type", "application/json")
+              .POST(BodyPublishers.fromPublisher(requestBody))
+              .build();
+      done =
+          client
+              .sendAsync(request, BodyHandlers.fromLineSubscriber(this))
+              .handle(
+                  (response, error) -> {
+                    if (error != null) {
+                      fail(0, "Streaming connection failed: " + error);
+                    }
+                    failPending();
+                    return null;
+                  });
+      awaitSubscribed();
+    }
+
+    /**
+     * Waits for the client to start sending the request body, as records submitted before that
+     * would be dropped.
+     */
+    private void awaitSubscribed() {
+      long deadlineNs = System.nanoTime() + CONNECT_TIMEOUT.toNanos();
+      while (!requestBody.hasSubscribers() && !done.isDone()) {
+        if (System.nanoTime() > deadlineNs) {
+          throw new IllegalStateException("Timed out opening a streaming connection.");
+        }
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+      }
+    }
+
+    private void send(long record) {
+      if (done.isDone()) {
+        fail(1, "Streaming connection closed");
+        return;
+      }
+      inFlight.acquireUninterruptibly();
+      pending.add(new PendingRecord(record, System.nanoTime()));
+      requestBody.submit(ByteBuffer.wrap(requestEntity));
+      if (done.isDone()) {
+        // The connection closed while the record was being sent.
+        failPending();
+      }
+    }
+
+    private void close() throws Exception {
+      requestBody.close();
+      done.get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void failPending() {
+      PendingRecord record;
+      while ((record = pending.poll()) != null) {
+        inFlight.release();
+        fail(1, "No response for record " + record.record);
+      }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(String line) {
+      if (line.isBlank()) {
+        return;
       }
-      InputStream is = connection.getInputStream();
-      while (is.read(buffer) > 0) {
-        // Ignore output, just make sure we actually receive it
+      long doneNs = System.nanoTime();
+      PendingRecord record = pending.poll();
+      if (record == null) {
+        fail(0, "Unexpected response: " + line);
+        return;
       }
-      is.close();
-    } catch (Exception e) {
-      e.printStackTrace();
-    } finally {
-      if (connection != null) {
-        connection.disconnect();
+      inFlight.release();
+      try {
+        onResult(OBJECT_MAPPER.readTree(line), record.record, record.sentNs, doneNs);
+      } catch (IOException e) {
+        fail(1, "Unreadable response: " + line);
       }
     }
-    cb.onCompletion(recordsPerIteration, bytesPerIteration);
+
+    @Override
+    public void onError(Throwable error) {
+      // Reported once the response completes.
+    }
+
+    @Override
+    public void onComplete() {}
   }
 
-  @Override
-  protected boolean finished(int iteration) {
-    return iteration >= iterations;
+  private static final class PendingRecord {
+
+    private final long record;
+    private final long sentNs;
+
+    private PendingRecord(long record, long sentNs) {
+      this.record = record;
+      this.sentNs = sentNs;
+    }
   }
 
-  @Override
-  protected boolean runningFast(int iteration, float elapsed) {
-    return (iteration / elapsed > iterationsPerSec);
+  static final class Options {
+
+    String url;
+    String topic;
+    String clusterId;
+    Mode mode = Mode.SINGLE;
+    long numRecords = 100_000;
+    int recordSize = 100;
+    double recordsPerSec = 1000;
+    int batchSize = 100;
+    int connections = 1;
+    int maxInFlight = 1000;
+    EmbeddedFormat format = EmbeddedFormat.BINARY;
+    Integer schemaId;
+    Duration reportInterval = Duration.ofSeconds(5);
+    boolean http2 = false;
+
+    /** Returns how many records go in each request, for the non-streaming modes. */
+    int recordsPerRequest() {
+      return mode == Mode.BATCH || mode == Mode.V2 ? batchSize : 1;
+    }
+
+    static Options parse(String[] args) {
+      Options options = new Options();
+      if (args.length > 0 && !args[0].startsWith("--")) {
+        parseLegacy(options, args);
+      } else {
+        for (int i = 0; i < args.length; i++) {
+          String name = args[i];
+          if (name.equals("--http2")) {
+            options.http2 = true;
+            continue;
+          }
+          if (i + 1 == args.length) {
+            throw new IllegalArgumentException("Missing value for " + name + ".");
+          }
+          parseOption(options, name, args[++i]);
+        }
+      }
+
+      if (options.url == null || options.topic == null) {
+        throw new IllegalArgumentException("--url and --topic are required.");
+      }
+      if (options.numRecords <= 0
+          || options.recordSize <= 0
+          || options.recordsPerSec <= 0
+          || options.batchSize <= 0
+          || options.connections <= 0
+          || options.maxInFlight <= 0
+          || options.reportInterval.isZero()
+          || options.reportInterval.isNegative()) {
+        throw new IllegalArgumentException("Numeric options must be positive.");
+      }
+      if (options.mode == Mode.V2 && options.format != EmbeddedFormat.BINARY) {
+        throw new IllegalArgumentException("V2 mode only supports the BINARY format.");
+      }
+      if (options.schemaId != null && !options.format.requiresSchema()) {
+        throw new IllegalArgumentException(
+            "--schema-id requires the AVRO, JSONSCHEMA or PROTOBUF format.");
+      }
+      // Only whole requests are sent.
+      int recordsPerRequest = options.recordsPerRequest();
+      options.numRecords =
+          (options.numRecords + recordsPerRequest - 1) / recordsPerRequest * recordsPerRequest;
+      return options;
+    }
+
+    private static void parseLegacy(Options options, String[] args) {
+      if (args.length < 6) {
+        throw new IllegalArgumentException("Not enough arguments.");
+      }
+      options.mode = Mode.V2;
+      options.url = args[0];
+      options.topic = args[1];
+      options.numRecords = Long.parseLong(args[2]);
+      options.recordSize = Integer.parseInt(args[3]);
+      options.batchSize = Integer.parseInt(args[4]);
+      options.recordsPerSec = Double.parseDouble(args[5]);
+    }
+
+    private static void parseOption(Options options, String name, String value) {
+      try {
+        switch (name) {
+          case "--url":
+            options.url = value;
+            break;
+          case "--topic":
+            options.topic = value;
+            break;
+          case "--cluster-id":
+            options.clusterId = value;
+            break;
+          case "--mode":
+            options.mode = Mode.valueOf(value.toUpperCase(Locale.ROOT));
+            break;
+          case "--num-records":
+            options.numRecords = Long.parseLong(value);
+            break;
+          case "--record-size":
+            options.recordSize = Integer.parseInt(value);
+            break;
+          case "--records-per-sec":
+            options.recordsPerSec = Double.parseDouble(value);
+            break;
+          case "--batch-size":
+            options.batchSize = Integer.parseInt(value);
+            break;
+          case "--connections":
+            options.connections = Integer.parseInt(value);
+            break;
+          case "--max-in-flight":
+            options.maxInFlight = Integer.parseInt(value);
+            break;
+          case "--format":
+            options.format = EmbeddedFormat.valueOf(value.toUpperCase(Locale.ROOT));
+            break;
+          case "--schema-id":
+            options.schemaId = Integer.parseInt(value);
+            break;
+          case "--report-interval-sec":
+            options.reportInterval = Duration.ofSeconds(Long.parseLong(value));
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + name + ".");
+        }
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid value for " + name + ": " + value + ".");
+      }
+    }
   }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.config.ConfigException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link ExecutorService} that runs each task on its own virtual thread, with at most {@code
+ * maxConcurrency} tasks running at once.
+ *
+ * <p>Tasks past the limit are not rejected: their virtual thread cheaply waits for a permit. Tasks
+ * submitted after shutdown are dropped, like the consumer thread pool does.
+ *
+ * <p>Virtual threads were only added in Java 21, so they are looked up reflectively to keep
+ * compiling for older targets.
+ */
+final class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+  private static final Logger log = LoggerFactory.getLogger(BoundedVirtualThreadExecutor.class);
+
+  private final ExecutorService delegate;
+  private final Semaphore permits;
+
+  /**
+   * @param maxConcurrency the maximum number of tasks running at once, or a negative value for no
+   *     limit
+   * @throws ConfigException if virtual threads are not supported by the JVM
+   */
+  BoundedVirtualThreadExecutor(int maxConcurrency) {
+    this.delegate = newVirtualThreadPerTaskExecutor();
+    // Fair, so that tasks run in the order they were submitted once the limit is reached.
+    this.permits = maxConcurrency < 0 ? null : new Semaphore(maxConcurrency, /* fair= */ true);
+  }
+
+  static boolean isSupported() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    if (!isSupported()) {
+      throw new ConfigException("Virtual threads require Java 21 or later.");
+    }
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not create a virtual thread executor.", e);
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    try {
+      delegate.execute(() -> runWithPermit(command));
+    } catch (RejectedExecutionException e) {
+      log.debug("Dropping {}, as the executor has been shut down.", command);
+    }
+  }
+
+  private void runWithPermit(Runnable command) {
+    if (permits == null) {
+      command.run();
+      return;
+    }
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      // Interrupted by shutdownNow(), drop the task.
+      Thread.currentThread().interrupt();
+      return;
+    }
+    try {
+      command.run();
+    } finally {
+      permits.release();
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
@@ -15,8 +15,11 @@
 
 package io.confluent.kafkarest.v2;
 
+import static io.confluent.kafkarest.KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG;
 import static io.confluent.kafkarest.KafkaRestConfig.CONSUMER_MAX_THREADS_CONFIG;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.kafkarest.ConsumerInstanceId;
 import io.confluent.kafkarest.ConsumerReadCallback;
 import io.confluent.kafkarest.Errors;
@@ -45,23 +48,26 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
 import java.util.Vector;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -80,29 +86,54 @@ import org.slf4j.LoggerFactory;
  * and cleaning up when consumers disappear.
  *
  * <p>For read and commitOffsets tasks, it uses a {@link ThreadPoolExecutor} which spins up threads
- * for handling read tasks. Since read tasks do not complete on the first run but rather call the AK
- * consumer's poll() method continuously, we re-schedule them via a {@link DelayQueue}. A {@link
- * ReadTaskSchedulerThread} runs in a separate thread and re-submits the tasks to the executor.
+ * for handling read tasks. A read task that does not complete on its first run, because its
+ * consumer has no records yet, does not hold on to a thread while it waits: it is parked along with
+ * the other read tasks of the same consumer, see {@link ParkedReadTasks}. While there are parked
+ * read tasks, the consumer is polled on the executor every {@code consumer.iterator.backoff.ms},
+ * and the read tasks are only woken up once it returns records, or once their request expires.
+ *
+ * <p>If {@code consumer.virtual.threads.enable} is set, tasks run on virtual threads instead, see
+ * {@link BoundedVirtualThreadExecutor}.
+ *
+ * <p>If {@code consumer.prefetch.enable} is set, each consumer is instead polled in the background
+ * all along by a {@link Prefetcher}, and read tasks only drain the records it has buffered.
  */
 public class KafkaConsumerManager {
 
   private static final Logger log = LoggerFactory.getLogger(KafkaConsumerManager.class);
 
+  // The consumers expire at most about two ticks late.
+  private static final Duration EXPIRATION_TICK = Duration.ofMillis(200);
+  private static final int EXPIRATION_WHEEL_SIZE = 64;
+
   private final KafkaRestConfig config;
   private final Clock clock = Clock.systemUTC();
 
   // KafkaConsumerState is generic, but we store them untyped here. This allows many operations to
   // work without having to know the types for the consumer, only requiring type information
   // during read operations.
-  private final Map<ConsumerInstanceId, KafkaConsumerState> consumers =
-      new HashMap<ConsumerInstanceId, KafkaConsumerState>();
+  // Lookups only contend with the expiration of the same consumer, see getConsumerInstance().
+  private final ConcurrentMap<ConsumerInstanceId, KafkaConsumerState> consumers =
+      new ConcurrentHashMap<>();
+  // IDs of the consumers being created, which are not in consumers yet
+  private final Set<ConsumerInstanceId> reservedConsumerIds = ConcurrentHashMap.newKeySet();
   // All kind of operations, like reading records, committing offsets and closing a consumer
-  // are executed separately in dedicated threads via a cached thread pool.
+  // are executed separately in dedicated threads via a cached thread pool, or on virtual threads.
   private final ExecutorService executor;
   private KafkaConsumerFactory consumerFactory;
-  final DelayQueue<RunnableReadTask> delayedReadTasks = new DelayQueue<>();
+  // Read tasks waiting for records, by the consumer they read from.
+  final ConcurrentMap<KafkaConsumerState<?, ?, ?, ?>, ParkedReadTasks> parkedReadTasks =
+      new ConcurrentHashMap<>();
+  // Polls the consumers with parked read tasks, and expires the parked read tasks.
+  private final ScheduledExecutorService readTaskScheduler;
+  private final Duration readBackoff;
+  private final boolean prefetchEnabled;
+  // When the consumers are due to be checked for expiration. Entries are not moved when a consumer
+  // is used, but checked once due, and added back if the consumer has been used in the meantime.
+  private final TimingWheel<KafkaConsumerState<?, ?, ?, ?>> expirationWheel =
+      new TimingWheel<>(
+          EXPIRATION_TICK.toMillis(), EXPIRATION_WHEEL_SIZE, clock.instant().toEpochMilli());
   private final ExpirationThread expirationThread;
-  private ReadTaskSchedulerThread readTaskSchedulerThread;
 
   @GuardedBy("this")
   private ConsumerInstanceId adminConsumerInstanceId = null;
@@ -110,48 +141,26 @@ public class KafkaConsumerManager {
   public KafkaConsumerManager(final KafkaRestConfig config) {
     this.config = config;
 
-    // Cached thread pool
-    int maxThreadCount =
-        config.getInt(CONSUMER_MAX_THREADS_CONFIG) < 0
-            ? Integer.MAX_VALUE
-            : config.getInt(CONSUMER_MAX_THREADS_CONFIG);
-
-    this.executor =
-        new KafkaConsumerThreadPoolExecutor(
-            0,
-            maxThreadCount,
-            60L,
-            TimeUnit.SECONDS,
-            new SynchronousQueue<Runnable>(),
-            new RejectedExecutionHandler() {
-              @Override
-              public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-                if (r instanceof ReadFutureTask) {
-                  RunnableReadTask readTask = ((ReadFutureTask) r).readTask;
-                  Duration retry = Duration.ofMillis(ThreadLocalRandom.current().nextInt(25, 76));
-                  log.debug(
-                      "The runnable {} was rejected execution because the thread pool is saturated."
-                          + " Delaying execution for {}ms.",
-                      r,
-                      retry.toMillis());
-                  readTask.delayFor(retry);
-                } else {
-                  log.debug(
-                      "The runnable {} was rejected execution because the thread pool is saturated."
-                          + " Executing on calling thread.",
-                      r);
-                  // run commitOffset and consumer close tasks from the caller thread
-                  if (!executor.isShutdown()) {
-                    r.run();
-                  }
-                }
-              }
-            });
+    if (config.getBoolean(KafkaRestConfig.CONSUMER_VIRTUAL_THREADS_ENABLE_CONFIG)) {
+      this.executor = new BoundedVirtualThreadExecutor(config.getInt(CONSUMER_MAX_THREADS_CONFIG));
+    } else {
+      this.executor = newThreadPoolExecutor();
+    }
+    ScheduledThreadPoolExecutor readTaskScheduler =
+        new ScheduledThreadPoolExecutor(
+            1,
+            new ThreadFactoryBuilder()
+                .setNameFormat("Read Task Scheduler Thread")
+                .setDaemon(true)
+                .build());
+    // Most read task expirations get cancelled, as records show up first. Don't keep them around.
+    readTaskScheduler.setRemoveOnCancelPolicy(true);
+    this.readTaskScheduler = readTaskScheduler;
+    this.readBackoff = Duration.ofMillis(config.getInt(CONSUMER_ITERATOR_BACKOFF_MS_CONFIG));
+    this.prefetchEnabled = config.getBoolean(KafkaRestConfig.CONSUMER_PREFETCH_ENABLE_CONFIG);
     this.consumerFactory = null;
     this.expirationThread = new ExpirationThread();
-    this.readTaskSchedulerThread = new ReadTaskSchedulerThread();
     this.expirationThread.start();
-    this.readTaskSchedulerThread.start();
   }
 
   KafkaConsumerManager(KafkaRestConfig config, KafkaConsumerFactory consumerFactory) {
@@ -159,6 +168,55 @@ public class KafkaConsumerManager {
     this.consumerFactory = consumerFactory;
   }
 
+  /**
+   * Returns a cached thread pool of up to {@code consumer.threads}. When it is saturated, read
+   * tasks are retried after a short random delay, and other tasks run on the calling thread.
+   */
+  private ExecutorService newThreadPoolExecutor() {
+    // Cached thread pool
+    int maxThreadCount =
+        config.getInt(CONSUMER_MAX_THREADS_CONFIG) < 0
+            ? Integer.MAX_VALUE
+            : config.getInt(CONSUMER_MAX_THREADS_CONFIG);
+
+    return new KafkaConsumerThreadPoolExecutor(
+        0,
+        maxThreadCount,
+        60L,
+        TimeUnit.SECONDS,
+        new SynchronousQueue<Runnable>(),
+        new RejectedExecutionHandler() {
+          @Override
+          public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (r instanceof ReadFutureTask) {
+              RunnableReadTask readTask = ((ReadFutureTask) r).readTask;
+              Duration retry = Duration.ofMillis(ThreadLocalRandom.current().nextInt(25, 76));
+              log.debug(
+                  "The runnable {} was rejected execution because the thread pool is saturated."
+                      + " Delaying execution for {}ms.",
+                  r,
+                  retry.toMillis());
+              readTask.retryAfter(retry);
+            } else if (r instanceof Prefetcher) {
+              log.debug(
+                  "The runnable {} was rejected execution because the thread pool is saturated."
+                      + " Skipping this round.",
+                  r);
+              ((Prefetcher) r).scheduleNext();
+            } else {
+              log.debug(
+                  "The runnable {} was rejected execution because the thread pool is saturated."
+                      + " Executing on calling thread.",
+                  r);
+              // run commitOffset and consumer close tasks from the caller thread
+              if (!executor.isShutdown()) {
+                r.run();
+              }
+            }
+          }
+        });
+  }
+
   /**
    * Creates a new consumer instance and returns its unique ID.
    *
@@ -175,18 +233,12 @@ public class KafkaConsumerManager {
     // provide an alternate app name, or just reuse the name.
     String name = getConsumerInstanceName(instanceConfig);
     ConsumerInstanceId cid = new ConsumerInstanceId(group, name);
-    // Perform this check before
-    synchronized (this) {
-      if (consumers.containsKey(cid)) {
-        throw Errors.consumerAlreadyExistsException();
-      } else {
-        // Placeholder to reserve this ID
-        consumers.put(cid, null);
-      }
+    // Perform this check before creating the consumer, which is expensive
+    if (consumers.containsKey(cid) || !reservedConsumerIds.add(cid)) {
+      throw Errors.consumerAlreadyExistsException();
     }
 
-    // Ensure we clean up the placeholder if there are any issues creating the consumer instance
-    boolean succeeded = false;
+    // Ensure we release the reservation whether or not the consumer instance could be created
     try {
       log.debug("Creating consumer " + name + " in group " + group);
 
@@ -204,17 +256,18 @@ public class KafkaConsumerManager {
       }
 
       KafkaConsumerState state = createConsumerState(instanceConfig, cid, consumer);
-      synchronized (this) {
-        consumers.put(cid, state);
+      // The consumer could have been created and registered since the check above.
+      if (consumers.putIfAbsent(cid, state) != null) {
+        state.close();
+        throw Errors.consumerAlreadyExistsException();
+      }
+      expirationWheel.add(state, state.expiration.toEpochMilli());
+      if (prefetchEnabled) {
+        new Prefetcher(state).scheduleNext();
       }
-      succeeded = true;
       return name;
     } finally {
-      if (!succeeded) {
-        synchronized (this) {
-          consumers.remove(cid);
-        }
-      }
+      reservedConsumerIds.remove(cid);
     }
   }
 
@@ -377,52 +430,46 @@ public class KafkaConsumerManager {
     }
   }
 
-  class RunnableReadTask implements Runnable, Delayed {
+  class RunnableReadTask implements Runnable {
     private final ReadTaskState taskState;
+    // The earliest of consumer.request.timeout.ms and the timeout of the read task itself
     private final Instant requestExpiration;
-    private final Duration backoff;
-    // Expiration if this task is waiting, considering both the expiration of the whole task and
-    // a single backoff, if one is in progress
-    private Instant waitExpiration;
+    // Expires this task while it is parked. Guarded by the ParkedReadTasks it is parked in.
+    private ScheduledFuture<?> expirationFuture;
 
     public RunnableReadTask(ReadTaskState taskState, KafkaRestConfig config) {
       this.taskState = taskState;
-      this.requestExpiration =
+      Instant configuredExpiration =
           clock
               .instant()
               .plus(
                   Duration.ofMillis(
                       config.getInt(KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_CONFIG)));
-      this.backoff =
-          Duration.ofMillis(config.getInt(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG));
-      this.waitExpiration = Instant.EPOCH;
-    }
-
-    /** Delays for a minimum of {@code delayMs} or until the read request expires */
-    public void delayFor(Duration delay) {
-      // the first condition means that the request has expired,
-      // the second one means that the request has been retried for
-      // the last time, so if it goes to this block again, it will be expired
-      if (!requestExpiration.isAfter(clock.instant()) || requestExpiration.equals(waitExpiration)) {
-        // no need to delay if the request has expired
-        taskState.task.finish();
-        log.trace(
-            "Finished executing  consumer read task ({}) due to request expiry", taskState.task);
+      this.requestExpiration =
+          Collections.min(Arrays.asList(configuredExpiration, taskState.task.getExpiration()));
+    }
+
+    /** Re-submits this task after {@code delay}, or finishes it if the request has expired. */
+    void retryAfter(Duration delay) {
+      if (!requestExpiration.isAfter(clock.instant())) {
+        expire();
         return;
       }
+      schedule(() -> executor.submit(this), delay);
+    }
 
-      Instant delayTo = clock.instant().plus(delay);
-      waitExpiration = Collections.min(Arrays.asList(delayTo, requestExpiration));
-      // add to delayedReadTasks so the scheduler thread can re-schedule another partial read later
-      delayedReadTasks.add(this);
+    /** Finishes this task with the records read so far, as the request has expired. */
+    void expire() {
+      taskState.task.finish();
+      taskState.consumerState.updateExpiration();
+      log.trace("Finished executing consumer read task ({}) due to request expiry", taskState.task);
     }
 
     @Override
     public String toString() {
       return String.format(
-          "RunnableReadTask consumer id: %s; Read task: %s; "
-              + "Request expiration time: %s; Wait expiration: %s",
-          taskState.consumerState.getId(), taskState.task, requestExpiration, waitExpiration);
+          "RunnableReadTask consumer id: %s; Read task: %s; Request expiration time: %s",
+          taskState.consumerState.getId(), taskState.task, requestExpiration);
     }
 
     @Override
@@ -432,10 +479,16 @@ public class KafkaConsumerManager {
 
         taskState.task.doPartialRead();
         taskState.consumerState.updateExpiration();
-        if (!taskState.task.isDone()) {
-          delayFor(this.backoff);
-        } else {
+        if (taskState.task.isDone()) {
           log.trace("Finished executing consumer read task ({})", taskState.task);
+          // Records left behind, e.g. because this task was full, are for the parked tasks to read.
+          if (taskState.consumerState.hasNextCached()) {
+            wakeUpParkedReadTasks(taskState.consumerState);
+          }
+        } else if (!requestExpiration.isAfter(clock.instant())) {
+          expire();
+        } else {
+          park(this);
         }
       } catch (Exception e) {
         log.error(
@@ -446,24 +499,29 @@ public class KafkaConsumerManager {
         taskState.callback.onCompletion(null, e);
       }
     }
+  }
 
-    @Override
-    public long getDelay(TimeUnit unit) {
-      // Note that, Duration.between excludes the end instant,
-      // so we need to add 1 millisecond so that the task will be run at the desire time
-      Duration delay = Duration.between(clock.instant(), waitExpiration.plusMillis(1));
-      return unit.convert(delay.toMillis(), TimeUnit.MILLISECONDS);
+  private void park(RunnableReadTask task) {
+    KafkaConsumerState<?, ?, ?, ?> consumerState = task.taskState.consumerState;
+    while (!parkedReadTasks.computeIfAbsent(consumerState, ParkedReadTasks::new).park(task)) {
+      // The parked read tasks of this consumer have just been retired. Try again with new ones.
     }
+  }
 
-    @Override
-    public int compareTo(Delayed o) {
-      if (o == null) {
-        throw new NullPointerException("Delayed comparator cannot compare with null");
-      }
-      long otherObjDelay = o.getDelay(TimeUnit.MILLISECONDS);
-      long delay = this.getDelay(TimeUnit.MILLISECONDS);
+  private void wakeUpParkedReadTasks(KafkaConsumerState<?, ?, ?, ?> consumerState) {
+    ParkedReadTasks parked = parkedReadTasks.get(consumerState);
+    if (parked != null) {
+      parked.wakeUp();
+    }
+  }
 
-      return Long.compare(delay, otherObjDelay);
+  /** Runs {@code command} after {@code delay}, unless the manager has been shut down. */
+  private ScheduledFuture<?> schedule(Runnable command, Duration delay) {
+    try {
+      return readTaskScheduler.schedule(command, delay.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      log.debug("Dropping {}, as the consumer manager has been shut down.", command);
+      return null;
     }
   }
 
@@ -651,28 +709,37 @@ public class KafkaConsumerManager {
   public void shutdown() {
     log.debug("Shutting down consumers");
     executor.shutdown();
-    // Expiration thread needs to be able to acquire a lock on the KafkaConsumerManager to make sure
-    // the shutdown will be able to complete.
     log.trace("Shutting down consumer expiration thread");
     expirationThread.shutdown();
-    readTaskSchedulerThread.shutdown();
-    synchronized (this) {
-      for (Map.Entry<ConsumerInstanceId, KafkaConsumerState> entry : consumers.entrySet()) {
-        entry.getValue().close();
+    readTaskScheduler.shutdownNow();
+    parkedReadTasks.clear();
+    for (ConsumerInstanceId id : consumers.keySet()) {
+      KafkaConsumerState state = consumers.remove(id);
+      if (state != null) {
+        state.close();
       }
-      consumers.clear();
-      executor.shutdown();
     }
   }
 
   /**
    * Gets the specified consumer instance or throws a not found exception. Also removes the
    * consumer's expiration timeout so it is not cleaned up mid-operation.
+   *
+   * <p>The expiration is pushed back atomically with respect to {@link #removeIfExpired}, which
+   * only locks the consumer's own entry in {@link #consumers}.
    */
-  private synchronized KafkaConsumerState<?, ?, ?, ?> getConsumerInstance(
+  private KafkaConsumerState<?, ?, ?, ?> getConsumerInstance(
       String group, String instance, boolean toRemove) {
     ConsumerInstanceId id = new ConsumerInstanceId(group, instance);
-    final KafkaConsumerState state = toRemove ? consumers.remove(id) : consumers.get(id);
+    final KafkaConsumerState state =
+        toRemove
+            ? consumers.remove(id)
+            : consumers.computeIfPresent(
+                id,
+                (key, existing) -> {
+                  existing.updateExpiration();
+                  return existing;
+                });
     if (state == null) {
       throw Errors.consumerInstanceNotFoundException();
     }
@@ -680,6 +747,21 @@ public class KafkaConsumerManager {
     return state;
   }
 
+  /** Removes {@code state} if it is still registered and has expired. Returns whether it was. */
+  private boolean removeIfExpired(KafkaConsumerState<?, ?, ?, ?> state, Instant now) {
+    AtomicBoolean removed = new AtomicBoolean(false);
+    consumers.computeIfPresent(
+        state.getId(),
+        (key, current) -> {
+          if (current != state || !state.expired(now)) {
+            return current;
+          }
+          removed.set(true);
+          return null;
+        });
+    return removed.get();
+  }
+
   KafkaConsumerState<?, ?, ?, ?> getConsumerInstance(String group, String instance) {
     return getConsumerInstance(group, instance, false);
   }
@@ -708,42 +790,170 @@ public class KafkaConsumerManager {
     }
   }
 
-  private class ReadTaskSchedulerThread extends Thread {
-    final AtomicBoolean isRunning = new AtomicBoolean(true);
-    final CountDownLatch shutdownLatch = new CountDownLatch(1);
+  /**
+   * The read tasks waiting for records from a consumer.
+   *
+   * <p>While there are any, the consumer is polled every {@code consumer.iterator.backoff.ms}, and
+   * all of them are woken up as soon as it returns records. The ones that find no records left to
+   * read get parked again. Once there are none left, polling stops and this is retired from {@link
+   * #parkedReadTasks}, so that idle consumers cost no wakeups at all.
+   */
+  final class ParkedReadTasks {
+    private final KafkaConsumerState<?, ?, ?, ?> consumerState;
+
+    @GuardedBy("this")
+    private final Set<RunnableReadTask> tasks = new LinkedHashSet<>();
 
-    ReadTaskSchedulerThread() {
-      super("Read Task Scheduler Thread");
-      setDaemon(true);
+    @GuardedBy("this")
+    private ScheduledFuture<?> nextPoll = null;
+
+    @GuardedBy("this")
+    private boolean retired = false;
+
+    private ParkedReadTasks(KafkaConsumerState<?, ?, ?, ?> consumerState) {
+      this.consumerState = consumerState;
     }
 
-    @Override
-    public void run() {
-      try {
-        while (isRunning.get()) {
-          RunnableReadTask readTask = delayedReadTasks.poll(500, TimeUnit.MILLISECONDS);
-          if (readTask != null) {
-            executor.submit(readTask);
-          }
+    /** Parks {@code task}, or returns false if this has already been retired. */
+    private synchronized boolean park(RunnableReadTask task) {
+      if (retired) {
+        return false;
+      }
+      tasks.add(task);
+      task.expirationFuture =
+          schedule(
+              () -> expire(task), Duration.between(clock.instant(), task.requestExpiration));
+      if (nextPoll == null) {
+        nextPoll = schedule(this::submitPoll, readBackoff);
+      }
+      return true;
+    }
+
+    /** Submits all the parked tasks to the executor. */
+    private void wakeUp() {
+      for (RunnableReadTask task : unparkAll()) {
+        executor.submit(task);
+      }
+    }
+
+    private synchronized List<RunnableReadTask> unparkAll() {
+      List<RunnableReadTask> unparked = new ArrayList<>(tasks);
+      tasks.clear();
+      for (RunnableReadTask task : unparked) {
+        if (task.expirationFuture != null) {
+          task.expirationFuture.cancel(/* mayInterruptIfRunning= */ false);
         }
-      } catch (InterruptedException e) {
-        // Interrupted by other thread, do nothing to allow this thread to exit
-      } finally {
-        shutdownLatch.countDown();
       }
+      return unparked;
     }
 
-    public void shutdown() {
+    private void expire(RunnableReadTask task) {
+      boolean unparked;
+      synchronized (this) {
+        unparked = tasks.remove(task);
+      }
+      // Otherwise the task has been woken up by records in the meantime.
+      if (unparked) {
+        executor.submit(task::expire);
+      }
+    }
+
+    private void submitPoll() {
+      executor.submit(this::poll);
+    }
+
+    private void poll() {
+      synchronized (this) {
+        if (tasks.isEmpty()) {
+          retire();
+          return;
+        }
+      }
+      boolean hasRecords;
       try {
-        isRunning.set(false);
-        this.interrupt();
-        shutdownLatch.await();
-      } catch (InterruptedException e) {
-        throw new RuntimeException("Interrupted when shutting down read task scheduler thread.");
+        // When prefetching, only check for records (or errors) without consuming anything.
+        hasRecords = prefetchEnabled ? consumerState.hasPrefetched() : consumerState.hasNext();
+      } catch (RuntimeException e) {
+        // E.g. the consumer has been closed. Let the read tasks run into the error and report it.
+        hasRecords = true;
+      }
+      if (hasRecords) {
+        wakeUp();
+      }
+      synchronized (this) {
+        if (tasks.isEmpty()) {
+          retire();
+        } else {
+          nextPoll = schedule(this::submitPoll, readBackoff);
+        }
       }
     }
+
+    @GuardedBy("this")
+    private void retire() {
+      retired = true;
+      nextPoll = null;
+      parkedReadTasks.remove(consumerState, this);
+    }
+
+    @VisibleForTesting
+    synchronized int size() {
+      return tasks.size();
+    }
+
+    @VisibleForTesting
+    synchronized long getNextPollDelay(TimeUnit unit) {
+      return nextPoll != null ? nextPoll.getDelay(unit) : -1;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("ParkedReadTasks consumer id: %s", consumerState.getId());
+    }
+  }
+
+  /**
+   * Polls a consumer on the executor every {@code consumer.iterator.backoff.ms}, whether or not
+   * there are reads waiting on it, so that reads find its records already buffered. Wakes up the
+   * parked read tasks of the consumer as soon as records are buffered. Stops once the consumer is
+   * closed.
+   */
+  private final class Prefetcher implements Runnable {
+    private final KafkaConsumerState<?, ?, ?, ?> consumerState;
+
+    private Prefetcher(KafkaConsumerState<?, ?, ?, ?> consumerState) {
+      this.consumerState = consumerState;
+    }
+
+    private void scheduleNext() {
+      schedule(() -> executor.execute(this), readBackoff);
+    }
+
+    @Override
+    public void run() {
+      if (!consumerState.prefetch()) {
+        log.debug("Stopped prefetching for the closed consumer {}", consumerState.getId());
+        return;
+      }
+      if (consumerState.hasPrefetched()) {
+        wakeUpParkedReadTasks(consumerState);
+      }
+      scheduleNext();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("Prefetcher consumer id: %s", consumerState.getId());
+    }
   }
 
+  /**
+   * Closes the consumers which have not been used for {@code consumer.instance.timeout.ms}.
+   *
+   * <p>Every tick, only the consumers due in {@link #expirationWheel} are looked at. The ones which
+   * have been used since they were added are added back at their new expiration, the others are
+   * removed and closed on the executor.
+   */
   private class ExpirationThread extends Thread {
 
     AtomicBoolean isRunning = new AtomicBoolean(true);
@@ -758,26 +968,23 @@ public class KafkaConsumerManager {
     public void run() {
       try {
         while (isRunning.get()) {
-          synchronized (KafkaConsumerManager.this) {
-            Instant now = clock.instant();
-            Iterator itr = consumers.values().iterator();
-            while (itr.hasNext()) {
-              final KafkaConsumerState state = (KafkaConsumerState) itr.next();
-              if (state != null && state.expired(now)) {
-                log.debug("Removing the expired consumer {}", state.getId());
-                itr.remove();
-                executor.submit(
-                    new Runnable() {
-                      @Override
-                      public void run() {
-                        state.close();
-                      }
-                    });
-              }
+          Instant now = clock.instant();
+          for (KafkaConsumerState<?, ?, ?, ?> state : expirationWheel.advance(now.toEpochMilli())) {
+            if (removeIfExpired(state, now)) {
+              log.debug("Removing the expired consumer {}", state.getId());
+              executor.submit(
+                  new Runnable() {
+                    @Override
+                    public void run() {
+                      state.close();
+                    }
+                  });
+            } else if (consumers.get(state.getId()) == state) {
+              expirationWheel.add(state, state.expiration.toEpochMilli());
             }
           }
 
-          Thread.sleep(1000);
+          Thread.sleep(EXPIRATION_TICK.toMillis());
         }
       } catch (InterruptedException e) {
         // Interrupted by other thread, do nothing to allow this thread to exit
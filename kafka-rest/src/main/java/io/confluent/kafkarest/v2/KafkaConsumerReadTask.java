@@ -132,6 +132,11 @@ class KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
     return finished;
   }
 
+  /** Returns when this task times out, if it has not finished by then. */
+  Instant getExpiration() {
+    return started.plus(requestTimeout);
+  }
+
   /**
    * Polls for and reads records until either the minimum response bytes are filled, the maximum
    * response bytes will be reached, or no more records can be read from polling.
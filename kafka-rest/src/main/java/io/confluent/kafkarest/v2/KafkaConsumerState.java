@@ -39,6 +39,8 @@ import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -46,6 +48,7 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Vector;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.apache.kafka.clients.consumer.Consumer;
@@ -71,9 +74,17 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
   private final ConsumerInstanceConfig consumerInstanceConfig;
 
   private final Queue<ConsumerRecord<KafkaKeyT, KafkaValueT>> consumerRecords = new ArrayDeque<>();
+  // Approximate size of the keys and values in consumerRecords
+  private long consumerRecordsBytes = 0;
 
+  // If enabled, consumerRecords is filled in the background by prefetch() rather than by reads
+  private final boolean prefetchEnabled;
+  private final long prefetchMaxBytes;
+  // Raised by the last prefetch(), to be reported by the next read
+  private RuntimeException prefetchError = null;
+
+  // Read without locking by the expiration thread, see KafkaConsumerManager.ExpirationThread.
   volatile Instant expiration;
-  private final Object expirationLock = new Object();
 
   KafkaConsumerState(
       KafkaRestConfig config,
@@ -86,6 +97,8 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
         Duration.ofMillis(config.getInt(KafkaRestConfig.CONSUMER_INSTANCE_TIMEOUT_MS_CONFIG));
     this.expiration = clock.instant().plus(consumerInstanceTimeout);
     this.consumerInstanceConfig = consumerInstanceConfig;
+    this.prefetchEnabled = config.getBoolean(KafkaRestConfig.CONSUMER_PREFETCH_ENABLE_CONFIG);
+    this.prefetchMaxBytes = config.getLong(KafkaRestConfig.CONSUMER_PREFETCH_MAX_BYTES_CONFIG);
   }
 
   public ConsumerInstanceId getId() {
@@ -110,10 +123,20 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
       String async, ConsumerOffsetCommitRequest offsetCommitRequest) {
     // If no offsets are given, then commit all the records read so far
     if (offsetCommitRequest == null) {
-      if (async == null) {
-        consumer.commitSync();
+      if (consumerRecords.isEmpty()) {
+        if (async == null) {
+          consumer.commitSync();
+        } else {
+          consumer.commitAsync();
+        }
       } else {
-        consumer.commitAsync();
+        // The consumer's position is past the records still buffered, which have not been read.
+        Map<TopicPartition, OffsetAndMetadata> offsetMap = getReadPositions();
+        if (async == null) {
+          consumer.commitSync(offsetMap);
+        } else {
+          consumer.commitAsync(offsetMap, null);
+        }
       }
     } else {
       Map<TopicPartition, OffsetAndMetadata> offsetMap =
@@ -137,6 +160,27 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
     return result;
   }
 
+  /**
+   * Returns the offsets of the next records to read for the assigned partitions: the first record
+   * still buffered, if any, or else the consumer's position.
+   */
+  private Map<TopicPartition, OffsetAndMetadata> getReadPositions() {
+    Map<TopicPartition, OffsetAndMetadata> bufferedOffsets = new HashMap<>();
+    for (ConsumerRecord<KafkaKeyT, KafkaValueT> record : consumerRecords) {
+      bufferedOffsets.putIfAbsent(
+          new TopicPartition(record.topic(), record.partition()),
+          new OffsetAndMetadata(record.offset()));
+    }
+    Map<TopicPartition, OffsetAndMetadata> positions = new HashMap<>();
+    for (TopicPartition partition : consumer.assignment()) {
+      OffsetAndMetadata buffered = bufferedOffsets.get(partition);
+      positions.put(
+          partition,
+          buffered != null ? buffered : new OffsetAndMetadata(consumer.position(partition)));
+    }
+    return positions;
+  }
+
   /** Seek to the first offset for each of the given partitions. */
   public synchronized void seekToBeginning(ConsumerSeekToRequest seekToRequest) {
     if (seekToRequest != null) {
@@ -146,6 +190,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
         topicPartitions.add(new TopicPartition(t.getTopic(), t.getPartition()));
       }
       consumer.seekToBeginning(topicPartitions);
+      dropConsumerRecords(topicPartitions);
     }
   }
 
@@ -158,6 +203,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
         topicPartitions.add(new TopicPartition(t.getTopic(), t.getPartition()));
       }
       consumer.seekToEnd(topicPartitions);
+      dropConsumerRecords(topicPartitions);
     }
   }
 
@@ -168,9 +214,12 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
     }
 
     for (ConsumerSeekRequest.PartitionOffset partition : request.getOffsets()) {
+      TopicPartition topicPartition =
+          new TopicPartition(partition.getTopic(), partition.getPartition());
       consumer.seek(
-          new TopicPartition(partition.getTopic(), partition.getPartition()),
+          topicPartition,
           new OffsetAndMetadata(partition.getOffset(), partition.getMetadata().orElse("")));
+      dropConsumerRecords(singletonList(topicPartition));
     }
 
     Map<TopicPartition, Optional<String>> metadata =
@@ -194,6 +243,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
           offset.getKey(),
           new OffsetAndMetadata(
               offset.getValue().offset(), metadata.get(offset.getKey()).orElse("")));
+      dropConsumerRecords(singletonList(offset.getKey()));
     }
   }
 
@@ -207,6 +257,9 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
         topicPartitions.add(new TopicPartition(t.getTopic(), t.getPartition()));
       }
       consumer.assign(topicPartitions);
+      dropConsumerRecords(
+          record ->
+              !topicPartitions.contains(new TopicPartition(record.topic(), record.partition())));
     }
   }
 
@@ -227,11 +280,10 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
 
     if (consumer != null) {
       if (subscription.getTopics() != null) {
-        consumer.subscribe(subscription.getTopics());
+        consumer.subscribe(subscription.getTopics(), new DropRevokedRecordsOnRebalance());
       } else if (subscription.getTopicPattern() != null) {
         Pattern topicPattern = Pattern.compile(subscription.getTopicPattern());
-        NoOpOnRebalance noOpOnRebalance = new NoOpOnRebalance();
-        consumer.subscribe(topicPattern, noOpOnRebalance);
+        consumer.subscribe(topicPattern, new DropRevokedRecordsOnRebalance());
       }
     }
   }
@@ -241,6 +293,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
     if (consumer != null) {
       consumer.unsubscribe();
     }
+    dropConsumerRecords(record -> true);
   }
 
   /** Get the current list of topics subscribed. */
@@ -344,15 +397,11 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
   }
 
   public boolean expired(Instant now) {
-    synchronized (this.expirationLock) {
-      return !expiration.isAfter(now);
-    }
+    return !expiration.isAfter(now);
   }
 
   public void updateExpiration() {
-    synchronized (this.expirationLock) {
-      this.expiration = clock.instant().plus(consumerInstanceTimeout);
-    }
+    this.expiration = clock.instant().plus(consumerInstanceTimeout);
   }
 
   synchronized ConsumerRecord<KafkaKeyT, KafkaValueT> peek() {
@@ -363,6 +412,15 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
     if (hasNextCached()) {
       return true;
     }
+    if (prefetchEnabled) {
+      // Records are only fetched in the background, by prefetch().
+      if (prefetchError != null) {
+        RuntimeException error = prefetchError;
+        prefetchError = null;
+        throw error;
+      }
+      return false;
+    }
     // If none are available, try checking for any records already fetched by the consumer.
     getOrCreateConsumerRecords();
 
@@ -374,7 +432,64 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
   }
 
   synchronized ConsumerRecord<KafkaKeyT, KafkaValueT> next() {
-    return consumerRecords.poll();
+    ConsumerRecord<KafkaKeyT, KafkaValueT> record = consumerRecords.poll();
+    if (record != null) {
+      consumerRecordsBytes -= sizeOf(record);
+    }
+    return record;
+  }
+
+  /**
+   * Polls the consumer for more records, to be buffered until read. Once the buffer holds {@code
+   * consumer.prefetch.max.bytes}, the consumer's partitions are paused instead, so that it keeps
+   * polling (and stays in its group) without fetching any more records. Returns false if the
+   * consumer has been closed.
+   */
+  synchronized boolean prefetch() {
+    if (consumer == null) {
+      return false;
+    }
+    if (prefetchError != null
+        || (consumer.subscription().isEmpty() && consumer.assignment().isEmpty())) {
+      return true;
+    }
+    try {
+      if (consumerRecordsBytes >= prefetchMaxBytes) {
+        consumer.pause(consumer.assignment());
+      } else if (!consumer.paused().isEmpty()) {
+        consumer.resume(consumer.paused());
+      }
+      getOrCreateConsumerRecords();
+    } catch (RuntimeException e) {
+      prefetchError = e;
+    }
+    return true;
+  }
+
+  /** Returns whether the next read will find records, or an error, prefetched for it. */
+  synchronized boolean hasPrefetched() {
+    return hasNextCached() || prefetchError != null;
+  }
+
+  private void dropConsumerRecords(Collection<TopicPartition> partitions) {
+    dropConsumerRecords(
+        record -> partitions.contains(new TopicPartition(record.topic(), record.partition())));
+  }
+
+  /** Drops the buffered records that would be read from the wrong position after a seek. */
+  private void dropConsumerRecords(Predicate<ConsumerRecord<KafkaKeyT, KafkaValueT>> toDrop) {
+    Iterator<ConsumerRecord<KafkaKeyT, KafkaValueT>> records = consumerRecords.iterator();
+    while (records.hasNext()) {
+      ConsumerRecord<KafkaKeyT, KafkaValueT> record = records.next();
+      if (toDrop.test(record)) {
+        records.remove();
+        consumerRecordsBytes -= sizeOf(record);
+      }
+    }
+  }
+
+  private static long sizeOf(ConsumerRecord<?, ?> record) {
+    return Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
   }
 
   /**
@@ -387,15 +502,25 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
     // drain the iterator and buffer to list
     for (ConsumerRecord<KafkaKeyT, KafkaValueT> consumerRecord : polledRecords) {
       consumerRecords.add(consumerRecord);
+      consumerRecordsBytes += sizeOf(consumerRecord);
     }
   }
 
-  private class NoOpOnRebalance implements ConsumerRebalanceListener {
-
-    public NoOpOnRebalance() {}
+  /**
+   * Drops the buffered records of the partitions a rebalance takes away from this consumer, as the
+   * member they are assigned to next reads them again from the committed offset.
+   */
+  private class DropRevokedRecordsOnRebalance implements ConsumerRebalanceListener {
 
-    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {}
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+      // Normally called from within poll(), with the lock already held.
+      synchronized (KafkaConsumerState.this) {
+        dropConsumerRecords(new HashSet<>(partitions));
+      }
+    }
 
+    @Override
     public void onPartitionsAssigned(Collection<TopicPartition> partitions) {}
   }
 }
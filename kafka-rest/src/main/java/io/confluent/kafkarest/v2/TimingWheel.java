@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel, tracking when items expire in O(1) per item, no matter how many
+ * items there are.
+ *
+ * <p>The first level has {@code wheelSize} buckets, each {@code tickMs} wide. Items expiring past
+ * the first level go to a coarser level, with buckets {@code wheelSize} times as wide, and so on.
+ * As time advances, the due buckets of the coarser levels are cascaded down into the finer levels,
+ * and the due buckets of the first level are released.
+ *
+ * <p>Items can be released up to {@code tickMs} before their expiration. They can be neither
+ * removed nor rescheduled: the caller is expected to check the items it gets back from {@link
+ * #advance(long)}, and to add back the ones which have been pushed back in the meantime.
+ */
+final class TimingWheel<T> {
+
+  private final long tickMs;
+  private final int wheelSize;
+  // The finest level first. Coarser levels are only created once needed.
+  private final List<Level<T>> levels = new ArrayList<>();
+  private int size = 0;
+
+  TimingWheel(long tickMs, int wheelSize, long startMs) {
+    if (tickMs <= 0 || wheelSize <= 1) {
+      throw new IllegalArgumentException("tickMs must be positive, wheelSize greater than 1.");
+    }
+    this.tickMs = tickMs;
+    this.wheelSize = wheelSize;
+    levels.add(new Level<>(tickMs, wheelSize, startMs));
+  }
+
+  /** Adds {@code item}, to be released once {@code expirationMs} is reached. */
+  synchronized void add(T item, long expirationMs) {
+    add(new Entry<>(item, expirationMs));
+    size++;
+  }
+
+  private void add(Entry<T> entry) {
+    for (int i = 0; ; i++) {
+      if (i == levels.size()) {
+        Level<T> finer = levels.get(i - 1);
+        levels.add(new Level<>(finer.tickMs * wheelSize, wheelSize, finer.currentStartMs()));
+      }
+      if (levels.get(i).add(entry)) {
+        return;
+      }
+    }
+  }
+
+  /** Advances the wheel to {@code nowMs}, and returns the items released by doing so. */
+  synchronized List<T> advance(long nowMs) {
+    List<Entry<T>> due = new ArrayList<>();
+    levels.get(0).advance(nowMs, due);
+    List<Entry<T>> cascaded = new ArrayList<>();
+    for (int i = 1; i < levels.size(); i++) {
+      levels.get(i).advance(nowMs, cascaded);
+    }
+    for (Entry<T> entry : cascaded) {
+      if (Math.floorDiv(entry.expirationMs, tickMs) <= Math.floorDiv(nowMs, tickMs)) {
+        due.add(entry);
+      } else {
+        add(entry);
+      }
+    }
+
+    List<T> released = new ArrayList<>(due.size());
+    for (Entry<T> entry : due) {
+      released.add(entry.item);
+    }
+    size -= released.size();
+    return released;
+  }
+
+  /** Returns the number of items in the wheel. */
+  synchronized int size() {
+    return size;
+  }
+
+  private static final class Level<T> {
+    private final long tickMs;
+    private final int wheelSize;
+    // Bucket i holds the entries for the slot s with s % wheelSize == i, among the slots after
+    // currentSlot, up to currentSlot + wheelSize. Slot s is [s * tickMs, (s + 1) * tickMs).
+    private final List<List<Entry<T>>> buckets;
+    private long currentSlot;
+
+    private Level(long tickMs, int wheelSize, long startMs) {
+      this.tickMs = tickMs;
+      this.wheelSize = wheelSize;
+      this.buckets = new ArrayList<>(wheelSize);
+      for (int i = 0; i < wheelSize; i++) {
+        buckets.add(new ArrayList<>());
+      }
+      this.currentSlot = Math.floorDiv(startMs, tickMs);
+    }
+
+    private long currentStartMs() {
+      return currentSlot * tickMs;
+    }
+
+    /** Adds {@code entry}, or returns false if it expires past this level. */
+    private boolean add(Entry<T> entry) {
+      // Past entries go in the next slot, so that they are released as soon as possible.
+      long slot = Math.max(Math.floorDiv(entry.expirationMs, tickMs), currentSlot + 1);
+      if (slot > currentSlot + wheelSize) {
+        return false;
+      }
+      bucket(slot).add(entry);
+      return true;
+    }
+
+    private void advance(long nowMs, List<Entry<T>> released) {
+      long nowSlot = Math.floorDiv(nowMs, tickMs);
+      // After a long pause, every bucket is due, but each only needs to be visited once.
+      long firstSlot = Math.max(currentSlot + 1, nowSlot - wheelSize + 1);
+      for (long slot = firstSlot; slot <= nowSlot; slot++) {
+        List<Entry<T>> bucket = bucket(slot);
+        released.addAll(bucket);
+        bucket.clear();
+      }
+      currentSlot = Math.max(currentSlot, nowSlot);
+    }
+
+    private List<Entry<T>> bucket(long slot) {
+      return buckets.get((int) Math.floorMod(slot, (long) wheelSize));
+    }
+  }
+
+  private static final class Entry<T> {
+    private final T item;
+    private final long expirationMs;
+
+    private Entry(T item, long expirationMs) {
+      this.item = item;
+      this.expirationMs = expirationMs;
+    }
+  }
+}
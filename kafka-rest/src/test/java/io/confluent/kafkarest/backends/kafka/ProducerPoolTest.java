@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.backends.kafka;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+
+public class ProducerPoolTest {
+
+  private static final int POOL_SIZE = 4;
+  private static final int NUM_PARTITIONS = 100;
+
+  private static final Node NODE = new Node(1, "localhost", 1234);
+
+  private static final Cluster CLUSTER =
+      new Cluster(
+          "cluster-1",
+          ImmutableList.of(NODE),
+          IntStream.range(0, NUM_PARTITIONS)
+              .mapToObj(
+                  partition ->
+                      new PartitionInfo(
+                          "topic-1", partition, NODE, new Node[] {NODE}, new Node[] {NODE}))
+              .collect(Collectors.toList()),
+          ImmutableSet.of(),
+          ImmutableSet.of());
+
+  private final List<Producer<byte[], byte[]>> producers =
+      IntStream.range(0, POOL_SIZE)
+          .mapToObj(
+              i ->
+                  new MockProducer<byte[], byte[]>(
+                      CLUSTER,
+                      /* autoComplete= */ true,
+                      /* partitioner= */ null,
+                      new ByteArraySerializer(),
+                      new ByteArraySerializer()))
+          .collect(Collectors.toList());
+  private final ProducerPool pool = new ProducerPool(producers, MoreExecutors.directExecutor());
+
+  @Test
+  public void get_samePartition_sameProducer() {
+    Set<Producer<byte[], byte[]>> used = new HashSet<>();
+    for (int partition = 0; partition < 100; partition++) {
+      Producer<byte[], byte[]> producer = pool.get(record(partition, "key-" + partition));
+      assertSame(producer, pool.get(record(partition, "other-key")));
+      assertSame(producer, pool.get(record(partition, null)));
+      used.add(producer);
+    }
+    assertEquals(POOL_SIZE, used.size());
+  }
+
+  @Test
+  public void get_sameKeyWithoutPartition_sameProducer() {
+    Set<Producer<byte[], byte[]>> used = new HashSet<>();
+    for (int key = 0; key < 100; key++) {
+      Producer<byte[], byte[]> producer = pool.get(record(null, "key-" + key));
+      assertSame(producer, pool.get(record(null, "key-" + key)));
+      used.add(producer);
+    }
+    assertEquals(POOL_SIZE, used.size());
+  }
+
+  @Test
+  public void get_keysOfSamePartition_sameProducerAsPartition() {
+    Map<Integer, Set<String>> keysByPartition = new HashMap<>();
+    for (int key = 0; key < 1000; key++) {
+      // The partition the default partitioner picks for the key.
+      int partition =
+          Utils.toPositive(Utils.murmur2(("key-" + key).getBytes(UTF_8))) % NUM_PARTITIONS;
+      keysByPartition.computeIfAbsent(partition, p -> new HashSet<>()).add("key-" + key);
+    }
+    for (Map.Entry<Integer, Set<String>> partition : keysByPartition.entrySet()) {
+      Producer<byte[], byte[]> producer = pool.get(record(partition.getKey(), null));
+      for (String key : partition.getValue()) {
+        assertSame(producer, pool.get(record(null, key)));
+      }
+    }
+  }
+
+  @Test
+  public void get_noKeyNorPartition_roundRobin() {
+    Map<Producer<byte[], byte[]>, Integer> counts = new HashMap<>();
+    for (int i = 0; i < 10 * POOL_SIZE; i++) {
+      counts.merge(pool.get(record(null, null)), 1, Integer::sum);
+    }
+    assertEquals(POOL_SIZE, counts.size());
+    for (int count : counts.values()) {
+      assertEquals(10, count);
+    }
+  }
+
+  @Test
+  public void get_singleProducer_alwaysThatProducer() {
+    Producer<byte[], byte[]> producer = new MockProducer<>();
+    ProducerPool singletonPool = new ProducerPool(ImmutableList.of(producer));
+
+    assertSame(producer, singletonPool.get(record(1, "key")));
+    assertSame(producer, singletonPool.get(record(null, "key")));
+    assertSame(producer, singletonPool.get(record(null, null)));
+  }
+
+  private static ProducerRecord<byte[], byte[]> record(Integer partition, String key) {
+    return new ProducerRecord<>(
+        "topic-1", partition, key != null ? key.getBytes(UTF_8) : null, "value".getBytes(UTF_8));
+  }
+}
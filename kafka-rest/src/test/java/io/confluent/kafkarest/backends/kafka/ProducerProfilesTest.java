@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.backends.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.kafkarest.exceptions.BadRequestException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.junit.jupiter.api.Test;
+
+public class ProducerProfilesTest {
+
+  private final ProducerPool defaultPool = pool();
+  private final ProducerPool bulkPool = pool();
+  private final ProducerPool interactivePool = pool();
+
+  private final ProducerProfiles profiles =
+      new ProducerProfiles(
+          defaultPool,
+          ImmutableList.of(
+              ProducerProfiles.Profile.create(
+                  "bulk", Optional.of(Pattern.compile("ingest-.*")), bulkPool),
+              ProducerProfiles.Profile.create("interactive", Optional.empty(), interactivePool)));
+
+  @Test
+  public void select_matchingTopic_returnsProfilePool() {
+    assertSame(bulkPool, profiles.select("ingest-events", Optional.empty()));
+  }
+
+  @Test
+  public void select_patternMatchesPartOfTopic_returnsDefaultPool() {
+    assertSame(defaultPool, profiles.select("events-ingest-1", Optional.empty()));
+  }
+
+  @Test
+  public void select_profileName_winsOverTopic() {
+    assertSame(interactivePool, profiles.select("ingest-events", Optional.of("interactive")));
+  }
+
+  @Test
+  public void select_unknownProfileName_throwsBadRequest() {
+    assertThrows(
+        BadRequestException.class, () -> profiles.select("ingest-events", Optional.of("unknown")));
+    assertThrows(
+        BadRequestException.class, () -> profiles.select("orders", Optional.of("unknown")));
+  }
+
+  private static ProducerPool pool() {
+    return new ProducerPool(ImmutableList.of(new MockProducer<>()));
+  }
+}
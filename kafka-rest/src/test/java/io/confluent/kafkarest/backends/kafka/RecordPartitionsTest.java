@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.backends.kafka;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+
+public class RecordPartitionsTest {
+
+  private static final int NUM_PARTITIONS = 10;
+
+  private static final Node NODE = new Node(1, "localhost", 1234);
+
+  private static final Cluster CLUSTER =
+      new Cluster(
+          "cluster-1",
+          ImmutableList.of(NODE),
+          IntStream.range(0, NUM_PARTITIONS)
+              .mapToObj(
+                  partition ->
+                      new PartitionInfo(
+                          "topic-1", partition, NODE, new Node[] {NODE}, new Node[] {NODE}))
+              .collect(Collectors.toList()),
+          ImmutableSet.of(),
+          ImmutableSet.of());
+
+  // Lookups only run when the test says so.
+  private final List<Runnable> lookups = new ArrayList<>();
+  private final RecordPartitions recordPartitions =
+      new RecordPartitions(
+          new MockProducer<>(
+              CLUSTER,
+              /* autoComplete= */ true,
+              /* partitioner= */ null,
+              new ByteArraySerializer(),
+              new ByteArraySerializer()),
+          lookups::add);
+
+  @Test
+  public void partitionOf_explicitPartition_noLookup() {
+    assertEquals(OptionalInt.of(3), recordPartitions.partitionOf(record("topic-1", 3, "key")));
+    assertEquals(0, lookups.size());
+  }
+
+  @Test
+  public void partitionOf_noKeyNorPartition_empty() {
+    assertEquals(OptionalInt.empty(), recordPartitions.partitionOf(record("topic-1", null, null)));
+    assertEquals(0, lookups.size());
+  }
+
+  @Test
+  public void partitionOf_partitionCountUnknown_emptyUntilLookedUpInBackground() {
+    assertEquals(OptionalInt.empty(), recordPartitions.partitionOf(record("topic-1", null, "key")));
+    assertEquals(OptionalInt.empty(), recordPartitions.partitionOf(record("topic-1", null, "key")));
+    // A single lookup per topic at a time.
+    assertEquals(1, lookups.size());
+
+    lookups.remove(0).run();
+
+    assertEquals(
+        OptionalInt.of(Utils.toPositive(Utils.murmur2("key".getBytes(UTF_8))) % NUM_PARTITIONS),
+        recordPartitions.partitionOf(record("topic-1", null, "key")));
+    assertEquals(0, lookups.size());
+  }
+
+  @Test
+  public void partitionOf_unknownTopic_lookedUpAgain() {
+    assertEquals(OptionalInt.empty(), recordPartitions.partitionOf(record("topic-2", null, "key")));
+    lookups.remove(0).run();
+
+    assertEquals(OptionalInt.empty(), recordPartitions.partitionOf(record("topic-2", null, "key")));
+    assertEquals(1, lookups.size());
+  }
+
+  private static ProducerRecord<byte[], byte[]> record(
+      String topic, Integer partition, String key) {
+    return new ProducerRecord<>(
+        topic, partition, key != null ? key.getBytes(UTF_8) : null, "value".getBytes(UTF_8));
+  }
+}
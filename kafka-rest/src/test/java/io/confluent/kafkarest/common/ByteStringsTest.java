@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.google.protobuf.ByteString;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class ByteStringsTest {
+
+  @Test
+  public void wrap_doesNotCopy() {
+    byte[] bytes = "foobar".getBytes(StandardCharsets.UTF_8);
+
+    ByteString wrapped = ByteStrings.wrap(bytes);
+
+    assertEquals(ByteString.copyFromUtf8("foobar"), wrapped);
+    assertSame(bytes, ByteStrings.toByteArray(wrapped));
+  }
+
+  @Test
+  public void toByteArray_substring_copies() {
+    ByteString substring = ByteStrings.wrap("foobar".getBytes(StandardCharsets.UTF_8)).substring(3);
+
+    assertArrayEquals("bar".getBytes(StandardCharsets.UTF_8), ByteStrings.toByteArray(substring));
+  }
+
+  @Test
+  public void toByteArray_rope_copies() {
+    ByteString rope =
+        ByteStrings.wrap("foo".getBytes(StandardCharsets.UTF_8))
+            .concat(ByteStrings.wrap("bar".getBytes(StandardCharsets.UTF_8)));
+
+    assertArrayEquals("foobar".getBytes(StandardCharsets.UTF_8), ByteStrings.toByteArray(rope));
+  }
+
+  @Test
+  public void toByteArray_empty_returnsEmptyArray() {
+    assertArrayEquals(new byte[0], ByteStrings.toByteArray(ByteString.EMPTY));
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.mock;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.RegisteredSchema;
+import java.time.Duration;
+import java.util.Optional;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.metrics.Metrics;
+import org.easymock.IExpectationSetters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachingSchemaManagerTest {
+
+  private static final String TOPIC_NAME = "topic-1";
+  private static final String RAW_SCHEMA = "{\"type\": \"int\"}";
+  private static final RegisteredSchema SCHEMA =
+      RegisteredSchema.create("topic-1-value", 1, 1, new AvroSchema(RAW_SCHEMA));
+
+  private SchemaManager delegate;
+  private Metrics metrics;
+
+  @BeforeEach
+  public void setUp() {
+    delegate = mock(SchemaManager.class);
+    metrics = new Metrics();
+  }
+
+  @Test
+  public void getSchema_sameSelectors_resolvesOnce() {
+    expectGetSchemaById(1).andReturn(SCHEMA).once();
+    replay(delegate);
+
+    SchemaManager schemaManager =
+        new CachingSchemaManager(delegate, 10, Duration.ofMinutes(1), metrics);
+
+    assertSame(SCHEMA, getSchemaById(schemaManager, 1));
+    assertSame(SCHEMA, getSchemaById(schemaManager, 1));
+
+    verify(delegate);
+    assertEquals(1.0, metricValue(CachingSchemaManager.HIT_TOTAL_METRIC_NAME));
+    assertEquals(1.0, metricValue(CachingSchemaManager.MISS_TOTAL_METRIC_NAME));
+    assertEquals(1.0, metricValue(CachingSchemaManager.SIZE_METRIC_NAME));
+  }
+
+  @Test
+  public void getSchema_differentSelectors_resolvesEach() {
+    expectGetSchemaById(1).andReturn(SCHEMA).once();
+    expect(
+            delegate.getSchema(
+                TOPIC_NAME,
+                Optional.of(EmbeddedFormat.AVRO),
+                /* subject= */ Optional.empty(),
+                /* subjectNameStrategy= */ Optional.empty(),
+                /* schemaId= */ Optional.empty(),
+                /* schemaVersion= */ Optional.empty(),
+                Optional.of(RAW_SCHEMA),
+                /* isKey= */ false))
+        .andReturn(SCHEMA)
+        .once();
+    replay(delegate);
+
+    SchemaManager schemaManager =
+        new CachingSchemaManager(delegate, 10, Duration.ofMinutes(1), metrics);
+
+    getSchemaById(schemaManager, 1);
+    schemaManager.getSchema(
+        TOPIC_NAME,
+        Optional.of(EmbeddedFormat.AVRO),
+        /* subject= */ Optional.empty(),
+        /* subjectNameStrategy= */ Optional.empty(),
+        /* schemaId= */ Optional.empty(),
+        /* schemaVersion= */ Optional.empty(),
+        Optional.of(RAW_SCHEMA),
+        /* isKey= */ false);
+
+    verify(delegate);
+    assertEquals(0.0, metricValue(CachingSchemaManager.HIT_TOTAL_METRIC_NAME));
+    assertEquals(2.0, metricValue(CachingSchemaManager.MISS_TOTAL_METRIC_NAME));
+  }
+
+  @Test
+  public void getSchema_failedResolution_notCached() {
+    expectGetSchemaById(1).andThrow(new SerializationException("Schema Registry is down"));
+    expectGetSchemaById(1).andReturn(SCHEMA);
+    replay(delegate);
+
+    SchemaManager schemaManager =
+        new CachingSchemaManager(delegate, 10, Duration.ofMinutes(1), metrics);
+
+    assertThrows(SerializationException.class, () -> getSchemaById(schemaManager, 1));
+    assertSame(SCHEMA, getSchemaById(schemaManager, 1));
+
+    verify(delegate);
+  }
+
+  @Test
+  public void getSchema_cacheFull_evicts() {
+    expectGetSchemaById(1).andReturn(SCHEMA).once();
+    expectGetSchemaById(2).andReturn(SCHEMA).once();
+    replay(delegate);
+
+    SchemaManager schemaManager =
+        new CachingSchemaManager(delegate, 1, Duration.ofMinutes(1), metrics);
+
+    getSchemaById(schemaManager, 1);
+    getSchemaById(schemaManager, 2);
+
+    verify(delegate);
+    assertEquals(1.0, metricValue(CachingSchemaManager.EVICTION_TOTAL_METRIC_NAME));
+    assertEquals(1.0, metricValue(CachingSchemaManager.SIZE_METRIC_NAME));
+  }
+
+  private IExpectationSetters<RegisteredSchema> expectGetSchemaById(int schemaId) {
+    return expect(
+        delegate.getSchema(
+            TOPIC_NAME,
+            /* format= */ Optional.empty(),
+            /* subject= */ Optional.empty(),
+            /* subjectNameStrategy= */ Optional.empty(),
+            Optional.of(schemaId),
+            /* schemaVersion= */ Optional.empty(),
+            /* rawSchema= */ Optional.empty(),
+            /* isKey= */ false));
+  }
+
+  private static RegisteredSchema getSchemaById(SchemaManager schemaManager, int schemaId) {
+    return schemaManager.getSchema(
+        TOPIC_NAME,
+        /* format= */ Optional.empty(),
+        /* subject= */ Optional.empty(),
+        /* subjectNameStrategy= */ Optional.empty(),
+        Optional.of(schemaId),
+        /* schemaVersion= */ Optional.empty(),
+        /* rawSchema= */ Optional.empty(),
+        /* isKey= */ false);
+  }
+
+  private double metricValue(String name) {
+    return (double)
+        metrics
+            .metric(metrics.metricName(name, CachingSchemaManager.GROUP_NAME))
+            .metricValue();
+  }
+}
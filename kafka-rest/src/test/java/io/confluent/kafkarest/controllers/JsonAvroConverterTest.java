@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+public class JsonAvroConverterTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final AvroSchema SCHEMA =
+      new AvroSchema(
+          "{\"type\": \"record\", \"name\": \"Node\", \"namespace\": \"com.example\", \"fields\": ["
+              + "{\"name\": \"id\", \"type\": \"long\"},"
+              + "{\"name\": \"count\", \"type\": \"int\"},"
+              + "{\"name\": \"ratio\", \"type\": \"float\"},"
+              + "{\"name\": \"score\", \"type\": \"double\"},"
+              + "{\"name\": \"active\", \"type\": \"boolean\"},"
+              + "{\"name\": \"name\", \"type\": \"string\"},"
+              + "{\"name\": \"payload\", \"type\": \"bytes\"},"
+              + "{\"name\": \"hash\", \"type\": {\"type\": \"fixed\", \"name\": \"Hash\", "
+              + "\"size\": 2}},"
+              + "{\"name\": \"color\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", "
+              + "\"symbols\": [\"RED\", \"GREEN\"]}},"
+              + "{\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+              + "{\"name\": \"attributes\", \"type\": {\"type\": \"map\", \"values\": \"long\"}},"
+              + "{\"name\": \"note\", \"type\": [\"null\", \"string\"], \"default\": null},"
+              + "{\"name\": \"next\", \"type\": [\"null\", \"Node\"], \"default\": null}"
+              + "]}");
+
+  private static final String VALID_NODE =
+      "{\"id\": 1, \"count\": 2, \"ratio\": 0.5, \"score\": 1.25, \"active\": true, "
+          + "\"name\": \"foo\", \"payload\": \"\\u00ff\\u0000\", \"hash\": \"ab\", "
+          + "\"color\": \"GREEN\", \"tags\": [\"a\", \"b\"], \"attributes\": {\"x\": 1}, "
+          + "\"note\": {\"string\": \"bar\"}, \"next\": %s}";
+
+  private final JsonAvroConverter converter = new JsonAvroConverter();
+
+  @Test
+  public void toObject_validRecord_sameAsGenericConversion() throws Exception {
+    String next = "{\"com.example.Node\": " + String.format(VALID_NODE, "null") + "}";
+    JsonNode data = OBJECT_MAPPER.readTree(String.format(VALID_NODE, next));
+
+    byte[] expected = encode(AvroSchemaUtils.toObject(data, SCHEMA), SCHEMA);
+    assertArrayEquals(expected, encode(converter.toObject(data, SCHEMA), SCHEMA));
+    // Second time around the compiled converter is reused.
+    assertArrayEquals(expected, encode(converter.toObject(data, SCHEMA), SCHEMA));
+  }
+
+  @Test
+  public void toObject_primitiveSchemas_sameAsGenericConversion() throws Exception {
+    assertSameAsGeneric("{\"type\": \"int\"}", "123");
+    assertSameAsGeneric("{\"type\": \"long\"}", "12345678901");
+    assertSameAsGeneric("{\"type\": \"float\"}", "123.456");
+    assertSameAsGeneric("{\"type\": \"double\"}", "7");
+    assertSameAsGeneric("{\"type\": \"string\"}", "\"foo\"");
+    assertSameAsGeneric("{\"type\": \"boolean\"}", "false");
+  }
+
+  @Test
+  public void toObject_logicalType_fallsBackToGenericConversion() throws Exception {
+    AvroSchema schema = new AvroSchema("{\"type\": \"int\", \"logicalType\": \"date\"}");
+    JsonNode data = OBJECT_MAPPER.readTree("19000");
+
+    assertEquals(AvroSchemaUtils.toObject(data, schema), converter.toObject(data, schema));
+  }
+
+  @Test
+  public void toObject_unionWithoutWrapper_fallsBackToGenericConversion() throws Exception {
+    AvroSchema schema = new AvroSchema("[\"null\", \"string\"]");
+    JsonNode data = OBJECT_MAPPER.readTree("\"foo\"");
+
+    assertSameErrorAsGeneric(schema, data);
+  }
+
+  @Test
+  public void toObject_wrongType_fallsBackToGenericConversion() throws Exception {
+    AvroSchema schema = new AvroSchema("{\"type\": \"int\"}");
+    JsonNode data = OBJECT_MAPPER.readTree("\"foo\"");
+
+    assertSameErrorAsGeneric(schema, data);
+  }
+
+  private void assertSameAsGeneric(String schemaString, String json) throws Exception {
+    AvroSchema schema = new AvroSchema(schemaString);
+    JsonNode data = OBJECT_MAPPER.readTree(json);
+    assertArrayEquals(
+        encode(AvroSchemaUtils.toObject(data, schema), schema),
+        encode(converter.toObject(data, schema), schema));
+  }
+
+  private void assertSameErrorAsGeneric(AvroSchema schema, JsonNode data) {
+    Exception expected =
+        assertThrows(Exception.class, () -> AvroSchemaUtils.toObject(data, schema));
+    Exception actual = assertThrows(Exception.class, () -> converter.toObject(data, schema));
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getMessage(), actual.getMessage());
+  }
+
+  private static byte[] encode(Object datum, AvroSchema schema) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, /* reuse= */ null);
+    new GenericDatumWriter<>(schema.rawSchema()).write(datum, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaUtils;
+import org.junit.jupiter.api.Test;
+
+public class JsonProtobufConverterTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final ProtobufSchema SCHEMA =
+      new ProtobufSchema(
+          "syntax = \"proto3\";\n"
+              + "package com.example;\n"
+              + "import \"google/protobuf/timestamp.proto\";\n"
+              + "message Node {\n"
+              + "  int64 id = 1;\n"
+              + "  int32 count = 2;\n"
+              + "  uint32 flags = 3;\n"
+              + "  float ratio = 4;\n"
+              + "  double score = 5;\n"
+              + "  bool active = 6;\n"
+              + "  string display_name = 7;\n"
+              + "  bytes payload = 8;\n"
+              + "  Color color = 9;\n"
+              + "  repeated string tags = 10;\n"
+              + "  map<string, int64> attributes = 11;\n"
+              + "  Node next = 12;\n"
+              + "  oneof choice {\n"
+              + "    string left = 13;\n"
+              + "    int32 right = 14;\n"
+              + "  }\n"
+              + "  google.protobuf.Timestamp created = 15;\n"
+              + "}\n"
+              + "enum Color {\n"
+              + "  RED = 0;\n"
+              + "  GREEN = 1;\n"
+              + "}\n");
+
+  private static final String VALID_NODE =
+      "{\"id\": 1, \"count\": 2, \"flags\": 4294967295, \"ratio\": 0.5, \"score\": 1.25, "
+          + "\"active\": true, \"displayName\": \"foo\", \"payload\": \"AQI=\", "
+          + "\"color\": \"GREEN\", \"tags\": [\"a\", \"b\"], \"attributes\": {\"x\": 1}, "
+          + "\"left\": \"bar\", \"next\": %s}";
+
+  private final JsonProtobufConverter converter = new JsonProtobufConverter();
+
+  @Test
+  public void toObject_validMessage_sameAsGenericConversion() throws Exception {
+    String next = String.format(VALID_NODE.replace("displayName", "display_name"), "null");
+    // A null message field is left to the generic conversion, so nest without one.
+    next = next.replace(", \"next\": null", "");
+    JsonNode data = OBJECT_MAPPER.readTree(String.format(VALID_NODE, next));
+
+    Object expected = ProtobufSchemaUtils.toObject(data, SCHEMA);
+    assertEquals(expected, converter.toObject(data, SCHEMA));
+    // Second time around the compiled converter is reused.
+    assertEquals(expected, converter.toObject(data, SCHEMA));
+  }
+
+  @Test
+  public void toObject_wellKnownType_fallsBackToGenericConversion() throws Exception {
+    JsonNode data = OBJECT_MAPPER.readTree("{\"created\": \"2026-01-01T00:00:00Z\"}");
+
+    assertEquals(ProtobufSchemaUtils.toObject(data, SCHEMA), converter.toObject(data, SCHEMA));
+  }
+
+  @Test
+  public void toObject_numberAsString_fallsBackToGenericConversion() throws Exception {
+    JsonNode data = OBJECT_MAPPER.readTree("{\"id\": \"12345678901\", \"color\": 1}");
+
+    assertEquals(ProtobufSchemaUtils.toObject(data, SCHEMA), converter.toObject(data, SCHEMA));
+  }
+
+  @Test
+  public void toObject_unknownField_fallsBackToGenericConversion() throws Exception {
+    assertSameErrorAsGeneric(OBJECT_MAPPER.readTree("{\"foo\": 1}"));
+  }
+
+  @Test
+  public void toObject_twoFieldsOfOneof_fallsBackToGenericConversion() throws Exception {
+    assertSameErrorAsGeneric(OBJECT_MAPPER.readTree("{\"left\": \"foo\", \"right\": 1}"));
+  }
+
+  @Test
+  public void toObject_fieldSetByBothNames_fallsBackToGenericConversion() throws Exception {
+    assertSameErrorAsGeneric(
+        OBJECT_MAPPER.readTree("{\"displayName\": \"foo\", \"display_name\": \"bar\"}"));
+  }
+
+  private void assertSameErrorAsGeneric(JsonNode data) {
+    Exception expected =
+        assertThrows(Exception.class, () -> ProtobufSchemaUtils.toObject(data, SCHEMA));
+    Exception actual = assertThrows(Exception.class, () -> converter.toObject(data, SCHEMA));
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getMessage(), actual.getMessage());
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.mock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.confluent.kafkarest.backends.kafka.ProducerPool;
+import io.confluent.kafkarest.backends.kafka.ProducerProfiles;
+import io.confluent.kafkarest.entities.ProduceResult;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.clients.producer.RoundRobinPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Test;
+
+public class PartitionBatchingProducerTest {
+
+  private static final Node NODE = new Node(1, "localhost", 1234);
+
+  private static final Cluster CLUSTER =
+      new Cluster(
+          "cluster-1",
+          singletonList(NODE),
+          singletonList(
+              new PartitionInfo("topic-1", 0, NODE, new Node[] {NODE}, new Node[] {NODE})),
+          emptySet(),
+          emptySet());
+
+  private static final int NUM_THREADS = 8;
+  private static final int RECORDS_PER_THREAD = 1000;
+
+  @Test
+  public void send_concurrentRecords_sendsAllInOrderPerThread() throws Exception {
+    MockProducer<byte[], byte[]> producer =
+        new MockProducer<>(
+            CLUSTER,
+            /* autoComplete= */ true,
+            new RoundRobinPartitioner(),
+            new ByteArraySerializer(),
+            new ByteArraySerializer());
+    PartitionBatchingProducer batchingProducer =
+        new PartitionBatchingProducer(producer, /* maxBurstRecords= */ 16);
+
+    ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+    List<Future<List<CompletableFuture<ProduceResult>>>> threads = new ArrayList<>();
+    for (int thread = 0; thread < NUM_THREADS; thread++) {
+      int threadId = thread;
+      threads.add(
+          executor.submit(
+              () -> {
+                List<CompletableFuture<ProduceResult>> results = new ArrayList<>();
+                for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                  results.add(
+                      batchingProducer.send(
+                          new ProducerRecord<>("topic-1", 0, encode(threadId), encode(i))));
+                }
+                return results;
+              }));
+    }
+    for (Future<List<CompletableFuture<ProduceResult>>> thread : threads) {
+      for (CompletableFuture<ProduceResult> result : thread.get()) {
+        assertEquals(0, result.join().getPartitionId());
+      }
+    }
+    executor.shutdown();
+
+    assertEquals(NUM_THREADS * RECORDS_PER_THREAD, producer.history().size());
+    int[] nextRecord = new int[NUM_THREADS];
+    for (ProducerRecord<byte[], byte[]> record : producer.history()) {
+      int threadId = decode(record.key());
+      assertEquals(nextRecord[threadId]++, decode(record.value()));
+    }
+  }
+
+  @Test
+  public void send_producerThrows_failsRecord() {
+    KafkaException exception = new KafkaException("Producer closed.");
+    @SuppressWarnings("unchecked")
+    Producer<byte[], byte[]> producer = mock(Producer.class);
+    expect(producer.send(anyObject(), anyObject(Callback.class))).andThrow(exception);
+    replay(producer);
+    PartitionBatchingProducer batchingProducer =
+        new PartitionBatchingProducer(producer, /* maxBurstRecords= */ 16);
+
+    CompletableFuture<ProduceResult> result =
+        batchingProducer.send(new ProducerRecord<>("topic-1", 0, encode(0), encode(0)));
+
+    CompletionException error = assertThrows(CompletionException.class, result::join);
+    assertSame(exception, error.getCause());
+  }
+
+  @Test
+  public void send_whilePartitionIsDrained_queuesKeyedRecordsAndSendsUnkeyedOnes()
+      throws Exception {
+    CountDownLatch sendingFirst = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    List<String> sent = new CopyOnWriteArrayList<>();
+    Map<String, String> senderThreads = new ConcurrentHashMap<>();
+    MockProducer<byte[], byte[]> producer =
+        new MockProducer<byte[], byte[]>(
+            CLUSTER,
+            /* autoComplete= */ true,
+            new RoundRobinPartitioner(),
+            new ByteArraySerializer(),
+            new ByteArraySerializer()) {
+          @Override
+          public Future<RecordMetadata> send(
+              ProducerRecord<byte[], byte[]> record, Callback callback) {
+            String value = new String(record.value(), StandardCharsets.UTF_8);
+            sent.add(value);
+            senderThreads.put(value, Thread.currentThread().getName());
+            if (value.equals("first")) {
+              sendingFirst.countDown();
+              Uninterruptibles.awaitUninterruptibly(releaseFirst);
+            }
+            return super.send(record, callback);
+          }
+        };
+    // Looks up the partition count of the topic inline, so that the keyed record gets queued.
+    PartitionBatchingProducer batchingProducer =
+        new PartitionBatchingProducer(
+            new ProducerProfiles(
+                new ProducerPool(ImmutableList.of(producer), MoreExecutors.directExecutor()),
+                ImmutableList.of()),
+            /* maxBurstRecords= */ 2);
+    byte[] key = "key".getBytes(StandardCharsets.UTF_8);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<CompletableFuture<ProduceResult>> first =
+        executor.submit(() -> batchingProducer.send(record(0, key, "first")));
+    sendingFirst.await();
+    List<CompletableFuture<ProduceResult>> results = new ArrayList<>();
+    results.add(batchingProducer.send(record(0, key, "queued-1")));
+    // The only partition of the topic, as far as the key is concerned.
+    results.add(batchingProducer.send(record(null, key, "keyed")));
+    results.add(batchingProducer.send(record(0, key, "queued-2")));
+    results.add(batchingProducer.send(record(null, null, "unkeyed")));
+    assertEquals(Arrays.asList("first", "unkeyed"), sent);
+
+    releaseFirst.countDown();
+    first.get().join();
+    for (CompletableFuture<ProduceResult> result : results) {
+      result.join();
+    }
+    executor.shutdown();
+    batchingProducer.close();
+
+    assertEquals(Arrays.asList("first", "unkeyed", "queued-1", "keyed", "queued-2"), sent);
+    // The first burst is over after two records, the rest is sent in the background.
+    assertTrue(senderThreads.get("keyed").startsWith("Partition-batch-drain-thread"));
+    assertTrue(senderThreads.get("queued-2").startsWith("Partition-batch-drain-thread"));
+  }
+
+  private static ProducerRecord<byte[], byte[]> record(
+      Integer partition, byte[] key, String value) {
+    return new ProducerRecord<>("topic-1", partition, key, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static byte[] encode(int value) {
+    return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+  }
+
+  private static int decode(byte[] bytes) {
+    return ByteBuffer.wrap(bytes).getInt();
+  }
+}
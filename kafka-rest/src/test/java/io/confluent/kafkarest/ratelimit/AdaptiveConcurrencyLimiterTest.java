@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  public void limit_rejectsPastLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 1, 2);
+    CompletableFuture<Void> first = new CompletableFuture<>();
+    limiter.limit(() -> first);
+    limiter.limit(CompletableFuture::new);
+
+    assertThrows(
+        ConcurrencyLimitExceededException.class, () -> limiter.limit(CompletableFuture::new));
+
+    first.complete(null);
+    limiter.limit(CompletableFuture::new);
+    assertEquals(2, limiter.getInFlight());
+  }
+
+  @Test
+  public void limit_disabled_neverRejects() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(false, 1, 1);
+
+    for (int i = 0; i < 10; i++) {
+      limiter.limit(CompletableFuture::new);
+    }
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  public void limit_producerTimeout_shrinksLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 1, 100);
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    limiter.limit(() -> result);
+
+    result.completeExceptionally(new TimeoutException("Expiring 1 record(s)"));
+
+    assertEquals(90, limiter.getLimit());
+  }
+
+  @Test
+  public void release_latencySpike_shrinksLimitOncePerLatency() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 1, 100);
+    long now = System.nanoTime();
+    for (int i = 0; i < 100; i++) {
+      acquireAndRelease(limiter, MILLIS, now);
+    }
+    assertEquals(100, limiter.getLimit());
+
+    now += TimeUnit.SECONDS.toNanos(1);
+    for (int i = 0; i < 10; i++) {
+      acquireAndRelease(limiter, 100 * MILLIS, now);
+    }
+    assertEquals(90, limiter.getLimit());
+
+    now += TimeUnit.SECONDS.toNanos(1);
+    acquireAndRelease(limiter, 100 * MILLIS, now);
+    assertEquals(81, limiter.getLimit());
+  }
+
+  @Test
+  public void release_busyAndHealthy_growsLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 1, 100);
+    long now = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    acquireAndRelease(limiter, MILLIS, /* overloaded= */ true, now);
+    assertEquals(90, limiter.getLimit());
+
+    // Only a few requests in flight: no need for a higher limit.
+    acquireAndRelease(limiter, MILLIS, now);
+    assertEquals(90, limiter.getLimit());
+
+    for (int i = 0; i < 45; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    limiter.release(MILLIS, /* overloaded= */ false, now);
+    assertEquals(91, limiter.getLimit());
+  }
+
+  @Test
+  public void release_neverGoesBelowMinimum() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 5, 5);
+    long now = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+    acquireAndRelease(limiter, MILLIS, /* overloaded= */ true, now);
+
+    assertEquals(5, limiter.getLimit());
+  }
+
+  private static void acquireAndRelease(
+      AdaptiveConcurrencyLimiter limiter, long latencyNs, long now) {
+    acquireAndRelease(limiter, latencyNs, /* overloaded= */ false, now);
+  }
+
+  private static void acquireAndRelease(
+      AdaptiveConcurrencyLimiter limiter, long latencyNs, boolean overloaded, long now) {
+    assertTrue(limiter.tryAcquire());
+    limiter.release(latencyNs, overloaded, now);
+  }
+}
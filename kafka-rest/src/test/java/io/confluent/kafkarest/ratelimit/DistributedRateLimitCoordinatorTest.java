@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import static io.confluent.kafkarest.ratelimit.DistributedRateLimitCoordinator.fairShare;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class DistributedRateLimitCoordinatorTest {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void fairShare_singleReplica_getsWholeRateLimit() {
+    assertEquals(100, fairShare(100, ImmutableMap.of("a", 0L), "a", 1), DELTA);
+  }
+
+  @Test
+  public void fairShare_busyReplicas_splitEvenly() {
+    ImmutableMap<String, Long> demands = ImmutableMap.of("a", 1000L, "b", 1000L);
+
+    assertEquals(50, fairShare(100, demands, "a", 1), DELTA);
+    assertEquals(50, fairShare(100, demands, "b", 1), DELTA);
+  }
+
+  @Test
+  public void fairShare_quietReplica_leavesRestToBusyOne() {
+    ImmutableMap<String, Long> demands = ImmutableMap.of("a", 10L, "b", 1000L);
+
+    assertEquals(10, fairShare(100, demands, "a", 1), DELTA);
+    assertEquals(90, fairShare(100, demands, "b", 1), DELTA);
+  }
+
+  @Test
+  public void fairShare_quietReplicas_splitLeftoverEvenly() {
+    ImmutableMap<String, Long> demands = ImmutableMap.of("a", 10L, "b", 20L);
+
+    assertEquals(45, fairShare(100, demands, "a", 1), DELTA);
+    assertEquals(55, fairShare(100, demands, "b", 1), DELTA);
+  }
+
+  @Test
+  public void fairShare_demandIsPerInterval() {
+    assertEquals(100, fairShare(100, ImmutableMap.of("a", 100L), "a", 2), DELTA);
+    assertEquals(50, fairShare(100, ImmutableMap.of("a", 100L, "b", 1000L), "a", 2), DELTA);
+  }
+
+  @Test
+  public void fairShare_unpublishedReplica_getsMinimum() {
+    assertEquals(1, fairShare(100, ImmutableMap.of("b", 1000L), "a", 1), DELTA);
+  }
+
+  @Test
+  public void sync_publishesDemandSincePreviousSync() {
+    InMemoryRateLimitStateStore store = new InMemoryRateLimitStateStore();
+    DistributedRateLimitCoordinator coordinator =
+        new DistributedRateLimitCoordinator(store, "first", Duration.ofSeconds(1));
+    DistributedRateLimiter rateLimiter = coordinator.create("count", 100, Duration.ZERO);
+
+    rateLimiter.rateLimit(5);
+    coordinator.sync();
+    assertEquals(
+        ImmutableMap.of("count", ImmutableMap.of("first", 5L, "second", 0L)),
+        store.exchange("second", ImmutableMap.of("count", 0L)));
+
+    coordinator.sync();
+    assertEquals(
+        ImmutableMap.of("count", ImmutableMap.of("first", 0L, "second", 0L)),
+        store.exchange("second", ImmutableMap.of("count", 0L)));
+  }
+
+  @Test
+  public void scopedTo_appendsScopeToKey() {
+    DistributedRateLimitCoordinator coordinator =
+        new DistributedRateLimitCoordinator(
+            new InMemoryRateLimitStateStore(), "replica", Duration.ofSeconds(1));
+    DistributedRateLimiter rateLimiter = coordinator.create("produce-count", 10, Duration.ZERO);
+
+    RequestRateLimiter loaded = new RequestRateLimiterCacheLoader(() -> rateLimiter).load("lkc-1");
+
+    assertEquals("produce-count/lkc-1", ((DistributedRateLimiter) loaded).getKey());
+  }
+
+  @Test
+  public void scopedTo_otherBackends_loadedAsIs() {
+    RequestRateLimiter rateLimiter = TokenBucketRateLimiter.create(10, Duration.ZERO);
+
+    assertSame(rateLimiter, new RequestRateLimiterCacheLoader(() -> rateLimiter).load("lkc-1"));
+  }
+
+  @Test
+  public void inMemoryStore_forgetsSilentReplicas() {
+    FakeTicker ticker = new FakeTicker();
+    InMemoryRateLimitStateStore store =
+        new InMemoryRateLimitStateStore(Duration.ofSeconds(10), ticker);
+
+    store.exchange("first", ImmutableMap.of("count", 1L));
+    assertEquals(
+        ImmutableMap.of("count", ImmutableMap.of("first", 1L, "second", 2L)),
+        store.exchange("second", ImmutableMap.of("count", 2L)));
+
+    ticker.advance(Duration.ofSeconds(11));
+    assertEquals(
+        ImmutableMap.of("count", ImmutableMap.of("second", 3L)),
+        store.exchange("second", ImmutableMap.of("count", 3L)));
+  }
+
+  @Test
+  public void rateLimit_deniedRequestsCountAsDemand() {
+    DistributedRateLimitCoordinator coordinator =
+        new DistributedRateLimitCoordinator(
+            new InMemoryRateLimitStateStore(), "replica", Duration.ofSeconds(1));
+    DistributedRateLimiter rateLimiter = coordinator.create("count", 1, Duration.ZERO);
+
+    rateLimiter.rateLimit(1);
+    assertThrows(RateLimitExceededException.class, () -> rateLimiter.rateLimit(1));
+
+    assertEquals(2, rateLimiter.drainDemand());
+    assertEquals(0, rateLimiter.drainDemand());
+  }
+
+  private static final class FakeTicker extends Ticker {
+    private long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    private void advance(Duration duration) {
+      nanos += TimeUnit.NANOSECONDS.convert(duration);
+    }
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketRateLimiterTest {
+
+  private final FakeTicker ticker = new FakeTicker();
+
+  @Test
+  public void rateLimit_deniesWhileInDebt() {
+    TokenBucketRateLimiter rateLimiter =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+
+    rateLimiter.rateLimit(1);
+    assertThrows(RateLimitExceededException.class, () -> rateLimiter.rateLimit(1));
+
+    ticker.advance(100);
+    rateLimiter.rateLimit(1);
+    assertThrows(RateLimitExceededException.class, () -> rateLimiter.rateLimit(1));
+  }
+
+  @Test
+  public void rateLimit_burstsUpToOneSecondOfPermits() {
+    TokenBucketRateLimiter rateLimiter =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+
+    ticker.advance(5000);
+
+    // 10 stored permits, plus the one request that is allowed to run into debt.
+    assertEquals(11, countGranted(rateLimiter, 100));
+  }
+
+  @Test
+  public void rateLimit_zeroCost_neverDenied() {
+    TokenBucketRateLimiter rateLimiter =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+
+    rateLimiter.rateLimit(100);
+    rateLimiter.rateLimit(0);
+  }
+
+  @Test
+  public void rateLimit_stripesServeEachOther() {
+    TokenBucketRateLimiter rateLimiter =
+        new TokenBucketRateLimiter(40, Duration.ZERO, /* stripes= */ 4, ticker);
+
+    ticker.advance(1000);
+
+    // Each of the 4 stripes has 10 stored permits, plus one request allowed to run into debt.
+    assertEquals(44, countGranted(rateLimiter, 100));
+  }
+
+  @Test
+  public void rateLimitAll_givesBackPermitsWhenDenied() {
+    TokenBucketRateLimiter first =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+    TokenBucketRateLimiter second =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+    second.rateLimit(1);
+
+    assertEquals(
+        1,
+        RequestRateLimiter.rateLimitAll(
+            new RequestRateLimiter[] {first, second}, new int[] {1, 1}));
+
+    // The permit taken from the first rate-limiter has been given back.
+    first.rateLimit(1);
+    assertThrows(RateLimitExceededException.class, () -> first.rateLimit(1));
+  }
+
+  @Test
+  public void rateLimitAll_allGranted() {
+    TokenBucketRateLimiter first =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+    TokenBucketRateLimiter second =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+
+    assertEquals(
+        -1,
+        RequestRateLimiter.rateLimitAll(
+            new RequestRateLimiter[] {first, second}, new int[] {1, 5}));
+
+    assertThrows(RateLimitExceededException.class, () -> first.rateLimit(1));
+    assertThrows(RateLimitExceededException.class, () -> second.rateLimit(1));
+  }
+
+  @Test
+  public void rateLimitAll_otherBackends_rateLimitsInTurn() {
+    RequestRateLimiter tokenBucket =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+    RequestRateLimiter guava = GuavaRateLimiter.create(1, Duration.ZERO);
+    guava.rateLimit(1);
+
+    assertEquals(
+        1,
+        RequestRateLimiter.rateLimitAll(
+            new RequestRateLimiter[] {tokenBucket, guava}, new int[] {1, 1}));
+
+    // Permits are not given back to the token bucket when mixed with other backends.
+    assertThrows(RateLimitExceededException.class, () -> tokenBucket.rateLimit(1));
+  }
+
+  @Test
+  public void rateLimitPrefix_admitsAvailablePermits() {
+    TokenBucketRateLimiter count =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+    TokenBucketRateLimiter bytes =
+        new TokenBucketRateLimiter(1000, Duration.ZERO, /* stripes= */ 1, ticker);
+    AtomicInteger denied = new AtomicInteger(-1);
+
+    ticker.advance(1000);
+
+    // 10 stored permits, plus the last request of the prefix that is allowed to run into debt.
+    assertEquals(11, rateLimitPrefix(count, bytes, new long[30], denied));
+    assertEquals(0, denied.get());
+
+    denied.set(-1);
+    assertEquals(0, rateLimitPrefix(count, bytes, new long[30], denied));
+    assertEquals(0, denied.get());
+
+    ticker.advance(100);
+    assertEquals(1, rateLimitPrefix(count, bytes, new long[30], denied));
+  }
+
+  @Test
+  public void rateLimitPrefix_cutByBytes() {
+    TokenBucketRateLimiter count =
+        new TokenBucketRateLimiter(100, Duration.ZERO, /* stripes= */ 1, ticker);
+    TokenBucketRateLimiter bytes =
+        new TokenBucketRateLimiter(100, Duration.ZERO, /* stripes= */ 1, ticker);
+    AtomicInteger denied = new AtomicInteger(-1);
+    long[] requestSizes = new long[4];
+    Arrays.fill(requestSizes, 40);
+
+    ticker.advance(1000);
+
+    // The first two requests fit in the 100 stored bytes, the third one runs into debt.
+    assertEquals(3, rateLimitPrefix(count, bytes, requestSizes, denied));
+    assertEquals(1, denied.get());
+
+    // The bytes are in debt for 200ms.
+    ticker.advance(100);
+    assertEquals(0, rateLimitPrefix(count, bytes, requestSizes, denied));
+    ticker.advance(100);
+    assertEquals(1, rateLimitPrefix(count, bytes, requestSizes, denied));
+  }
+
+  @Test
+  public void rateLimitPrefix_cutByLaterPair_earlierPairOnlyChargedForPrefix() {
+    TokenBucketRateLimiter globalCount =
+        new TokenBucketRateLimiter(20, Duration.ZERO, /* stripes= */ 1, ticker);
+    TokenBucketRateLimiter globalBytes =
+        new TokenBucketRateLimiter(1000, Duration.ZERO, /* stripes= */ 1, ticker);
+    TokenBucketRateLimiter tenantCount =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+    TokenBucketRateLimiter tenantBytes =
+        new TokenBucketRateLimiter(1000, Duration.ZERO, /* stripes= */ 1, ticker);
+    AtomicInteger denied = new AtomicInteger(-1);
+
+    ticker.advance(1000);
+
+    assertEquals(
+        11,
+        rateLimitPrefix(
+            new RequestRateLimiter[] {globalCount, globalBytes, tenantCount, tenantBytes},
+            new long[30],
+            denied));
+    assertEquals(2, denied.get());
+
+    // The global count was only charged for the 11 requests that went through, so 9 permits are
+    // left, plus the one request allowed to run into debt.
+    assertEquals(10, countGranted(globalCount, 100));
+  }
+
+  @Test
+  public void rateLimitPrefix_singleRequest_sameAsRateLimit() {
+    TokenBucketRateLimiter count =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+    TokenBucketRateLimiter bytes =
+        new TokenBucketRateLimiter(10, Duration.ZERO, /* stripes= */ 1, ticker);
+    AtomicInteger denied = new AtomicInteger(-1);
+
+    // A request that costs more than the bucket holds goes through, and leaves it in debt.
+    assertEquals(1, rateLimitPrefix(count, bytes, new long[] {100}, denied));
+    assertEquals(-1, denied.get());
+    assertThrows(RateLimitExceededException.class, () -> bytes.rateLimit(1));
+  }
+
+  @Test
+  public void rateLimitPrefix_otherBackends_rateLimitsOneRequestAtATime() {
+    RequestRateLimiter count = GuavaRateLimiter.create(1, Duration.ZERO);
+    RequestRateLimiter bytes = GuavaRateLimiter.create(1000, Duration.ZERO);
+    AtomicInteger denied = new AtomicInteger(-1);
+    long[] requestSizes = new long[30];
+    Arrays.fill(requestSizes, 1);
+
+    // Guava lets the first request run into debt, which denies all the following ones.
+    assertEquals(1, rateLimitPrefix(count, bytes, requestSizes, denied));
+    assertEquals(0, denied.get());
+  }
+
+  @Test
+  public void rateLimitPrefix_otherBackends_cutByBytes() {
+    // Long enough a timeout for the count to never be the one denying.
+    RequestRateLimiter count = GuavaRateLimiter.create(1000, Duration.ofSeconds(1));
+    RequestRateLimiter bytes = GuavaRateLimiter.create(1, Duration.ZERO);
+    AtomicInteger denied = new AtomicInteger(-1);
+
+    assertEquals(1, rateLimitPrefix(count, bytes, new long[] {5, 5}, denied));
+    assertEquals(1, denied.get());
+  }
+
+  private static int rateLimitPrefix(
+      RequestRateLimiter count,
+      RequestRateLimiter bytes,
+      long[] requestSizes,
+      AtomicInteger denied) {
+    return rateLimitPrefix(new RequestRateLimiter[] {count, bytes}, requestSizes, denied);
+  }
+
+  private static int rateLimitPrefix(
+      RequestRateLimiter[] rateLimiters, long[] requestSizes, AtomicInteger denied) {
+    long[] cumulativeSizes = new long[requestSizes.length];
+    long size = 0;
+    for (int i = 0; i < requestSizes.length; i++) {
+      size += requestSizes[i];
+      cumulativeSizes[i] = size;
+    }
+    return RequestRateLimiter.rateLimitPrefix(
+        rateLimiters, cumulativeSizes, cumulativeSizes.length, denied::set);
+  }
+
+  private static int countGranted(RequestRateLimiter rateLimiter, int attempts) {
+    int granted = 0;
+    for (int i = 0; i < attempts; i++) {
+      try {
+        rateLimiter.rateLimit(1);
+        granted++;
+      } catch (RateLimitExceededException e) {
+        // Denied.
+      }
+    }
+    return granted;
+  }
+
+  private static final class FakeTicker extends Ticker {
+    private long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    private void advance(long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+  }
+}
@@ -29,7 +29,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import io.confluent.kafkarest.ratelimit.RateLimitExceededException;
+import io.confluent.kafkarest.ratelimit.RateLimitExceededException.ErrorCodes;
 import io.confluent.kafkarest.ratelimit.RequestRateLimiter;
+import io.confluent.kafkarest.requestlog.CustomLogRequestAttributes;
 import io.confluent.kafkarest.resources.v3.ProduceRateLimiters;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
@@ -516,4 +518,132 @@ public class ProduceRateLimitersTest {
         bytesLimiterGlobal,
         mockRequest);
   }
+
+  @Test
+  public void test_whenBatchBreachesGlobalCountLimit_thenPrefixAdmitted() {
+    Provider<RequestRateLimiter> countLimitProvider = mock(Provider.class);
+    Provider<RequestRateLimiter> bytesLimitProvider = mock(Provider.class);
+    Provider<RequestRateLimiter> countLimiterGlobalProvider = mock(Provider.class);
+    Provider<RequestRateLimiter> bytesLimiterGlobalProvider = mock(Provider.class);
+    RequestRateLimiter countLimiterGlobal = mock(RequestRateLimiter.class);
+    RequestRateLimiter bytesLimiterGlobal = mock(RequestRateLimiter.class);
+    RequestRateLimiter rateLimiterForCount = mock(RequestRateLimiter.class);
+    RequestRateLimiter rateLimiterForBytes = mock(RequestRateLimiter.class);
+    HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+    mockRequest.setAttribute(
+        CustomLogRequestAttributes.REST_ERROR_CODE,
+        ErrorCodes.PRODUCE_MAX_REQUESTS_GLOBAL_LIMIT_EXCEEDED);
+
+    expect(countLimiterGlobalProvider.get()).andReturn(countLimiterGlobal);
+    expect(bytesLimiterGlobalProvider.get()).andReturn(bytesLimiterGlobal);
+    expect(countLimitProvider.get()).andReturn(rateLimiterForCount);
+    expect(bytesLimitProvider.get()).andReturn(rateLimiterForBytes);
+    // Other backends than token buckets rate-limit one request at a time.
+    countLimiterGlobal.rateLimit(1);
+    expectLastCall().times(2);
+    countLimiterGlobal.rateLimit(1);
+    expectLastCall().andThrow(new RateLimitExceededException());
+    bytesLimiterGlobal.rateLimit(10);
+    bytesLimiterGlobal.rateLimit(20);
+    rateLimiterForCount.rateLimit(1);
+    expectLastCall().times(2);
+    rateLimiterForBytes.rateLimit(10);
+    rateLimiterForBytes.rateLimit(20);
+
+    replay(
+        countLimitProvider,
+        bytesLimitProvider,
+        countLimiterGlobalProvider,
+        bytesLimiterGlobalProvider,
+        rateLimiterForCount,
+        rateLimiterForBytes,
+        countLimiterGlobal,
+        bytesLimiterGlobal,
+        mockRequest);
+
+    ProduceRateLimiters produceRateLimiters =
+        new ProduceRateLimiters(
+            countLimitProvider,
+            bytesLimitProvider,
+            countLimiterGlobalProvider,
+            bytesLimiterGlobalProvider,
+            true,
+            Duration.ofHours(1));
+
+    assertEquals(
+        2,
+        produceRateLimiters.rateLimit("clusterId", new long[] {10L, 20L, 30L, 40L}, mockRequest));
+
+    verify(
+        countLimitProvider,
+        bytesLimitProvider,
+        countLimiterGlobalProvider,
+        bytesLimiterGlobalProvider,
+        rateLimiterForCount,
+        rateLimiterForBytes,
+        countLimiterGlobal,
+        bytesLimiterGlobal,
+        mockRequest);
+  }
+
+  @Test
+  public void test_whenBatchBreachesTenantBytesLimit_thenNothingAdmitted() {
+    Provider<RequestRateLimiter> countLimitProvider = mock(Provider.class);
+    Provider<RequestRateLimiter> bytesLimitProvider = mock(Provider.class);
+    Provider<RequestRateLimiter> countLimiterGlobalProvider = mock(Provider.class);
+    Provider<RequestRateLimiter> bytesLimiterGlobalProvider = mock(Provider.class);
+    RequestRateLimiter countLimiterGlobal = mock(RequestRateLimiter.class);
+    RequestRateLimiter bytesLimiterGlobal = mock(RequestRateLimiter.class);
+    RequestRateLimiter rateLimiterForCount = mock(RequestRateLimiter.class);
+    RequestRateLimiter rateLimiterForBytes = mock(RequestRateLimiter.class);
+    HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+    mockRequest.setAttribute(
+        CustomLogRequestAttributes.REST_ERROR_CODE,
+        ErrorCodes.PRODUCE_MAX_BYTES_PER_TENANT_LIMIT_EXCEEDED);
+
+    expect(countLimiterGlobalProvider.get()).andReturn(countLimiterGlobal);
+    expect(bytesLimiterGlobalProvider.get()).andReturn(bytesLimiterGlobal);
+    expect(countLimitProvider.get()).andReturn(rateLimiterForCount);
+    expect(bytesLimitProvider.get()).andReturn(rateLimiterForBytes);
+    // The first request is denied, so the second one is not charged to the global rate-limits.
+    countLimiterGlobal.rateLimit(1);
+    bytesLimiterGlobal.rateLimit(10);
+    rateLimiterForCount.rateLimit(1);
+    rateLimiterForBytes.rateLimit(10);
+    expectLastCall().andThrow(new RateLimitExceededException());
+
+    replay(
+        countLimitProvider,
+        bytesLimitProvider,
+        countLimiterGlobalProvider,
+        bytesLimiterGlobalProvider,
+        rateLimiterForCount,
+        rateLimiterForBytes,
+        countLimiterGlobal,
+        bytesLimiterGlobal,
+        mockRequest);
+
+    ProduceRateLimiters produceRateLimiters =
+        new ProduceRateLimiters(
+            countLimitProvider,
+            bytesLimitProvider,
+            countLimiterGlobalProvider,
+            bytesLimiterGlobalProvider,
+            true,
+            Duration.ofHours(1));
+
+    assertEquals(
+        0, produceRateLimiters.rateLimit("clusterId", new long[] {10L, 20L}, mockRequest));
+
+    verify(
+        countLimitProvider,
+        bytesLimitProvider,
+        countLimiterGlobalProvider,
+        bytesLimiterGlobalProvider,
+        rateLimiterForCount,
+        rateLimiterForBytes,
+        countLimiterGlobal,
+        bytesLimiterGlobal,
+        mockRequest);
+  }
 }
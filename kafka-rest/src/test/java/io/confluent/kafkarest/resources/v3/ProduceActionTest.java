@@ -50,6 +50,7 @@ import io.confluent.kafkarest.entities.v3.ProduceRequest;
 import io.confluent.kafkarest.entities.v3.ProduceRequest.ProduceRequestData;
 import io.confluent.kafkarest.entities.v3.ProduceResponse;
 import io.confluent.kafkarest.exceptions.v3.ErrorResponse;
+import io.confluent.kafkarest.ratelimit.AdaptiveConcurrencyLimiter;
 import io.confluent.kafkarest.ratelimit.RateLimitExceededException;
 import io.confluent.kafkarest.ratelimit.RequestRateLimiter;
 import io.confluent.kafkarest.requestlog.CustomLog.ProduceRecordErrorCounter;
@@ -1293,6 +1294,7 @@ public class ProduceActionTest {
             () -> new ProducerMetrics(kafkaRestConfig, emptyMap()),
             streamingResponseFactory,
             produceRateLimiters,
+            new AdaptiveConcurrencyLimiter(/* enabled= */ false, 1, 1),
             executorService,
             httpServletRequest);
     produceRateLimiters.clear();
@@ -52,6 +52,7 @@ import io.confluent.kafkarest.entities.v3.ProduceBatchResponseSuccessEntry;
 import io.confluent.kafkarest.entities.v3.ProduceRequest.ProduceRequestData;
 import io.confluent.kafkarest.entities.v3.ProduceResponse.ProduceResponseData;
 import io.confluent.kafkarest.exceptions.BadRequestException;
+import io.confluent.kafkarest.ratelimit.AdaptiveConcurrencyLimiter;
 import io.confluent.kafkarest.ratelimit.RequestRateLimiter;
 import io.confluent.kafkarest.response.FakeAsyncResponse;
 import io.confluent.rest.exceptions.RestConstraintViolationException;
@@ -173,6 +174,7 @@ public class ProduceBatchActionTest {
             produceControllerProvider,
             () -> new ProducerMetrics(kafkaRestConfig, emptyMap()),
             produceRateLimiters,
+            new AdaptiveConcurrencyLimiter(/* enabled= */ false, 1, 1),
             Integer.valueOf(PRODUCE_BATCH_MAXIMUM_ENTRIES_DEFAULT),
             executorService);
     produceRateLimiters.clear();
@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.collect.ImmutableMap;
 import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.rest.RestConfig;
 import java.lang.management.ManagementFactory;
 import java.util.Hashtable;
@@ -125,6 +126,7 @@ public class ProducerMetricsTest {
               producerMetrics.recordResponse();
             });
 
+    producerMetrics.flush();
     MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
     Set<ObjectName> beanNames = mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null);
     assertEquals(1, beanNames.size());
@@ -191,6 +193,7 @@ public class ProducerMetricsTest {
               producerMetrics.recordResponse();
             });
 
+    producerMetrics.flush();
     MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
     Set<ObjectName> beanNames = mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null);
     assertEquals(1, beanNames.size());
@@ -204,6 +207,7 @@ public class ProducerMetricsTest {
   public void testMeterBasedMetrics() throws Exception {
     LongStream.iterate(1L, identity()).limit(30).forEach(producerMetrics::recordRequestSize);
 
+    producerMetrics.flush();
     MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
     Set<ObjectName> beanNames = mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null);
     assertEquals(1, beanNames.size());
@@ -215,6 +219,116 @@ public class ProducerMetricsTest {
         closeTo(1.0, 0.01));
   }
 
+  @Test
+  public void testClose_foldsMetricsRecordedSinceLastFlush() throws Exception {
+    producerMetrics.startFlushing();
+    LongStream.iterate(1L, identity()).limit(30).forEach(producerMetrics::recordRequestSize);
+
+    producerMetrics.close();
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    Set<ObjectName> beanNames = mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null);
+    assertEquals(1, beanNames.size());
+
+    assertEquals(30.0, mBeanServer.getAttribute(beanNames.iterator().next(), "request-byte-total"));
+  }
+
+  @Test
+  public void testStreamingInFlightMetrics() throws Exception {
+    IntStream.rangeClosed(1, 10).forEach(producerMetrics::recordStreamingInFlight);
+    IntStream.range(0, 3).forEach(n -> producerMetrics.recordStreamingWindowFull());
+
+    producerMetrics.flush();
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    Set<ObjectName> beanNames = mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null);
+    assertEquals(1, beanNames.size());
+
+    ObjectName beanName = beanNames.iterator().next();
+    assertEquals(
+        5.5,
+        mBeanServer.getAttribute(beanName, ProducerMetrics.STREAMING_IN_FLIGHT_AVG_METRIC_NAME));
+    assertEquals(
+        10.0,
+        mBeanServer.getAttribute(beanName, ProducerMetrics.STREAMING_IN_FLIGHT_MAX_METRIC_NAME));
+    assertEquals(
+        3.0,
+        mBeanServer.getAttribute(
+            beanName, ProducerMetrics.STREAMING_WINDOW_FULL_COUNT_WINDOWED_METRIC_NAME));
+  }
+
+  @Test
+  public void testSerializationLatencyMetrics() throws Exception {
+    String prefix = ProducerMetrics.serializationLatencyMetricPrefix(EmbeddedFormat.JSONSCHEMA);
+
+    LongStream.range(0L, 10L)
+        .forEach(
+            latency ->
+                producerMetrics.recordSerializationLatency(EmbeddedFormat.JSONSCHEMA, latency));
+    producerMetrics.recordSerializationLatency(EmbeddedFormat.AVRO, 100L);
+
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    Set<ObjectName> beanNames = mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null);
+    assertEquals(1, beanNames.size());
+
+    ObjectName beanName = beanNames.iterator().next();
+    assertEquals(4.5, mBeanServer.getAttribute(beanName, prefix + "avg"));
+    assertEquals(9.0, mBeanServer.getAttribute(beanName, prefix + "max"));
+    assertEquals(
+        100.0,
+        mBeanServer.getAttribute(
+            beanName,
+            ProducerMetrics.serializationLatencyMetricPrefix(EmbeddedFormat.AVRO) + "max"));
+  }
+
+  @Test
+  public void testStageLatencyMetrics() throws Exception {
+    String prefix = ProducerMetrics.stageLatencyMetricPrefix(ProducerMetrics.Stage.BROKER_ACK);
+
+    LongStream.range(0L, 10L)
+        .forEach(
+            latency ->
+                producerMetrics.recordStageLatency(ProducerMetrics.Stage.BROKER_ACK, latency));
+    producerMetrics.recordStageLatency(ProducerMetrics.Stage.JSON_PARSE, 100L);
+
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    Set<ObjectName> beanNames = mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null);
+    assertEquals(1, beanNames.size());
+
+    ObjectName beanName = beanNames.iterator().next();
+    assertEquals(4.5, mBeanServer.getAttribute(beanName, prefix + "avg"));
+    assertEquals(9.0, mBeanServer.getAttribute(beanName, prefix + "max"));
+    assertTrue(mBeanServer.getAttribute(beanName, prefix + "p99") instanceof Double);
+    assertEquals(
+        100.0,
+        mBeanServer.getAttribute(
+            beanName,
+            ProducerMetrics.stageLatencyMetricPrefix(ProducerMetrics.Stage.JSON_PARSE) + "max"));
+  }
+
+  @Test
+  public void testCountsNotVisibleUntilFlushed() throws Exception {
+    producerMetrics.recordRequest();
+    producerMetrics.recordRequestSize(10L);
+
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName beanName =
+        mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null).iterator().next();
+    assertEquals(
+        0.0,
+        mBeanServer.getAttribute(beanName, ProducerMetrics.REQUEST_COUNT_WINDOWED_METRIC_NAME));
+    assertEquals(0.0, mBeanServer.getAttribute(beanName, "request-byte-total"));
+
+    producerMetrics.flush();
+    producerMetrics.recordRequest();
+    producerMetrics.flush();
+    // Nothing recorded since the last flush, nothing to fold.
+    producerMetrics.flush();
+
+    assertEquals(
+        2.0,
+        mBeanServer.getAttribute(beanName, ProducerMetrics.REQUEST_COUNT_WINDOWED_METRIC_NAME));
+    assertEquals(10.0, mBeanServer.getAttribute(beanName, "request-byte-total"));
+  }
+
   @Test
   public void testTenantTag() throws Exception {
     MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
@@ -234,6 +348,8 @@ public class ProducerMetricsTest {
     producerMetrics2.recordRequest();
     producerMetrics2.recordRequest();
 
+    producerMetrics.flush();
+    producerMetrics2.flush();
     MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
     Set<ObjectName> beanNames = mBeanServer.queryNames(new ObjectName(METRICS_SEARCH_STRING), null);
     assertEquals(2, beanNames.size());
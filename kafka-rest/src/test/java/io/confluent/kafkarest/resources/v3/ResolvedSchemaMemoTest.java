@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.resources.v3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.node.IntNode;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafkarest.entities.RegisteredSchema;
+import io.confluent.kafkarest.entities.v3.ProduceRequest.ProduceRequestData;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+public class ResolvedSchemaMemoTest {
+
+  private static final RegisteredSchema SCHEMA =
+      RegisteredSchema.create("topic-1-value", 1, 1, new AvroSchema("{\"type\": \"int\"}"));
+
+  private final AtomicInteger resolutions = new AtomicInteger();
+  private final Supplier<RegisteredSchema> resolver =
+      () -> {
+        resolutions.incrementAndGet();
+        return SCHEMA;
+      };
+
+  @Test
+  public void resolve_sameSchemaId_resolvesOnce() {
+    ResolvedSchemaMemo memo = new ResolvedSchemaMemo();
+
+    assertSame(SCHEMA, memo.resolve(withSchemaId(1), resolver));
+    assertSame(SCHEMA, memo.resolve(withSchemaId(1), resolver));
+    assertSame(SCHEMA, memo.resolve(withSchemaId(1), resolver));
+
+    assertEquals(1, resolutions.get());
+  }
+
+  @Test
+  public void resolve_changedSchemaId_resolvesAgain() {
+    ResolvedSchemaMemo memo = new ResolvedSchemaMemo();
+
+    memo.resolve(withSchemaId(1), resolver);
+    memo.resolve(withSchemaId(2), resolver);
+    memo.resolve(withSchemaId(2), resolver);
+    memo.resolve(withSchemaId(1), resolver);
+
+    assertEquals(3, resolutions.get());
+  }
+
+  @Test
+  public void resolve_latestVersion_resolvesEveryTime() {
+    ResolvedSchemaMemo memo = new ResolvedSchemaMemo();
+    ProduceRequestData data =
+        ProduceRequestData.builder().setSubject("my-subject").setData(IntNode.valueOf(1)).build();
+
+    memo.resolve(data, resolver);
+    memo.resolve(data, resolver);
+
+    assertEquals(2, resolutions.get());
+  }
+
+  @Test
+  public void resolve_failedResolution_notRemembered() {
+    ResolvedSchemaMemo memo = new ResolvedSchemaMemo();
+
+    assertThrows(
+        SerializationException.class,
+        () ->
+            memo.resolve(
+                withSchemaId(1),
+                () -> {
+                  throw new SerializationException("Schema Registry is down");
+                }));
+    memo.resolve(withSchemaId(1), resolver);
+
+    assertEquals(1, resolutions.get());
+  }
+
+  private static ProduceRequestData withSchemaId(int schemaId) {
+    return ProduceRequestData.builder().setSchemaId(schemaId).setData(IntNode.valueOf(1)).build();
+  }
+}
@@ -15,25 +15,48 @@
 
 package io.confluent.kafkarest.response;
 
+import static io.confluent.kafkarest.TestUtils.waitForCondition;
+import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.mock;
+import static org.easymock.EasyMock.newCapture;
+import static org.easymock.EasyMock.niceMock;
 import static org.easymock.EasyMock.replay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.fasterxml.jackson.databind.node.TextNode;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.kafkarest.entities.v3.ProduceRequest;
 import io.confluent.kafkarest.entities.v3.ProduceRequest.ProduceRequestData;
 import io.confluent.kafkarest.entities.v3.ProduceResponse;
 import io.confluent.kafkarest.exceptions.v3.ErrorResponse;
 import io.confluent.kafkarest.requestlog.CustomLog.ProduceRecordErrorCounter;
+import io.confluent.kafkarest.response.StreamingResponse.InFlightWindowListener;
 import io.confluent.kafkarest.response.StreamingResponse.ResultOrError;
 import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
 import org.eclipse.jetty.http.HttpStatus;
 import org.glassfish.jersey.server.ChunkedOutput;
@@ -377,4 +400,278 @@ public class StreamingResponseTest {
     EasyMock.verify(requestsMappingIterator);
     EasyMock.verify(clock);
   }
+
+  @Test
+  public void testInFlightWindowPausesReads() throws Exception {
+    MappingIterator<String> requests =
+        new ObjectMapper().readerFor(String.class).readValues("\"foo\" \"bar\" \"baz\"");
+
+    ChunkedOutputFactory mockedChunkedOutputFactory = mock(ChunkedOutputFactory.class);
+    ChunkedOutput<ResultOrError> mockedChunkedOutput = niceMock(ChunkedOutput.class);
+    ProduceRecordErrorCounter produceRecordErrorCounter = mock(ProduceRecordErrorCounter.class);
+    expect(mockedChunkedOutputFactory.getChunkedOutput()).andReturn(mockedChunkedOutput);
+    replay(mockedChunkedOutputFactory, mockedChunkedOutput);
+
+    StreamingResponseFactory streamingResponseFactory =
+        new StreamingResponseFactory(
+            mockedChunkedOutputFactory, DURATION, DURATION, /* maxInFlightRecords= */ 1);
+    StreamingResponse<String> streamingResponse =
+        streamingResponseFactory.from(new JsonStream<>(() -> requests));
+
+    List<CompletableFuture<String>> responses = new CopyOnWriteArrayList<>();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    AtomicInteger windowFull = new AtomicInteger();
+    InFlightWindowListener listener =
+        new InFlightWindowListener() {
+          @Override
+          public void onRecordAdmitted(int inFlightRecords) {
+            maxInFlight.accumulateAndGet(inFlightRecords, Math::max);
+          }
+
+          @Override
+          public void onWindowFull() {
+            windowFull.incrementAndGet();
+          }
+        };
+
+    Thread reader =
+        new Thread(
+            () ->
+                streamingResponse
+                    .compose(
+                        request -> {
+                          CompletableFuture<String> response = new CompletableFuture<>();
+                          responses.add(response);
+                          return response;
+                        })
+                    .resume(new FakeAsyncResponse(), produceRecordErrorCounter, listener));
+    reader.start();
+
+    for (int i = 1; i <= 3; i++) {
+      int expectedResponses = i;
+      waitForCondition(
+          () -> responses.size() == expectedResponses, "Request " + expectedResponses + " read.");
+      if (i < 3) {
+        waitForCondition(
+            () -> windowFull.get() == expectedResponses, "Window full after each request.");
+        // The reader must not go any further while the window is full.
+        Thread.sleep(100);
+        assertEquals(expectedResponses, responses.size());
+      }
+      responses.get(i - 1).complete("response-" + i);
+    }
+
+    reader.join(TimeUnit.SECONDS.toMillis(10));
+    assertFalse(reader.isAlive());
+    assertEquals(1, maxInFlight.get());
+  }
+
+  @Test
+  public void testListenerReceivesReadAndWriteTimes() throws Exception {
+    MappingIterator<String> requests =
+        new ObjectMapper().readerFor(String.class).readValues("\"foo\" \"bar\" \"baz\"");
+
+    ChunkedOutputFactory mockedChunkedOutputFactory = mock(ChunkedOutputFactory.class);
+    ChunkedOutput<ResultOrError> mockedChunkedOutput = niceMock(ChunkedOutput.class);
+    ProduceRecordErrorCounter produceRecordErrorCounter = mock(ProduceRecordErrorCounter.class);
+    expect(mockedChunkedOutputFactory.getChunkedOutput()).andReturn(mockedChunkedOutput);
+    replay(mockedChunkedOutputFactory, mockedChunkedOutput);
+
+    StreamingResponseFactory streamingResponseFactory =
+        new StreamingResponseFactory(mockedChunkedOutputFactory, DURATION, DURATION);
+    StreamingResponse<String> streamingResponse =
+        streamingResponseFactory.from(new JsonStream<>(() -> requests));
+
+    AtomicInteger reads = new AtomicInteger();
+    AtomicInteger writes = new AtomicInteger();
+    InFlightWindowListener listener =
+        new InFlightWindowListener() {
+          @Override
+          public void onRecordAdmitted(int inFlightRecords) {}
+
+          @Override
+          public void onWindowFull() {}
+
+          @Override
+          public void onRecordRead(long readNanos) {
+            assertTrue(readNanos >= 0);
+            reads.incrementAndGet();
+          }
+
+          @Override
+          public void onResponseWritten(long writeNanos) {
+            assertTrue(writeNanos >= 0);
+            writes.incrementAndGet();
+          }
+        };
+
+    streamingResponse
+        .compose(request -> CompletableFuture.completedFuture(request + "-response"))
+        .resume(new FakeAsyncResponse(), produceRecordErrorCounter, listener);
+
+    assertEquals(3, reads.get());
+    assertEquals(3, writes.get());
+  }
+
+  @Test
+  public void testResponsesWrittenInOrderWhenCompletedOutOfOrder() throws Exception {
+    MappingIterator<String> requests =
+        new ObjectMapper().readerFor(String.class).readValues("\"foo\" \"bar\" \"baz\"");
+
+    ChunkedOutputFactory mockedChunkedOutputFactory = mock(ChunkedOutputFactory.class);
+    ChunkedOutput<ResultOrError> mockedChunkedOutput = mock(ChunkedOutput.class);
+    ProduceRecordErrorCounter produceRecordErrorCounter = mock(ProduceRecordErrorCounter.class);
+    Capture<ResultOrError> written = newCapture(CaptureType.ALL);
+    expect(mockedChunkedOutputFactory.getChunkedOutput()).andReturn(mockedChunkedOutput);
+    expect(mockedChunkedOutput.isClosed()).andReturn(false).times(3);
+    mockedChunkedOutput.write(capture(written));
+    expectLastCall().times(3);
+    mockedChunkedOutput.close();
+    replay(mockedChunkedOutputFactory, mockedChunkedOutput);
+
+    StreamingResponseFactory streamingResponseFactory =
+        new StreamingResponseFactory(mockedChunkedOutputFactory, DURATION, DURATION);
+    StreamingResponse<String> streamingResponse =
+        streamingResponseFactory.from(new JsonStream<>(() -> requests));
+
+    List<CompletableFuture<String>> responses = new CopyOnWriteArrayList<>();
+    streamingResponse
+        .compose(
+            request -> {
+              CompletableFuture<String> response = new CompletableFuture<>();
+              responses.add(response);
+              return response;
+            })
+        .resume(new FakeAsyncResponse(), produceRecordErrorCounter);
+
+    assertEquals(3, responses.size());
+    responses.get(2).complete("baz");
+    responses.get(1).complete("bar");
+    assertEquals(0, written.getValues().size());
+    responses.get(0).complete("foo");
+
+    assertEquals(
+        Arrays.asList(
+            ResultOrError.result("foo"), ResultOrError.result("bar"), ResultOrError.result("baz")),
+        written.getValues());
+    EasyMock.verify(mockedChunkedOutput);
+  }
+
+  @Test
+  public void testResponsesReadyTogetherCoalescedIntoSingleWrite() throws Exception {
+    MappingIterator<String> requests =
+        new ObjectMapper().readerFor(String.class).readValues("\"foo\" \"bar\" \"baz\"");
+
+    ChunkedOutputFactory mockedChunkedOutputFactory = mock(ChunkedOutputFactory.class);
+    ChunkedOutput<ResultOrError> mockedChunkedOutput = mock(ChunkedOutput.class);
+    ProduceRecordErrorCounter produceRecordErrorCounter = mock(ProduceRecordErrorCounter.class);
+    Capture<ResultOrError> written = newCapture(CaptureType.ALL);
+    expect(mockedChunkedOutputFactory.getChunkedOutput()).andReturn(mockedChunkedOutput);
+    expect(mockedChunkedOutput.isClosed()).andReturn(false).times(2);
+    mockedChunkedOutput.write(capture(written));
+    expectLastCall().times(2);
+    mockedChunkedOutput.close();
+    replay(mockedChunkedOutputFactory, mockedChunkedOutput);
+
+    StreamingResponseFactory streamingResponseFactory =
+        new StreamingResponseFactory(
+            mockedChunkedOutputFactory,
+            DURATION,
+            DURATION,
+            /* maxInFlightRecords= */ 0,
+            /* responseBatchMaxRecords= */ 2,
+            Duration.ZERO,
+            MoreExecutors.newDirectExecutorService());
+    StreamingResponse<String> streamingResponse =
+        streamingResponseFactory.from(new JsonStream<>(() -> requests));
+
+    List<CompletableFuture<String>> responses = new CopyOnWriteArrayList<>();
+    streamingResponse
+        .compose(
+            request -> {
+              CompletableFuture<String> response = new CompletableFuture<>();
+              responses.add(response);
+              return response;
+            })
+        .resume(new FakeAsyncResponse(), produceRecordErrorCounter);
+
+    assertEquals(3, responses.size());
+    responses.get(2).complete("baz");
+    responses.get(1).complete("bar");
+    responses.get(0).complete("foo");
+
+    assertEquals(
+        Arrays.asList(
+            ResultOrError.batch(
+                Arrays.asList(ResultOrError.result("foo"), ResultOrError.result("bar"))),
+            ResultOrError.result("baz")),
+        written.getValues());
+    EasyMock.verify(mockedChunkedOutput);
+  }
+
+  @Test
+  public void testLingeringBatchWrittenOnLingerExecutor() throws Exception {
+    // The request stream is kept open, so that the batch is only written once the linger elapses.
+    PipedOutputStream requestsOut = new PipedOutputStream();
+    PipedInputStream requestsIn = new PipedInputStream(requestsOut);
+    requestsOut.write("\"foo\" \"bar\" ".getBytes(StandardCharsets.UTF_8));
+    requestsOut.flush();
+    MappingIterator<String> requests =
+        new ObjectMapper().readerFor(String.class).readValues(requestsIn);
+
+    ChunkedOutputFactory mockedChunkedOutputFactory = mock(ChunkedOutputFactory.class);
+    ChunkedOutput<ResultOrError> mockedChunkedOutput = niceMock(ChunkedOutput.class);
+    ProduceRecordErrorCounter produceRecordErrorCounter = mock(ProduceRecordErrorCounter.class);
+    List<String> writerThreads = new CopyOnWriteArrayList<>();
+    expect(mockedChunkedOutputFactory.getChunkedOutput()).andReturn(mockedChunkedOutput);
+    mockedChunkedOutput.write(EasyMock.anyObject());
+    expectLastCall()
+        .andAnswer(
+            () -> {
+              writerThreads.add(Thread.currentThread().getName());
+              return null;
+            })
+        .anyTimes();
+    replay(mockedChunkedOutputFactory, mockedChunkedOutput);
+
+    ExecutorService lingerExecutor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "linger-executor"));
+    StreamingResponseFactory streamingResponseFactory =
+        new StreamingResponseFactory(
+            mockedChunkedOutputFactory,
+            DURATION,
+            DURATION,
+            /* maxInFlightRecords= */ 0,
+            /* responseBatchMaxRecords= */ 10,
+            Duration.ofMillis(50),
+            lingerExecutor);
+    StreamingResponse<String> streamingResponse =
+        streamingResponseFactory.from(new JsonStream<>(() -> requests));
+
+    List<CompletableFuture<String>> responses = new CopyOnWriteArrayList<>();
+    Thread reader =
+        new Thread(
+            () ->
+                streamingResponse
+                    .compose(
+                        request -> {
+                          CompletableFuture<String> response = new CompletableFuture<>();
+                          responses.add(response);
+                          return response;
+                        })
+                    .resume(new FakeAsyncResponse(), produceRecordErrorCounter));
+    reader.start();
+
+    waitForCondition(() -> responses.size() == 2, "Requests read.");
+    // "bar" is still outstanding, so "foo" lingers, and is written once the linger elapses.
+    responses.get(0).complete("foo");
+    waitForCondition(() -> writerThreads.size() == 1, "Lingering batch written.");
+    assertEquals(Arrays.asList("linger-executor"), writerThreads);
+
+    responses.get(1).complete("bar");
+    requestsOut.close();
+    reader.join(TimeUnit.SECONDS.toMillis(10));
+    assertFalse(reader.isAlive());
+    lingerExecutor.shutdown();
+  }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void emptyHistogram_returnsZero() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getTotalCount());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+    assertEquals(0, histogram.getMaxValue());
+  }
+
+  @Test
+  public void smallValues_areExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    assertEquals(100, histogram.getTotalCount());
+    assertEquals(50, histogram.getValueAtPercentile(50));
+    assertEquals(99, histogram.getValueAtPercentile(99));
+    assertEquals(100, histogram.getValueAtPercentile(100));
+    assertEquals(100, histogram.getMaxValue());
+  }
+
+  @Test
+  public void largeValues_areWithinTwoPercent() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1000; value <= 10_000_000_000L; value *= 10) {
+      histogram.record(value);
+      long percentile = histogram.getValueAtPercentile(100);
+      assertTrue(
+          percentile >= value && percentile <= value * 1.02,
+          value + " reported as " + percentile);
+      histogram = new LatencyHistogram();
+    }
+  }
+
+  @Test
+  public void percentile_neverAboveMax() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1_000_001);
+
+    assertEquals(1_000_001, histogram.getValueAtPercentile(50));
+  }
+
+  @Test
+  public void outOfRangeValues_areClamped() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-1);
+    histogram.record(Long.MAX_VALUE);
+
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void drain_movesValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(10);
+    histogram.record(20);
+
+    LatencyHistogram drained = histogram.drain();
+
+    assertEquals(0, histogram.getTotalCount());
+    assertEquals(0, histogram.getMaxValue());
+    assertEquals(0, histogram.getValueAtPercentile(100));
+    assertEquals(2, drained.getTotalCount());
+    assertEquals(20, drained.getMaxValue());
+    assertEquals(10, drained.getValueAtPercentile(50));
+  }
+
+  @Test
+  public void add_mergesValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(10);
+    LatencyHistogram other = new LatencyHistogram();
+    other.record(20);
+    other.record(30);
+
+    histogram.add(other);
+
+    assertEquals(3, histogram.getTotalCount());
+    assertEquals(30, histogram.getMaxValue());
+    assertEquals(20, histogram.getValueAtPercentile(50));
+  }
+}
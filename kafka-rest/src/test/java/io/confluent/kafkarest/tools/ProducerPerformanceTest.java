@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.tools.ProducerPerformance.Mode;
+import io.confluent.kafkarest.tools.ProducerPerformance.Options;
+import org.junit.jupiter.api.Test;
+
+public class ProducerPerformanceTest {
+
+  @Test
+  public void parse_options() {
+    Options options =
+        Options.parse(
+            new String[] {
+              "--url", "http://localhost:8082",
+              "--topic", "topic-1",
+              "--mode", "streaming",
+              "--format", "avro",
+              "--num-records", "1000",
+              "--records-per-sec", "500",
+              "--connections", "4",
+              "--http2"
+            });
+
+    assertEquals("http://localhost:8082", options.url);
+    assertEquals("topic-1", options.topic);
+    assertEquals(Mode.STREAMING, options.mode);
+    assertEquals(EmbeddedFormat.AVRO, options.format);
+    assertEquals(1000, options.numRecords);
+    assertEquals(500, options.recordsPerSec);
+    assertEquals(4, options.connections);
+    assertTrue(options.http2);
+  }
+
+  @Test
+  public void parse_legacyArguments_useV2() {
+    Options options =
+        Options.parse(new String[] {"http://localhost:8082", "topic-1", "1000", "10", "100", "50"});
+
+    assertEquals(Mode.V2, options.mode);
+    assertEquals("http://localhost:8082", options.url);
+    assertEquals("topic-1", options.topic);
+    assertEquals(1000, options.numRecords);
+    assertEquals(10, options.recordSize);
+    assertEquals(100, options.batchSize);
+    assertEquals(50, options.recordsPerSec);
+    assertFalse(options.http2);
+  }
+
+  @Test
+  public void parse_batchMode_roundsUpNumRecordsToWholeBatches() {
+    Options options =
+        Options.parse(
+            new String[] {
+              "--url", "http://localhost:8082",
+              "--topic", "topic-1",
+              "--mode", "BATCH",
+              "--batch-size", "100",
+              "--num-records", "250"
+            });
+
+    assertEquals(300, options.numRecords);
+  }
+
+  @Test
+  public void parse_missingTopic_throws() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Options.parse(new String[] {"--url", "http://localhost:8082"}));
+  }
+
+  @Test
+  public void parse_schemaIdWithoutSchemaFormat_throws() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            Options.parse(
+                new String[] {
+                  "--url", "http://localhost:8082", "--topic", "topic-1", "--schema-id", "1"
+                }));
+  }
+
+  @Test
+  public void parse_unknownOption_throws() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            Options.parse(
+                new String[] {
+                  "--url", "http://localhost:8082", "--topic", "topic-1", "--foo", "1"
+                }));
+  }
+}
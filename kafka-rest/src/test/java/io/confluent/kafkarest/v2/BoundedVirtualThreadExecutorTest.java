@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BoundedVirtualThreadExecutorTest {
+
+  @BeforeEach
+  public void setUp() {
+    assumeTrue(BoundedVirtualThreadExecutor.isSupported(), "Virtual threads require Java 21");
+  }
+
+  @Test
+  public void execute_pastLimit_waitsForPermit() throws Exception {
+    BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(20);
+
+    for (int i = 0; i < 20; i++) {
+      executor.execute(
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+              Thread.sleep(10);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            done.countDown();
+          });
+    }
+
+    assertTrue(done.await(10, TimeUnit.SECONDS), "Tasks did not all run");
+    assertTrue(maxRunning.get() <= 2, "Ran " + maxRunning.get() + " tasks at once");
+    executor.shutdown();
+  }
+
+  @Test
+  public void submit_unbounded_returnsResult() throws Exception {
+    BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(-1);
+
+    assertEquals(42, executor.submit(() -> 42).get(10, TimeUnit.SECONDS));
+    executor.shutdown();
+  }
+
+  @Test
+  public void execute_afterShutdown_dropsTask() throws Exception {
+    BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(1);
+    executor.shutdown();
+    AtomicBoolean ran = new AtomicBoolean();
+
+    executor.execute(() -> ran.set(true));
+
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    assertFalse(ran.get());
+  }
+}
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -32,11 +33,14 @@ import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.kafkarest.entities.TopicPartitionOffset;
 import io.confluent.kafkarest.entities.v2.ConsumerOffsetCommitRequest;
 import io.confluent.kafkarest.entities.v2.ConsumerSubscriptionRecord;
+import io.confluent.rest.exceptions.RestException;
+import io.confluent.rest.exceptions.RestNotFoundException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
@@ -45,13 +49,14 @@ import java.util.concurrent.TimeUnit;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.easymock.EasyMockExtension;
 import org.easymock.Mock;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
@@ -176,6 +181,41 @@ public class KafkaConsumerManagerTest {
     EasyMock.verify(consumerFactory);
   }
 
+  @Test
+  public void testCreateConsumerWithExistingNameFails() {
+    expectCreate(consumer);
+    ConsumerInstanceConfig instanceConfig =
+        ConsumerInstanceConfig.create(
+            /* id= */ null,
+            /* name= */ "instance",
+            EmbeddedFormat.BINARY,
+            /* autoOffsetReset= */ null,
+            /* autoCommitEnable= */ null,
+            /* responseMinBytes= */ null,
+            /* requestWaitMs= */ null);
+    consumerManager.createConsumer(groupName, instanceConfig);
+
+    assertThrows(
+        RestException.class, () -> consumerManager.createConsumer(groupName, instanceConfig));
+    assertNotNull(consumerManager.getConsumerInstance(groupName, "instance"));
+  }
+
+  @Test
+  public void testExpiredConsumerIsRemovedAndClosed() throws Exception {
+    Properties props = setUpProperties();
+    props.setProperty(KafkaRestConfig.CONSUMER_INSTANCE_TIMEOUT_MS_CONFIG, "100");
+    setUpConsumer(props);
+    expectCreate(consumer);
+    String cid =
+        consumerManager.createConsumer(
+            groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+
+    Thread.sleep(2500);
+    assertThrows(
+        RestNotFoundException.class, () -> consumerManager.getConsumerInstance(groupName, cid));
+    assertTrue(consumer.closed(), "Expired consumer was not closed");
+  }
+
   /** Response should return no sooner than KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_CONFIG */
   @Test
   public void testConsumerRequestTimeoutms() throws Exception {
@@ -483,39 +523,163 @@ public class KafkaConsumerManagerTest {
   }
 
   @Test
-  public void testBackoffMsUpdatesReadTaskExpiry() throws Exception {
+  public void testBackoffMsSchedulesNextPollOfParkedReadTask() throws Exception {
     Properties props = setUpProperties();
     props.put(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG, "1000");
     config = new KafkaRestConfig(props);
     consumerManager = new KafkaConsumerManager(config, consumerFactory);
     consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST, groupName);
     bootstrapConsumer(consumer);
-    consumerManager.readRecords(
-        groupName,
-        consumer.cid(),
-        BinaryKafkaConsumerState.class,
-        Duration.ofMillis(-1),
-        Long.MAX_VALUE,
-        new ConsumerReadCallback<ByteString, ByteString>() {
-          @Override
-          public void onCompletion(
-              List<ConsumerRecord<ByteString, ByteString>> records, Exception e) {
-            actualException = e;
-            actualRecords = records;
-            sawCallback = true;
-          }
-        });
+    KafkaConsumerState<?, ?, ?, ?> state =
+        consumerManager.getConsumerInstance(groupName, consumer.cid());
+    readFromDefault(consumer.cid());
 
     Thread.sleep(100);
-    KafkaConsumerManager.RunnableReadTask readTask = consumerManager.delayedReadTasks.peek();
-    if (readTask == null) {
-      fail("Could not get read task in time. It should not be null");
+    KafkaConsumerManager.ParkedReadTasks parked = consumerManager.parkedReadTasks.get(state);
+    if (parked == null) {
+      fail("Could not get parked read tasks in time. It should not be null");
     }
-    long delay = readTask.getDelay(TimeUnit.MILLISECONDS);
+    assertEquals(1, parked.size());
+    long delay = parked.getNextPollDelay(TimeUnit.MILLISECONDS);
     assertTrue(delay < 1000);
     assertTrue(delay > 700);
   }
 
+  @Test
+  public void testParkedReadTaskIsWokenUpByPolledRecords() throws Exception {
+    Properties props = setUpProperties();
+    props.setProperty(KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_CONFIG, "5000");
+    props.setProperty(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG, "100");
+    props.setProperty(KafkaRestConfig.PROXY_FETCH_MIN_BYTES_CONFIG, "1");
+    setUpConsumer(props);
+
+    expectCreate(consumer);
+    String cid =
+        consumerManager.createConsumer(
+            groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+    consumerManager.subscribe(
+        groupName, cid, new ConsumerSubscriptionRecord(Collections.singletonList(topicName), null));
+    consumer.rebalance(Collections.singletonList(new TopicPartition(topicName, 0)));
+    consumer.updateBeginningOffsets(singletonMap(new TopicPartition(topicName, 0), 0L));
+    KafkaConsumerState<?, ?, ?, ?> state = consumerManager.getConsumerInstance(groupName, cid);
+
+    readFromDefault(cid);
+    Thread.sleep(300);
+    assertFalse(sawCallback, "Callback fired without records");
+    assertEquals(1, consumerManager.parkedReadTasks.get(state).size());
+
+    consumer.addRecord(record(0));
+    Thread.sleep(300);
+    assertTrue(sawCallback, "Callback failed to fire");
+    assertNull(actualException, "No exception in callback");
+    assertEquals(Collections.singletonList(binaryConsumerRecord(0)), actualRecords);
+    // Nothing is left waiting on the consumer, so it is not polled anymore.
+    assertNull(consumerManager.parkedReadTasks.get(state));
+  }
+
+  @Test
+  public void testPrefetchBuffersRecordsAheadOfReads() throws Exception {
+    Properties props = setUpProperties();
+    props.setProperty(KafkaRestConfig.CONSUMER_PREFETCH_ENABLE_CONFIG, "true");
+    props.setProperty(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG, "50");
+    props.setProperty(KafkaRestConfig.PROXY_FETCH_MIN_BYTES_CONFIG, "1");
+    setUpConsumer(props);
+    List<ConsumerRecord<ByteString, ByteString>> referenceRecords = bootstrapConsumer(consumer);
+    KafkaConsumerState<?, ?, ?, ?> state =
+        consumerManager.getConsumerInstance(groupName, consumer.cid());
+
+    Thread.sleep(200);
+    assertTrue(state.hasNextCached(), "Records were not prefetched");
+
+    readFromDefault(consumer.cid());
+    Thread.sleep(200);
+    assertTrue(sawCallback, "Callback failed to fire");
+    assertNull(actualException, "No exception in callback");
+    assertEquals(referenceRecords, actualRecords, "Records returned not as expected");
+  }
+
+  @Test
+  public void testPrefetchPausesConsumerWhileBufferIsFull() throws Exception {
+    Properties props = setUpProperties();
+    props.setProperty(KafkaRestConfig.CONSUMER_PREFETCH_ENABLE_CONFIG, "true");
+    props.setProperty(KafkaRestConfig.CONSUMER_PREFETCH_MAX_BYTES_CONFIG, "1");
+    props.setProperty(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG, "50");
+    props.setProperty(KafkaRestConfig.PROXY_FETCH_MIN_BYTES_CONFIG, "1");
+    setUpConsumer(props);
+
+    expectCreate(consumer);
+    String cid =
+        consumerManager.createConsumer(
+            groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+    consumerManager.subscribe(
+        groupName, cid, new ConsumerSubscriptionRecord(Collections.singletonList(topicName), null));
+    consumer.rebalance(Collections.singletonList(new TopicPartition(topicName, 0)));
+    consumer.updateBeginningOffsets(singletonMap(new TopicPartition(topicName, 0), 0L));
+    consumer.addRecord(
+        new org.apache.kafka.clients.consumer.ConsumerRecord<>(
+            topicName,
+            0,
+            0,
+            0L,
+            TimestampType.CREATE_TIME,
+            /* serializedKeySize= */ 2,
+            /* serializedValueSize= */ 2,
+            "k0".getBytes(),
+            "v0".getBytes(),
+            new RecordHeaders(),
+            Optional.empty()));
+
+    Thread.sleep(200);
+    assertEquals(consumer.assignment(), consumer.paused());
+
+    readFromDefault(cid);
+    Thread.sleep(200);
+    assertTrue(sawCallback, "Callback failed to fire");
+    assertNull(actualException, "No exception in callback");
+    assertEquals(Collections.singletonList(binaryConsumerRecord(0)), actualRecords);
+    assertTrue(consumer.paused().isEmpty(), "Consumer still paused after buffer was drained");
+  }
+
+  @Test
+  public void testPrefetchDropsRecordsOfRevokedPartitions() throws Exception {
+    Properties props = setUpProperties();
+    props.setProperty(KafkaRestConfig.CONSUMER_PREFETCH_ENABLE_CONFIG, "true");
+    props.setProperty(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG, "50");
+    props.setProperty(KafkaRestConfig.PROXY_FETCH_MIN_BYTES_CONFIG, "1");
+    setUpConsumer(props);
+
+    expectCreate(consumer);
+    String cid =
+        consumerManager.createConsumer(
+            groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+    consumerManager.subscribe(
+        groupName, cid, new ConsumerSubscriptionRecord(Collections.singletonList(topicName), null));
+    TopicPartition partition0 = new TopicPartition(topicName, 0);
+    TopicPartition partition1 = new TopicPartition(topicName, 1);
+    consumer.rebalance(Arrays.asList(partition0, partition1));
+    consumer.updateBeginningOffsets(singletonMap(partition0, 0L));
+    consumer.updateBeginningOffsets(singletonMap(partition1, 0L));
+    consumer.addRecord(record(0));
+    consumer.addRecord(
+        new org.apache.kafka.clients.consumer.ConsumerRecord<>(
+            topicName, 1, 0, "k1".getBytes(), "v1".getBytes()));
+    KafkaConsumerState<?, ?, ?, ?> state = consumerManager.getConsumerInstance(groupName, cid);
+
+    Thread.sleep(200);
+    assertTrue(state.hasNextCached(), "Records were not prefetched");
+
+    // Locks the state first, the same as prefetching, which polls the consumer with it held.
+    synchronized (state) {
+      consumer.rebalance(Collections.singletonList(partition0));
+    }
+
+    readFromDefault(cid);
+    Thread.sleep(200);
+    assertTrue(sawCallback, "Callback failed to fire");
+    assertNull(actualException, "No exception in callback");
+    assertEquals(Collections.singletonList(binaryConsumerRecord(0)), actualRecords);
+  }
+
   @Test
   public void testConsumerExpirationIsUpdated() throws Exception {
     bootstrapConsumer(consumer);
@@ -568,74 +732,6 @@ public class KafkaConsumerManagerTest {
         (long) (Integer.parseInt(KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_DEFAULT) * 1.10));
   }
 
-  @Disabled
-  @Test
-  public void testReadRecordsPopulatesDelayedReadTaskWhenExecutorFull() throws Exception {
-    Properties props = setUpProperties();
-    props.setProperty(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG, "1");
-    config = new KafkaRestConfig(props);
-    consumerManager = new KafkaConsumerManager(config, consumerFactory);
-    MockConsumer consumer1 = new MockConsumer<>(OffsetResetStrategy.EARLIEST, "a");
-    MockConsumer consumer2 = new MockConsumer<>(OffsetResetStrategy.EARLIEST, "b");
-    MockConsumer consumer3 = new MockConsumer<>(OffsetResetStrategy.EARLIEST, "c");
-    capturedConsumerConfig = Capture.newInstance();
-    EasyMock.expect(consumerFactory.createConsumer(EasyMock.capture(capturedConsumerConfig)))
-        .andReturn(consumer1)
-        .andReturn(consumer2)
-        .andReturn(consumer3);
-    EasyMock.replay(consumerFactory);
-    bootstrapConsumer(consumer1, false);
-    bootstrapConsumer(consumer2, false);
-    bootstrapConsumer(consumer3, false);
-
-    ConsumerReadCallback callback =
-        new ConsumerReadCallback<ByteString, ByteString>() {
-          @Override
-          public void onCompletion(
-              List<ConsumerRecord<ByteString, ByteString>> records, Exception e) {
-            actualException = e;
-            actualRecords = records;
-            sawCallback = true;
-          }
-        };
-    consumerManager.readRecords(
-        "a",
-        consumer1.cid(),
-        BinaryKafkaConsumerState.class,
-        Duration.ofMillis(-1),
-        Long.MAX_VALUE,
-        callback);
-    // should go over the consumer.threads threshold and be rejected. Rejected tasks are delayed
-    // between 25-75ms
-    consumerManager.readRecords(
-        "a",
-        consumer2.cid(),
-        BinaryKafkaConsumerState.class,
-        Duration.ofMillis(-1),
-        Long.MAX_VALUE,
-        callback);
-    Thread.sleep(10000);
-    for (Object a : consumerManager.delayedReadTasks) {
-      long delayMs = ((KafkaConsumerManager.RunnableReadTask) a).getDelay(TimeUnit.MILLISECONDS);
-      assertTrue(delayMs > 20);
-      assertTrue(delayMs < 75);
-    }
-    assertEquals(1, consumerManager.delayedReadTasks.size());
-    consumerManager.readRecords(
-        "c",
-        consumer3.cid(),
-        BinaryKafkaConsumerState.class,
-        Duration.ofMillis(-1),
-        Long.MAX_VALUE,
-        callback);
-    assertEquals(2, consumerManager.delayedReadTasks.size());
-    for (Object a : consumerManager.delayedReadTasks) {
-      long delayMs = ((KafkaConsumerManager.RunnableReadTask) a).getDelay(TimeUnit.MILLISECONDS);
-      assertTrue(delayMs > 20);
-      assertTrue(delayMs < 75);
-    }
-  }
-
   private List<ConsumerRecord<ByteString, ByteString>> bootstrapConsumer(
       final MockConsumer<byte[], byte[]> consumer) {
     return bootstrapConsumer(consumer, true);
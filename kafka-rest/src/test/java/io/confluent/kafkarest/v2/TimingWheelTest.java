@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+  @Test
+  public void advance_toExpiration_releasesItem() {
+    TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+    wheel.add("a", 25);
+
+    assertEquals(emptyList(), wheel.advance(19));
+    assertEquals(singletonList("a"), wheel.advance(20));
+    assertEquals(emptyList(), wheel.advance(30));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void add_pastExpiration_releasesItemOnNextTick() {
+    TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+    wheel.advance(100);
+    wheel.add("a", 50);
+
+    assertEquals(emptyList(), wheel.advance(109));
+    assertEquals(singletonList("a"), wheel.advance(110));
+  }
+
+  @Test
+  public void add_pastFirstLevel_cascadesDownBeforeExpiration() {
+    TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+    wheel.add("a", 500);
+    wheel.add("b", 5000);
+    assertEquals(2, wheel.size());
+
+    for (long now = 0; now < 490; now += 10) {
+      assertEquals(emptyList(), wheel.advance(now));
+    }
+    assertEquals(singletonList("a"), wheel.advance(500));
+    for (long now = 500; now < 4990; now += 10) {
+      assertEquals(emptyList(), wheel.advance(now));
+    }
+    assertEquals(singletonList("b"), wheel.advance(5000));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void advance_afterLongPause_releasesAllDueItems() {
+    TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+    wheel.add("a", 30);
+    wheel.add("b", 5000);
+    wheel.add("c", 100_000);
+    wheel.add("d", 200_000);
+
+    assertEquals(new HashSet<>(asList("a", "b", "c")), new HashSet<>(wheel.advance(100_000)));
+    assertEquals(1, wheel.size());
+    assertEquals(emptyList(), wheel.advance(199_989));
+    assertEquals(singletonList("d"), wheel.advance(200_000));
+  }
+}